@@ -84,13 +84,50 @@ public class AccountOperations implements IInheritedBehaviors {
      */
     public PagedList<NodeAgentSku> listNodeAgentSkus(DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         AccountListNodeAgentSkusOptions options = new AccountListNodeAgentSkusOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
         bhMgr.applyRequestBehaviors(options);
 
         return this._parentBatchClient.protocolLayer().accounts().listNodeAgentSkus(options);
     }
 
+    /**
+     * Lists the node agent SKU values supported by the Batch service.
+     *
+     * @return A {@link PagedIterator} over {@link NodeAgentSku} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException         Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<NodeAgentSku> iterateNodeAgentSkus() throws BatchErrorException, IOException {
+        return iterateNodeAgentSkus(null, null);
+    }
+
+    /**
+     * Lists the node agent SKU values supported by the Batch service.
+     *
+     * @param detailLevel A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @return A {@link PagedIterator} over {@link NodeAgentSku} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException         Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<NodeAgentSku> iterateNodeAgentSkus(DetailLevel detailLevel) throws BatchErrorException, IOException {
+        return iterateNodeAgentSkus(detailLevel, null);
+    }
+
+    /**
+     * Lists the node agent SKU values supported by the Batch service.
+     *
+     * @param detailLevel         A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @param additionalBehaviors A collection of {@link BatchClientBehavior} instances that are applied to the Batch service request.
+     * @return A {@link PagedIterator} over {@link NodeAgentSku} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException         Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<NodeAgentSku> iterateNodeAgentSkus(DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return PagedIterator.create(listNodeAgentSkus(detailLevel, additionalBehaviors), this._parentBatchClient, bhMgr);
+    }
+
     /**
      * Gets the number of nodes in each state, grouped by pool.
      *
@@ -113,10 +150,35 @@ public class AccountOperations implements IInheritedBehaviors {
      */
     public PagedList<PoolNodeCounts> listPoolNodeCounts(DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         AccountListPoolNodeCountsOptions options = new AccountListPoolNodeCountsOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
         bhMgr.applyRequestBehaviors(options);
 
         return this._parentBatchClient.protocolLayer().accounts().listPoolNodeCounts(options);
     }
+
+    /**
+     * Gets the number of nodes in each state, grouped by pool.
+     *
+     * @return A {@link PagedIterator} over {@link PoolNodeCounts} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException         Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<PoolNodeCounts> iteratePoolNodeCounts() throws BatchErrorException, IOException {
+        return iteratePoolNodeCounts(null, null);
+    }
+
+    /**
+     * Gets the number of nodes in each state, grouped by pool.
+     *
+     * @param detailLevel         A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @param additionalBehaviors A collection of {@link BatchClientBehavior} instances that are applied to the Batch service request.
+     * @return A {@link PagedIterator} over {@link PoolNodeCounts} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException         Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<PoolNodeCounts> iteratePoolNodeCounts(DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return PagedIterator.create(listPoolNodeCounts(detailLevel, additionalBehaviors), this._parentBatchClient, bhMgr);
+    }
 }
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+/**
+ * An additive-increase, multiplicative-decrease limit on the number of concurrent requests.
+ *
+ * The limit starts at the lower bound and doubles with every round of healthy requests until
+ * the first sign of congestion, then grows by one request per round. It is halved when the
+ * Batch service throttles a request, but at most once for the requests which were already
+ * in flight when it was last halved. A request is healthy while its latency stays within
+ * twice the slowly moving average latency, so a sudden slowdown of the service stops the
+ * growth before requests start to be throttled. The limit does not grow while less than
+ * half of it is used, since the requests are then limited by the caller rather than by the
+ * service.
+ *
+ * The class is not thread-safe; callers synchronize access.
+ */
+class AdaptiveConcurrencyLimit {
+    private static final double BACKOFF_RATIO = 0.5;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final double LATENCY_SMOOTHING = 0.05;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+    private boolean slowStart = true;
+    private double averageLatencyNanos;
+    private boolean decreased;
+    private long lastDecreaseNanos;
+
+    /**
+     * Initializes a new instance of the AdaptiveConcurrencyLimit class.
+     *
+     * @param minLimit The lower bound of the limit, and its initial value.
+     * @param maxLimit The upper bound of the limit.
+     */
+    AdaptiveConcurrencyLimit(int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = minLimit;
+    }
+
+    /**
+     * @return The current number of requests allowed in flight.
+     */
+    int current() {
+        return (int) limit;
+    }
+
+    /**
+     * Records a request which completed without being throttled.
+     *
+     * @param latencyNanos The time taken by the request, in nanoseconds.
+     * @param inFlight The number of requests in flight when the request completed, including it.
+     */
+    void onSuccess(long latencyNanos, int inFlight) {
+        boolean healthy = averageLatencyNanos == 0 || latencyNanos <= averageLatencyNanos * LATENCY_TOLERANCE;
+        averageLatencyNanos = averageLatencyNanos == 0
+                ? latencyNanos
+                : averageLatencyNanos + (latencyNanos - averageLatencyNanos) * LATENCY_SMOOTHING;
+        if (!healthy) {
+            // The service is slowing down, hold the limit where it is.
+            slowStart = false;
+            return;
+        }
+        if (inFlight * 2 < limit) {
+            return;
+        }
+
+        // One per request doubles the limit per round, 1/limit per request adds one per round.
+        limit = Math.min(maxLimit, limit + (slowStart ? 1 : 1 / limit));
+    }
+
+    /**
+     * Records a request which was throttled by the Batch service.
+     *
+     * @param startNanos The {@link System#nanoTime()} at which the request was sent.
+     */
+    void onThrottle(long startNanos) {
+        slowStart = false;
+        if (decreased && startNanos - lastDecreaseNanos < 0) {
+            // Sent before the last decrease, it reports the same congestion.
+            return;
+        }
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        decreased = true;
+        lastDecreaseNanos = System.nanoTime();
+    }
+}
@@ -75,12 +75,36 @@ public class ApplicationOperations implements IInheritedBehaviors {
      */
     public PagedList<ApplicationSummary> listApplications(Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         ApplicationListOptions options = new ApplicationListOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         return this._parentBatchClient.protocolLayer().applications().list(options);
     }
 
+    /**
+     * Lists the {@link ApplicationSummary applications} in the Batch account.
+     *
+     * @return A {@link PagedIterator} over {@link ApplicationSummary} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<ApplicationSummary> iterateApplications() throws BatchErrorException, IOException {
+        return iterateApplications(null);
+    }
+
+    /**
+     * Lists the {@link ApplicationSummary applications} in the Batch account.
+     *
+     * @param additionalBehaviors A collection of {@link BatchClientBehavior} instances that are applied to the Batch service request.
+     * @return A {@link PagedIterator} over {@link ApplicationSummary} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<ApplicationSummary> iterateApplications(Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return PagedIterator.create(listApplications(additionalBehaviors), this._parentBatchClient, bhMgr);
+    }
+
     /**
      * Gets information about the specified application.
      *
@@ -104,7 +128,7 @@ public class ApplicationOperations implements IInheritedBehaviors {
      */
     public ApplicationSummary getApplication(String applicationId, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         ApplicationGetOptions options = new ApplicationGetOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         return this._parentBatchClient.protocolLayer().applications().get(applicationId, options);
@@ -8,6 +8,7 @@ package com.microsoft.azure.batch;
 
 import com.microsoft.azure.AzureResponseBuilder;
 import com.microsoft.azure.batch.auth.BatchCredentials;
+import com.microsoft.azure.batch.interceptor.AdaptivePageSizeInterceptor;
 import com.microsoft.azure.batch.interceptor.ClientRequestIdInterceptor;
 import com.microsoft.azure.batch.protocol.BatchServiceClient;
 import com.microsoft.azure.batch.protocol.implementation.BatchServiceClientImpl;
@@ -19,6 +20,13 @@ import com.microsoft.rest.protocol.SerializerAdapter;
 
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A client for an Azure Batch account, used to access the Batch service.
@@ -36,6 +44,11 @@ public class BatchClient {
     private final ApplicationOperations applicationOperations;
     private final AccountOperations accountOperations;
     private Collection<BatchClientBehavior> customBehaviors;
+    private volatile ExecutorService executorService;
+    private volatile ScheduledExecutorService scheduledExecutorService;
+    private volatile EntityCache entityCache;
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final AdaptivePageSizeInterceptor.HttpInterceptor listOperations = new AdaptivePageSizeInterceptor.HttpInterceptor();
 
     /**
      * Gets the protocol layer service client that issues requests to the Azure Batch service.
@@ -51,6 +64,7 @@ public class BatchClient {
             .withBaseUrl(credentials.baseUrl())
             .withCredentials(credentials)
             .withSerializerAdapter(new AzureJacksonAdapter())
+            .withInterceptor(this.listOperations)
             .withResponseBuilderFactory(new ResponseBuilder.Factory() {
                 private final AzureResponseBuilder.Factory baseFactory = new AzureResponseBuilder.Factory();
                 @Override
@@ -164,6 +178,117 @@ public class BatchClient {
         return accountOperations;
     }
 
+    /**
+     * Gets the executor service owned by this client, used to run concurrent requests to the Batch service
+     * when no executor service is supplied through {@link com.microsoft.azure.batch.interceptor.BatchClientParallelOptions}.
+     * Worker threads are daemon threads that are reused across calls and released when idle.
+     *
+     * @return The client-owned executor service.
+     */
+    ExecutorService executorService() {
+        ExecutorService executor = this.executorService;
+        if (executor == null) {
+            synchronized (this) {
+                executor = this.executorService;
+                if (executor == null) {
+                    executor = Executors.newCachedThreadPool(new ThreadFactory() {
+                        private final AtomicInteger threadCount = new AtomicInteger();
+
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, "azure-batch-worker-" + threadCount.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+                    this.executorService = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Gets the scheduled executor service owned by this client, used to delay work such as retries.
+     * It runs on a single daemon thread, so scheduled actions should only hand work over to
+     * {@link #executorService()} rather than issue requests themselves.
+     *
+     * @return The client-owned scheduled executor service.
+     */
+    ScheduledExecutorService scheduledExecutorService() {
+        ScheduledExecutorService scheduler = this.scheduledExecutorService;
+        if (scheduler == null) {
+            synchronized (this) {
+                scheduler = this.scheduledExecutorService;
+                if (scheduler == null) {
+                    ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, "azure-batch-timer");
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+                    executor.setRemoveOnCancelPolicy(true);
+                    scheduler = executor;
+                    this.scheduledExecutorService = scheduler;
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    /**
+     * Caches the pools, jobs, job schedules and tasks retrieved by the get operations of this client,
+     * such as {@link PoolOperations#getPool(String)}, and revalidates them with conditional requests.
+     *
+     * A get of a cached entity is sent with the ETag of the cached copy, and while the entity is
+     * unchanged the Batch service answers with 304 Not Modified and no body, so the cached copy is
+     * returned without being downloaded again. Gets selecting or expanding different properties are
+     * cached separately, and gets which set their own If-None-Match or If-Modified-Since conditions
+     * bypass the cache. Each caller gets its own instance of a cached entity, deserialized from the
+     * JSON kept by the cache, so it may be modified.
+     *
+     * @param maximumSize The largest number of entities cached, beyond which the least recently used are evicted.
+     * @param timeToLive The longest time an entity is cached, after which it is downloaded in full again.
+     * @param unit The unit of the time to live.
+     * @return The current instance.
+     */
+    public BatchClient withEntityCache(int maximumSize, long timeToLive, TimeUnit unit) {
+        this.entityCache = new EntityCache(maximumSize, timeToLive, unit, this.protocolLayer.restClient().serializerAdapter());
+        return this;
+    }
+
+    /**
+     * Gets the entity cache of this client.
+     *
+     * @return The entity cache, or null if it is not enabled.
+     */
+    EntityCache entityCache() {
+        return this.entityCache;
+    }
+
+    /**
+     * Gets the reads in flight through this client, which identical reads join when
+     * {@link com.microsoft.azure.batch.interceptor.RequestCoalescingOptions RequestCoalescingOptions} apply.
+     *
+     * @return The reads in flight.
+     */
+    SingleFlight singleFlight() {
+        return this.singleFlight;
+    }
+
+    /**
+     * Gets the list operations of this client whose page sizes are tuned by an
+     * {@link AdaptivePageSizeInterceptor}. It is kept apart from the custom behaviors, so replacing
+     * them does not stop the tuning.
+     *
+     * @return The list operations of this client.
+     */
+    AdaptivePageSizeInterceptor.HttpInterceptor listOperations() {
+        return this.listOperations;
+    }
+
     /**
      * Gets a collection of behaviors that modify or customize requests to the Batch service.
      *
@@ -6,6 +6,7 @@
 
 package com.microsoft.azure.batch;
 
+import com.microsoft.azure.batch.interceptor.AdaptivePageSizeInterceptor;
 import com.microsoft.azure.batch.interceptor.DetailLevelInterceptor;
 import com.microsoft.azure.batch.interceptor.RequestInterceptor;
 
@@ -17,8 +18,14 @@ class BehaviorManager {
 
     private Collection<BatchClientBehavior> perCallBehaviors;
     private Collection<BatchClientBehavior> baseBehaviors;
+    private final AdaptivePageSizeInterceptor.HttpInterceptor listOperations;
 
     BehaviorManager(Collection<BatchClientBehavior> baseBehaviors, Iterable<BatchClientBehavior> perCallBehaviors) {
+        this(null, baseBehaviors, perCallBehaviors);
+    }
+
+    BehaviorManager(BatchClient client, Collection<BatchClientBehavior> baseBehaviors, Iterable<BatchClientBehavior> perCallBehaviors) {
+        this.listOperations = client != null ? client.listOperations() : null;
         this.baseBehaviors = new LinkedList<>();
 
         if (null != baseBehaviors) {
@@ -43,10 +50,17 @@ class BehaviorManager {
     }
 
     void applyRequestBehaviors(Object request) {
+        AdaptivePageSizeInterceptor pageSizes = null;
         for (BatchClientBehavior bh : getMasterListOfBehaviors()) {
             if (bh instanceof RequestInterceptor) {
                 ((RequestInterceptor) bh).handler().modify(request);
             }
+            if (bh instanceof AdaptivePageSizeInterceptor) {
+                pageSizes = (AdaptivePageSizeInterceptor) bh;
+            }
+        }
+        if (listOperations != null && pageSizes != null) {
+            listOperations.register(request, pageSizes);
         }
     }
 
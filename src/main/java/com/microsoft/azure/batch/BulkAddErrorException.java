@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.batch.protocol.models.BatchErrorException;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * The exception that is thrown when the tasks of at least one job could not all be added by the
+ * {@link TaskOperations#createTasks(Map, Iterable)} operation.
+ *
+ * Every job is processed to completion, so the exception carries the results of the jobs whose
+ * tasks were all added as well as the exception of each job which failed, such as a
+ * {@link CreateTasksErrorException} listing the tasks of the job which were not added. The cause
+ * of the exception is the exception of the first job which failed.
+ */
+public class BulkAddErrorException extends BatchErrorException {
+
+    private final Map<String, BulkAddResult> results;
+
+    private final Map<String, RuntimeException> failures;
+
+    /**
+     * Initializes a new instance of the BulkAddErrorException class.
+     *
+     * @param message The exception message.
+     * @param results The results of the jobs whose tasks were all added, by job ID.
+     * @param failures The exceptions of the jobs which failed, by job ID. It must not be empty.
+     */
+    public BulkAddErrorException(final String message, Map<String, BulkAddResult> results,
+            Map<String, RuntimeException> failures) {
+        super(message, null);
+        this.results = unmodifiableMap(results);
+        this.failures = unmodifiableMap(failures);
+        Iterator<RuntimeException> iterator = failures.values().iterator();
+        if (iterator.hasNext()) {
+            initCause(iterator.next());
+        }
+    }
+
+    /**
+     * @return The {@link BulkAddResult} of each job whose tasks were all added, by job ID.
+     */
+    public Map<String, BulkAddResult> results() {
+        return results;
+    }
+
+    /**
+     * @return The exception of each job whose tasks could not all be added, by job ID.
+     */
+    public Map<String, RuntimeException> failures() {
+        return failures;
+    }
+}
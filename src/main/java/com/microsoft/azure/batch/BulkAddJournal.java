@@ -0,0 +1,249 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An append-only file recording the IDs of the tasks accepted by the Batch service for a job,
+ * so that a restarted submission can skip them without contacting the service.
+ *
+ * The file holds one task ID per line, in UTF-8. Appends are written to the file as each chunk
+ * completes, and forced to the storage device by a timer on the client-owned scheduler at most
+ * one sync interval later, and when the journal is closed. A line left incomplete by a crash is
+ * discarded when the journal is opened again. Tasks lost that way, or in writes not yet synced,
+ * are sent again and reported as already existing by the service.
+ *
+ * The file is locked while the journal is open, so a second submission to the same job, from
+ * this process or another one, fails to open it rather than interleaving its appends.
+ */
+class BulkAddJournal {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String FILE_EXTENSION = ".journal";
+
+    private final File file;
+    private final Set<String> acceptedTaskIds;
+    private final FileChannel channel;
+    private final long syncIntervalNanos;
+    private final ScheduledExecutorService scheduler;
+
+    // Guarded by this
+    private long lastSyncNanos;
+    private boolean unsynced;
+    private boolean syncScheduled;
+    private IOException syncFailure;
+
+    private final Runnable scheduledSync = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (BulkAddJournal.this) {
+                syncScheduled = false;
+                if (!unsynced || !channel.isOpen()) {
+                    return;
+                }
+                try {
+                    sync();
+                } catch (IOException e) {
+                    // Reported by the next append or by close
+                    syncFailure = e;
+                }
+            }
+        }
+    };
+
+    private BulkAddJournal(File file, Set<String> acceptedTaskIds, FileChannel channel, long syncIntervalInMillis,
+            ScheduledExecutorService scheduler) {
+        this.file = file;
+        this.acceptedTaskIds = acceptedTaskIds;
+        this.channel = channel;
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalInMillis);
+        this.scheduler = scheduler;
+        this.lastSyncNanos = System.nanoTime();
+    }
+
+    /**
+     * Opens the journal of a job in the given directory, reading the task IDs it already records.
+     *
+     * @param directory The directory holding the journals.
+     * @param jobId The ID of the job.
+     * @param syncIntervalInMillis The maximum time appended task IDs may wait before being synced.
+     * @param scheduler The scheduler running the syncs of appended task IDs.
+     * @return The journal, positioned to append after the last complete line.
+     * @throws IOException Exception thrown when the journal cannot be read or created, or is in use by another submission.
+     */
+    static BulkAddJournal open(File directory, String jobId, long syncIntervalInMillis, ScheduledExecutorService scheduler)
+            throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create the journal directory " + directory);
+        }
+
+        // Job IDs are case-insensitive
+        File file = new File(directory, jobId.toLowerCase(Locale.ROOT) + FILE_EXTENSION);
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                // Held by another submission of this process
+                lock = null;
+            }
+            if (lock == null) {
+                throw new IOException("The journal " + file + " is in use by another submission");
+            }
+
+            // Read through the locked channel, the lock may prevent other streams from reading the file
+            Set<String> acceptedTaskIds = new HashSet<>();
+            long validLength = read(channel, acceptedTaskIds);
+            channel.truncate(validLength);
+            channel.position(validLength);
+            return new BulkAddJournal(file, acceptedTaskIds, channel, syncIntervalInMillis, scheduler);
+        } catch (IOException | RuntimeException e) {
+            randomAccessFile.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the task IDs of every complete line, as keys compared regardless of case.
+     *
+     * @return The length of the file up to the end of the last complete line.
+     */
+    private static long read(FileChannel channel, Set<String> taskIds) throws IOException {
+        // Not closed, closing the stream would close the channel
+        InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        long position = 0;
+        long validLength = 0;
+        int b;
+        while ((b = in.read()) != -1) {
+            position++;
+            if (b == '\n') {
+                // A newline byte is never part of a multi-byte UTF-8 character
+                if (line.size() > 0) {
+                    taskIds.add(keyOf(new String(line.toByteArray(), UTF_8)));
+                }
+                line.reset();
+                validLength = position;
+            } else {
+                line.write(b);
+            }
+        }
+        return validLength;
+    }
+
+    /**
+     * Task IDs are case-insensitive, so tasks differing only in case are the same task.
+     */
+    private static String keyOf(String taskId) {
+        return taskId.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return The file backing the journal.
+     */
+    File file() {
+        return file;
+    }
+
+    /**
+     * Gets whether the journal records the task as accepted by a previous submission. The set of
+     * recorded tasks is fixed when the journal is opened, so the method may be called from any thread.
+     *
+     * @param taskId The ID of the task.
+     * @return true if the task was already accepted.
+     */
+    boolean contains(String taskId) {
+        return acceptedTaskIds.contains(keyOf(taskId));
+    }
+
+    /**
+     * Appends the IDs of tasks accepted by the Batch service.
+     *
+     * @param taskIds The IDs of the accepted tasks.
+     * @throws IOException Exception thrown when the journal cannot be written.
+     */
+    synchronized void append(Collection<String> taskIds) throws IOException {
+        throwSyncFailure();
+        if (taskIds.isEmpty()) {
+            return;
+        }
+
+        StringBuilder lines = new StringBuilder();
+        for (String taskId : taskIds) {
+            lines.append(taskId).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        unsynced = true;
+        long sinceLastSyncNanos = System.nanoTime() - lastSyncNanos;
+        if (sinceLastSyncNanos >= syncIntervalNanos) {
+            sync();
+        } else if (!syncScheduled) {
+            try {
+                scheduler.schedule(scheduledSync, syncIntervalNanos - sinceLastSyncNanos, TimeUnit.NANOSECONDS);
+                syncScheduled = true;
+            } catch (RejectedExecutionException e) {
+                // The client is closing, do not leave the task IDs unsynced
+                sync();
+            }
+        }
+    }
+
+    private void throwSyncFailure() throws IOException {
+        if (syncFailure != null) {
+            IOException failure = syncFailure;
+            syncFailure = null;
+            throw failure;
+        }
+    }
+
+    private void sync() throws IOException {
+        channel.force(false);
+        unsynced = false;
+        lastSyncNanos = System.nanoTime();
+    }
+
+    /**
+     * Syncs any appended task IDs and closes the file.
+     *
+     * @throws IOException Exception thrown when the journal cannot be written.
+     */
+    synchronized void close() throws IOException {
+        try {
+            throwSyncFailure();
+            if (unsynced && channel.isOpen()) {
+                sync();
+            }
+        } finally {
+            // Releases the lock of the file
+            channel.close();
+        }
+    }
+}
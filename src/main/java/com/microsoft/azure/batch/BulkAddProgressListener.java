@@ -0,0 +1,23 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+/**
+ * Receives progress notifications while multiple tasks are added to a job.
+ */
+public interface BulkAddProgressListener {
+
+    /**
+     * Called after each add task collection request completes.
+     *
+     * The method is called on the worker thread which sent the request and may be called
+     * concurrently; it should return quickly.
+     *
+     * @param progress The progress of the operation so far.
+     */
+    void chunkCompleted(BulkAddResult progress);
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.batch.protocol.models.TaskAddResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The progress or outcome of adding multiple tasks to a job.
+ */
+public class BulkAddResult {
+
+    private final String jobId;
+
+    private final int chunksSent;
+
+    private final long tasksAccepted;
+
+    private final long tasksSkipped;
+
+    private final long retries;
+
+    private final int degreeOfParallelism;
+
+    private final List<TaskAddResult> failures;
+
+    BulkAddResult(String jobId, int chunksSent, long tasksAccepted, long tasksSkipped, long retries, int degreeOfParallelism,
+            List<TaskAddResult> failures) {
+        this.jobId = jobId;
+        this.chunksSent = chunksSent;
+        this.tasksAccepted = tasksAccepted;
+        this.tasksSkipped = tasksSkipped;
+        this.retries = retries;
+        this.degreeOfParallelism = degreeOfParallelism;
+        // A copy, so that the result does not change with the failures of a submission still running
+        this.failures = Collections.unmodifiableList(new ArrayList<>(failures));
+    }
+
+    /**
+     * Gets the ID of the job to which the tasks are added.
+     *
+     * @return The ID of the job.
+     */
+    public String jobId() {
+        return jobId;
+    }
+
+    /**
+     * Gets the number of add task collection requests that were sent to the Batch service.
+     *
+     * @return The number of requests sent.
+     */
+    public int chunksSent() {
+        return chunksSent;
+    }
+
+    /**
+     * Gets the number of tasks accepted by the Batch service. Tasks which already existed in the job are included.
+     *
+     * @return The number of tasks accepted.
+     */
+    public long tasksAccepted() {
+        return tasksAccepted;
+    }
+
+    /**
+     * Gets the number of tasks skipped because the journal records them as accepted by a previous submission.
+     *
+     * @return The number of tasks skipped.
+     */
+    public long tasksSkipped() {
+        return tasksSkipped;
+    }
+
+    /**
+     * Gets the number of times a task was sent again after a server error, or after its request was
+     * throttled or timed out. These are the retries limited by
+     * {@link com.microsoft.azure.batch.interceptor.BulkAddOptions#maxTaskRetries()}. Tasks sent in smaller
+     * chunks after the service rejected a request as too large are not counted.
+     *
+     * @return The number of task retries.
+     */
+    public long retries() {
+        return retries;
+    }
+
+    /**
+     * Gets the number of requests allowed in flight when the progress was reported.
+     *
+     * When {@link com.microsoft.azure.batch.interceptor.BatchClientParallelOptions#adaptiveDegreeOfParallelism()}
+     * is set, this is the current adaptive level; otherwise it is the fixed maximum.
+     *
+     * @return The degree of parallelism.
+     */
+    public int degreeOfParallelism() {
+        return degreeOfParallelism;
+    }
+
+    /**
+     * Gets the number of tasks rejected by the Batch service.
+     *
+     * @return The number of tasks which failed to be added.
+     */
+    public int tasksFailed() {
+        return failures.size();
+    }
+
+    /**
+     * Gets the results of the tasks rejected by the Batch service, with the ID and error of each task.
+     *
+     * The list only holds failed tasks. It is an unmodifiable snapshot of the failures at the time
+     * this result was created, so a result reported while the operation is in progress does not
+     * change as further tasks fail.
+     *
+     * @return The results of the failed tasks.
+     */
+    public List<TaskAddResult> failures() {
+        return failures;
+    }
+}
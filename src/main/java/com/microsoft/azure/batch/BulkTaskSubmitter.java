@@ -0,0 +1,873 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.microsoft.azure.batch.interceptor.BulkAddOptions;
+import com.microsoft.azure.batch.protocol.models.*;
+import com.microsoft.rest.RestException;
+import com.microsoft.rest.ServiceCallback;
+import com.microsoft.rest.ServiceFuture;
+import rx.subscriptions.Subscriptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Submits a sequence of tasks to a job in chunks, running up to a fixed number of
+ * chunk requests concurrently on an {@link ExecutorService}.
+ *
+ * A chunk is scheduled whenever a slot becomes free, from the thread that completed
+ * the previous chunk, so no thread is parked while requests are in flight. Tasks are
+ * read from the source iterator only when a chunk is built, so at most
+ * maxDegreeOfParallelism chunks (plus any tasks waiting to be retried) are held at a
+ * time. The outcome of the whole submission is reported through {@link #completion()}.
+ *
+ * Each task is serialized once when it is read, and chunks are packed against the
+ * request body size accepted by the Batch service, so chunks of large tasks are not
+ * rejected with RequestBodyTooLarge and chunks of small tasks stay full.
+ *
+ * By default the first task rejected by the service stops the submission. With
+ * {@link BulkAddOptions#continueOnError()}, rejected tasks are only recorded in the
+ * {@link BulkAddResult} and the remaining tasks are still submitted.
+ *
+ * Tasks for which the service reports a server error are sent again after an exponentially
+ * growing, randomized delay, up to {@link BulkAddOptions#maxTaskRetries()} times. While
+ * they wait, the tasks are held by a timer on the client-owned scheduler rather than by a thread.
+ *
+ * A permit of a {@link ConcurrencyBudget} is taken for each chunk request, so several
+ * submissions can share one limit on the requests in flight. With an
+ * {@link AdaptiveConcurrencyLimit}, the limit grows with healthy responses and shrinks
+ * when requests are throttled, and chunks throttled by the service, or timing out, are
+ * retried the same way as server errors. With a fixed limit, they stop the submission.
+ *
+ * With {@link BulkAddOptions#journalDirectory()}, accepted tasks are recorded in a
+ * {@link BulkAddJournal}, and tasks it already records are skipped when read from the source.
+ */
+class BulkTaskSubmitter {
+    static final int MAX_TASKS_PER_REQUEST = 100;
+
+    /**
+     * The request body size used to pack chunks. The Batch service rejects task collections
+     * whose serialized size exceeds 1 MB; this leaves headroom under that limit.
+     */
+    static final int MAX_REQUEST_BODY_SIZE_IN_BYTES = 1000 * 1000;
+
+    // The serialized size of {"value":[]} around the tasks of a collection.
+    private static final int COLLECTION_ENVELOPE_SIZE_IN_BYTES = 12;
+
+    private final BatchClient client;
+    private final BehaviorManager bhMgr;
+    private final String jobId;
+    private final ExecutorService executor;
+    private final ConcurrencyBudget budget;
+    private final Iterator<TaskAddParameter> source;
+    private final boolean reportUnreadTasks;
+    private final boolean continueOnError;
+    private final int maxTaskRetries;
+    private final long initialRetryDelayInMillis;
+    private final long maxRetryDelayInMillis;
+    private final ScheduledExecutorService scheduler;
+    private final File journalDirectory;
+    private final long journalSyncIntervalInMillis;
+    private BulkAddJournal journal;
+    private final Queue<PendingTask> pendingList;
+    private final List<TaskAddResult> failures;
+    private final BulkAddProgressListener progressListener;
+    private final ServiceCallback<BulkAddResult> serviceCallback;
+    private final BulkAddFuture completion;
+
+    // Lowered for this submission only if the service rejects a chunk packed within the limit.
+    private final AtomicInteger maxChunkSizeInBytes = new AtomicInteger(MAX_REQUEST_BODY_SIZE_IN_BYTES);
+
+    // Guarded by this
+    private int inFlight;
+    private final List<ChunkWorker> readyChunks = new ArrayList<>();
+    private boolean dispatching;
+    private PendingTask carryOver;
+    private final Set<PendingTask> waitingForRetry = new HashSet<>();
+    private Exception exception;
+    private boolean started;
+    private boolean completing;
+    private int chunksSent;
+    private long tasksAccepted;
+    private long tasksSkipped;
+    private long retries;
+
+    /**
+     * Initializes a new instance of the BulkTaskSubmitter class.
+     *
+     * @param client The client used to issue the requests.
+     * @param bhMgr The behaviors applied to each request.
+     * @param jobId The ID of the job to which to add the tasks.
+     * @param source The tasks to add. The iterator is only accessed while holding the submitter lock,
+     *               so it does not need to be thread-safe, but it may be called from worker threads.
+     * @param reportUnreadTasks Whether tasks not yet read from the source are reported as pending when
+     *                          the submission is terminated.
+     * @param executor The executor on which chunk requests run.
+     * @param budget The permits for chunk requests in flight, possibly shared with other submissions.
+     * @param options The options of the submission.
+     * @param progressListener The listener notified after each chunk, or null.
+     * @param serviceCallback The callback invoked when the submission completes, or null.
+     */
+    BulkTaskSubmitter(BatchClient client, BehaviorManager bhMgr, String jobId, Iterator<TaskAddParameter> source,
+            boolean reportUnreadTasks, ExecutorService executor, ConcurrencyBudget budget,
+            BulkAddOptions options,
+            BulkAddProgressListener progressListener, ServiceCallback<BulkAddResult> serviceCallback) {
+        this.client = client;
+        this.bhMgr = bhMgr;
+        this.jobId = jobId;
+        this.source = source;
+        this.reportUnreadTasks = reportUnreadTasks;
+        this.executor = executor;
+        this.budget = budget;
+        this.continueOnError = options.continueOnError();
+        this.maxTaskRetries = options.maxTaskRetries();
+        this.initialRetryDelayInMillis = options.initialRetryDelayInMillis();
+        this.maxRetryDelayInMillis = options.maxRetryDelayInMillis();
+        this.scheduler = client.scheduledExecutorService();
+        this.journalDirectory = options.journalDirectory();
+        this.journalSyncIntervalInMillis = options.journalSyncIntervalInMillis();
+        this.pendingList = new ConcurrentLinkedQueue<>();
+        this.failures = new CopyOnWriteArrayList<>();
+        this.progressListener = progressListener;
+        this.serviceCallback = serviceCallback;
+        this.completion = new BulkAddFuture();
+    }
+
+    /**
+     * Starts submitting chunks. The method returns once the first chunks are scheduled.
+     *
+     * @return The future which completes when no more chunks will be submitted.
+     */
+    ServiceFuture<BulkAddResult> start() {
+        boolean done;
+        synchronized (this) {
+            if (started) {
+                return completion;
+            }
+            started = true;
+            if (journalDirectory != null) {
+                try {
+                    journal = BulkAddJournal.open(journalDirectory, jobId, journalSyncIntervalInMillis, scheduler);
+                } catch (IOException e) {
+                    exception = new RuntimeException("Failed to open the journal of job " + jobId, e);
+                }
+            }
+            done = scheduleChunks();
+        }
+        afterScheduling(done);
+        return completion;
+    }
+
+    /**
+     * Stops scheduling new chunks. Chunks already in flight run to completion.
+     *
+     * @param cause The reason for stopping the submission.
+     */
+    void stop(Exception cause) {
+        boolean done;
+        synchronized (this) {
+            if (exception == null) {
+                exception = cause;
+            }
+            done = scheduleChunks();
+        }
+        afterScheduling(done);
+    }
+
+    /**
+     * Dispatches the scheduled chunks and hands any permit given back while scheduling to waiting
+     * submissions, then completes the submission if needed. Must be called without holding the lock.
+     */
+    private void afterScheduling(boolean done) {
+        done |= dispatchChunks();
+        budget.wakeWaiters();
+        if (done) {
+            complete();
+        }
+    }
+
+    /**
+     * Hands the chunks scheduled while holding the lock to the executor. Must be called without
+     * holding the lock, so that an executor which runs a chunk on the calling thread does not run it
+     * under the lock.
+     *
+     * Only one thread dispatches at a time, and it dispatches the chunks scheduled by the others
+     * meanwhile, so the chunks run on the calling thread by such an executor are dispatched in a loop
+     * rather than by nested calls.
+     *
+     * @return true if the caller must complete the submission.
+     */
+    private boolean dispatchChunks() {
+        boolean done = false;
+        while (true) {
+            List<ChunkWorker> workers;
+            synchronized (this) {
+                if (dispatching || readyChunks.isEmpty()) {
+                    return done;
+                }
+                dispatching = true;
+                workers = new ArrayList<>(readyChunks);
+                readyChunks.clear();
+            }
+            try {
+                for (int i = 0; i < workers.size(); i++) {
+                    try {
+                        executor.execute(workers.get(i));
+                    } catch (RejectedExecutionException e) {
+                        synchronized (this) {
+                            for (ChunkWorker worker : workers.subList(i, workers.size())) {
+                                inFlight--;
+                                budget.returnPermit();
+                                requeue(worker.taskList);
+                            }
+                            if (exception == null) {
+                                exception = e;
+                            }
+                            done |= scheduleChunks();
+                        }
+                        break;
+                    }
+                }
+            } finally {
+                synchronized (this) {
+                    dispatching = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The future which completes when no more chunks will be submitted.
+     */
+    ServiceFuture<BulkAddResult> completion() {
+        return completion;
+    }
+
+    private final ConcurrencyBudget.Waiter waiter = new ConcurrencyBudget.Waiter() {
+        @Override
+        public void permitAvailable() {
+            boolean done;
+            synchronized (BulkTaskSubmitter.this) {
+                done = scheduleChunks();
+            }
+            done |= dispatchChunks();
+            // The budget keeps waking waiters while permits are free.
+            if (done) {
+                complete();
+            }
+        }
+    };
+
+    /**
+     * Schedules as many chunks as there are free permits. Must be called while holding the lock.
+     *
+     * @return true if the caller must complete the submission, after releasing the lock.
+     */
+    private boolean scheduleChunks() {
+        if (completing) {
+            return false;
+        }
+
+        // Any errors happened, we stop scheduling new chunks, unless failed tasks are only reported.
+        while (!isStopped() && hasMoreTasks() && budget.tryAcquire(waiter)) {
+            List<PendingTask> taskList = takeChunk();
+            if (taskList.isEmpty()) {
+                budget.returnPermit();
+                break;
+            }
+
+            // Handed to the executor by dispatchChunks, once the lock is released
+            inFlight++;
+            readyChunks.add(new ChunkWorker(taskList));
+        }
+
+        // Tasks waiting for a retry are reported as pending once the submission is stopped. Without
+        // a chunk in flight, tasks may still be left while waiting for a permit of the budget.
+        if (inFlight == 0 && started && (isStopped() || (waitingForRetry.isEmpty() && !hasMoreTasks()))) {
+            completing = true;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isStopped() {
+        return exception != null || (!continueOnError && !failures.isEmpty());
+    }
+
+    /**
+     * Holds the tasks of a chunk which failed with a server error until their retry delay has
+     * elapsed, so they are sent again together. Must be called while holding the lock.
+     */
+    private void scheduleRetry(final List<PendingTask> taskList) {
+        if (isStopped()) {
+            requeue(taskList);
+            return;
+        }
+
+        int retryCount = 0;
+        for (PendingTask task : taskList) {
+            retryCount = Math.max(retryCount, task.retryCount);
+        }
+
+        waitingForRetry.addAll(taskList);
+        try {
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    retryDelayElapsed(taskList);
+                }
+            }, retryDelayInMillis(retryCount), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            waitingForRetry.removeAll(taskList);
+            requeue(taskList);
+            exception = e;
+        }
+    }
+
+    /**
+     * Exponential backoff with full jitter: a random delay up to the initial delay doubled
+     * for each previous retry, capped at the maximum delay.
+     */
+    private long retryDelayInMillis(int retryCount) {
+        long ceiling = retryDelayCeilingInMillis(retryCount, initialRetryDelayInMillis, maxRetryDelayInMillis);
+        return ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+    }
+
+    /**
+     * Gets the upper bound of the delay before a retry.
+     *
+     * @param retryCount The number of the retry, starting from 1.
+     * @param initialRetryDelayInMillis The upper bound of the delay before the first retry.
+     * @param maxRetryDelayInMillis The upper bound of the delay before any retry.
+     * @return The initial delay doubled for each previous retry, capped at the maximum delay.
+     */
+    static long retryDelayCeilingInMillis(int retryCount, long initialRetryDelayInMillis, long maxRetryDelayInMillis) {
+        long ceiling = initialRetryDelayInMillis;
+        for (int i = 1; i < retryCount && ceiling < maxRetryDelayInMillis; i++) {
+            // Doubling past the maximum delay could overflow
+            ceiling = ceiling > maxRetryDelayInMillis / 2 ? maxRetryDelayInMillis : ceiling * 2;
+        }
+        return Math.min(ceiling, maxRetryDelayInMillis);
+    }
+
+    private void retryDelayElapsed(List<PendingTask> taskList) {
+        boolean done;
+        synchronized (this) {
+            // Once the submission is completing, the tasks are reported as pending instead.
+            if (completing) {
+                return;
+            }
+            waitingForRetry.removeAll(taskList);
+            requeue(taskList);
+            done = scheduleChunks();
+        }
+        afterScheduling(done);
+    }
+
+    private boolean hasMoreTasks() {
+        if (carryOver != null || !pendingList.isEmpty()) {
+            return true;
+        }
+        try {
+            return source.hasNext();
+        } catch (RuntimeException e) {
+            exception = e;
+            return false;
+        }
+    }
+
+    private List<PendingTask> takeChunk() {
+        List<PendingTask> taskList = new ArrayList<>(MAX_TASKS_PER_REQUEST);
+
+        // Take the task left over from the previous chunk first, then from the retry queue, then
+        // from the source, up to MAX_TASKS_PER_REQUEST and the request body size limit.
+        int maxSize = maxChunkSizeInBytes.get();
+        int chunkSize = COLLECTION_ENVELOPE_SIZE_IN_BYTES;
+        try {
+            while (taskList.size() < MAX_TASKS_PER_REQUEST) {
+                PendingTask task = carryOver;
+                carryOver = null;
+                if (task == null) {
+                    task = pendingList.poll();
+                }
+                if (task == null) {
+                    if (!source.hasNext()) {
+                        break;
+                    }
+                    TaskAddParameter param = source.next();
+                    if (journal != null && journal.contains(param.id())) {
+                        // Accepted by a previous submission
+                        tasksSkipped++;
+                        continue;
+                    }
+                    task = pendingTask(param);
+                }
+
+                // Separating comma between tasks
+                int taskSize = task.serializedSize + (taskList.isEmpty() ? 0 : 1);
+                if (!taskList.isEmpty() && chunkSize + taskSize > maxSize) {
+                    // Does not fit, it starts the next chunk. A single oversized task is still sent
+                    // alone so that the service reports the error for it.
+                    carryOver = task;
+                    break;
+                }
+                taskList.add(task);
+                chunkSize += taskSize;
+            }
+        } catch (RuntimeException e) {
+            // A failing source stops the submission, the tasks read so far are still sent.
+            exception = e;
+        }
+        return taskList;
+    }
+
+    private PendingTask pendingTask(TaskAddParameter task) {
+        String json;
+        try {
+            json = client.protocolLayer().restClient().serializerAdapter().serialize(task);
+        } catch (IOException e) {
+            // The task cannot be serialized, send it alone and let the request report the error.
+            return new PendingTask(task, task, maxChunkSizeInBytes.get());
+        }
+        // The request sends the JSON measured here rather than serializing the task again
+        return new PendingTask(task, new SerializedTask(task, json), utf8Length(json));
+    }
+
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                // A surrogate pair encodes to 4 bytes
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private void requeue(List<PendingTask> taskList) {
+        pendingList.addAll(taskList);
+    }
+
+    private static List<TaskAddParameter> parametersOf(Collection<PendingTask> taskList) {
+        List<TaskAddParameter> parameters = new ArrayList<>(taskList.size());
+        for (PendingTask task : taskList) {
+            parameters.add(task.parameter);
+        }
+        return parameters;
+    }
+
+    private static List<TaskAddParameter> serializedParametersOf(Collection<PendingTask> taskList) {
+        List<TaskAddParameter> parameters = new ArrayList<>(taskList.size());
+        for (PendingTask task : taskList) {
+            parameters.add(task.serialized);
+        }
+        return parameters;
+    }
+
+    /**
+     * Whether the request was throttled by the Batch service or timed out, so that it should be
+     * sent again later with fewer requests in flight.
+     */
+    private static boolean isThrottled(RuntimeException e) {
+        if (e instanceof RestException && ((RestException) e).response() != null) {
+            int statusCode = ((RestException) e).response().code();
+            if (statusCode == 429 || statusCode == 503) {
+                return true;
+            }
+        }
+        if (e instanceof BatchErrorException && ((BatchErrorException) e).body() != null) {
+            String code = ((BatchErrorException) e).body().code();
+            if (BatchErrorCodeStrings.ServerBusy.equals(code) || BatchErrorCodeStrings.OperationTimedOut.equals(code)) {
+                return true;
+            }
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indexes the tasks of a chunk by ID, so that each server error in the response of the
+     * chunk finds its task without scanning the chunk.
+     *
+     * @param taskList The tasks of the chunk.
+     * @return The tasks by ID.
+     */
+    static Map<String, PendingTask> indexById(List<PendingTask> taskList) {
+        // Sized so that a full chunk does not rehash
+        Map<String, PendingTask> tasksById = new HashMap<>(taskList.size() * 4 / 3 + 1);
+        for (PendingTask task : taskList) {
+            tasksById.put(task.parameter.id(), task);
+        }
+        return tasksById;
+    }
+
+    private BulkAddResult snapshot() {
+        return new BulkAddResult(jobId, chunksSent, tasksAccepted, tasksSkipped, retries, budget.limit(), failures);
+    }
+
+    /**
+     * Completes the future once no chunk is in flight and no more chunks will be scheduled.
+     *
+     * When the submission stopped because of an exception, such as an error response other than a
+     * task failure, a failing source or a cancellation, the future fails with that exception as is,
+     * so callers see the error of the request, and the tasks left over are not listed. Resubmitting
+     * with {@link BulkAddOptions#journalDirectory()} skips the tasks which were accepted.
+     */
+    private void complete() {
+        BulkAddResult result;
+        Exception failure;
+        List<TaskAddParameter> notFinished;
+        synchronized (this) {
+            result = snapshot();
+            failure = exception;
+            notFinished = parametersOf(waitingForRetry);
+            if (failure == null && !failures.isEmpty() && !continueOnError) {
+                // Report any client error with leftover request
+                notFinished.addAll(parametersOf(pendingList));
+                if (carryOver != null) {
+                    notFinished.add(carryOver.parameter);
+                }
+                if (reportUnreadTasks) {
+                    // The source is only accessed under the lock, and a failing source fails the submission
+                    try {
+                        while (source.hasNext()) {
+                            notFinished.add(source.next());
+                        }
+                    } catch (RuntimeException e) {
+                        failure = e;
+                    }
+                }
+            }
+        }
+
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = new RuntimeException("Failed to write the journal " + journal.file(), e);
+                }
+            }
+        }
+
+        if (failure != null) {
+            completion.fail(failure);
+        } else if (!failures.isEmpty() && !continueOnError) {
+            completion.fail(
+                    new CreateTasksErrorException("At least one task failed to be added.", failures, notFinished));
+        } else {
+            completion.succeed(result);
+        }
+    }
+
+    private void chunkCompleted(ChunkWorker worker) {
+        BulkAddResult progress;
+        boolean done;
+        synchronized (this) {
+            inFlight--;
+            chunksSent += worker.requestsSent;
+            tasksAccepted += worker.tasksAccepted;
+            retries += worker.retries;
+            if (worker.chunkException != null && exception == null) {
+                exception = worker.chunkException;
+            }
+            if (!worker.retryList.isEmpty()) {
+                scheduleRetry(worker.retryList);
+            }
+            progress = snapshot();
+            done = scheduleChunks();
+        }
+        done |= dispatchChunks();
+
+        // The permit is held while scheduling, so that when other submissions are waiting this
+        // one queues behind them, and it is then handed to the first waiter.
+        budget.release(worker.throttled, worker.startNanos, worker.latencyNanos);
+
+        if (progressListener != null) {
+            try {
+                progressListener.chunkCompleted(progress);
+            } catch (RuntimeException e) {
+                // A failing listener must not stop the submission
+            }
+        }
+        if (done) {
+            complete();
+        }
+    }
+
+    /**
+     * The future returned to callers, completed by the submitter. Cancelling it stops
+     * scheduling new chunks.
+     */
+    private class BulkAddFuture extends ServiceFuture<BulkAddResult> {
+        BulkAddFuture() {
+            setSubscription(Subscriptions.empty());
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                stop(new CancellationException());
+            }
+            return cancelled;
+        }
+
+        void succeed(BulkAddResult result) {
+            if (success(result) && serviceCallback != null) {
+                serviceCallback.success(result);
+            }
+        }
+
+        void fail(Throwable t) {
+            if (setException(t) && serviceCallback != null) {
+                serviceCallback.failure(t);
+            }
+        }
+    }
+
+    /**
+     * A task waiting to be submitted, with the form in which it is sent, the size it adds to a
+     * request body and the number of times it was sent again after a server error.
+     */
+    static class PendingTask {
+        final TaskAddParameter parameter;
+        final TaskAddParameter serialized;
+        final int serializedSize;
+        int retryCount;
+
+        PendingTask(TaskAddParameter parameter, TaskAddParameter serialized, int serializedSize) {
+            this.parameter = parameter;
+            this.serialized = serialized;
+            this.serializedSize = serializedSize;
+        }
+    }
+
+    /**
+     * A task written to a request body as the JSON it was serialized to when its size was
+     * measured. It carries the ID and command line of the task so that it passes the validation
+     * of the protocol layer, which is all the protocol layer reads from it.
+     */
+    private static final class SerializedTask extends TaskAddParameter implements JsonSerializable {
+        private final String json;
+
+        SerializedTask(TaskAddParameter task, String json) {
+            this.json = json;
+            withId(task.id());
+            withCommandLine(task.commandLine());
+        }
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeRawValue(json);
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator generator, SerializerProvider provider, TypeSerializer typeSerializer)
+                throws IOException {
+            serialize(generator, provider);
+        }
+    }
+
+    /**
+     * Submits one chunk of tasks to the job and hands the slot back to the submitter.
+     */
+    private class ChunkWorker implements Runnable {
+        private final List<PendingTask> taskList;
+        private final List<PendingTask> retryList = new ArrayList<>();
+        private Exception chunkException;
+        private boolean throttled;
+        private long startNanos;
+        private long latencyNanos = -1;
+        private int requestsSent;
+        private int tasksAccepted;
+        private int retries;
+
+        ChunkWorker(List<PendingTask> taskList) {
+            this.taskList = taskList;
+        }
+
+        /**
+         * Submits one chunk of tasks to a job.
+         *
+         * @param taskList
+         *            A list of {@link PendingTask tasks} to add.
+         */
+        private void submitChunk(List<PendingTask> taskList) {
+            // The option should be different to every server calls (for example,
+            // client-request-id)
+            TaskAddCollectionOptions options = new TaskAddCollectionOptions();
+            bhMgr.applyRequestBehaviors(options);
+            try {
+                requestsSent++;
+                startNanos = System.nanoTime();
+                TaskAddCollectionResult response = client.protocolLayer().tasks().addCollection(jobId,
+                        serializedParametersOf(taskList), options);
+                latencyNanos = System.nanoTime() - startNanos;
+
+                if (response != null && response.value() != null) {
+                    List<String> acceptedTaskIds = journal != null
+                            ? new ArrayList<String>(response.value().size())
+                            : null;
+                    // Built on the first server error only, so chunks without one skip the index.
+                    Map<String, PendingTask> tasksById = null;
+                    for (TaskAddResult result : response.value()) {
+                        if (result.error() != null) {
+                            if (result.status() == TaskAddStatus.SERVER_ERROR) {
+                                if (tasksById == null) {
+                                    tasksById = indexById(taskList);
+                                }
+                                // Server error will be retried after a delay, until the retries of the task run out
+                                PendingTask task = tasksById.get(result.taskId());
+                                if (task == null) {
+                                    continue;
+                                }
+                                if (task.retryCount < maxTaskRetries) {
+                                    task.retryCount++;
+                                    retryList.add(task);
+                                    retries++;
+                                } else {
+                                    failures.add(result);
+                                }
+                            } else if (result.status() == TaskAddStatus.CLIENT_ERROR
+                                    && !result.error().code().equals(BatchErrorCodeStrings.TaskExists)) {
+                                // Client error will be recorded
+                                failures.add(result);
+                            } else {
+                                accepted(result, acceptedTaskIds);
+                            }
+                        } else {
+                            accepted(result, acceptedTaskIds);
+                        }
+                    }
+                    if (acceptedTaskIds != null) {
+                        try {
+                            journal.append(acceptedTaskIds);
+                        } catch (IOException e) {
+                            // The tasks are added, but a resumed submission could not skip them.
+                            chunkException = new RuntimeException("Failed to write the journal " + journal.file(), e);
+                        }
+                    }
+                }
+            } catch (BatchErrorException e) {
+                // The size estimate should keep chunks under the limit, but if the service still
+                // reports RequestBodyTooLarge, split the chunk unless it is a single task.
+                if (e.body() != null && BatchErrorCodeStrings.RequestBodyTooLarge.equals(e.body().code())
+                        && taskList.size() > 1) {
+                    int midpoint = taskList.size() / 2;
+                    List<PendingTask> firstHalf = taskList.subList(0, midpoint);
+
+                    // Pack the remaining chunks of this submission no larger than the half that is resent.
+                    int halfSize = COLLECTION_ENVELOPE_SIZE_IN_BYTES;
+                    for (PendingTask task : firstHalf) {
+                        halfSize += task.serializedSize + 1;
+                    }
+                    int max = maxChunkSizeInBytes.get();
+                    while (halfSize < max && !maxChunkSizeInBytes.compareAndSet(max, halfSize)) {
+                        max = maxChunkSizeInBytes.get();
+                    }
+
+                    // Resubmit chunk as a smaller list and requeue remaining tasks. The tasks were not
+                    // added, so they are not counted as retries and keep their retries for server errors.
+                    requeue(taskList.subList(midpoint, taskList.size()));
+                    submitChunk(firstHalf);
+                } else if (e.body() != null && BatchErrorCodeStrings.RequestBodyTooLarge.equals(e.body().code())
+                        && continueOnError) {
+                    // A single task too large to be added only fails itself.
+                    PendingTask task = taskList.get(0);
+                    failures.add(new TaskAddResult()
+                            .withStatus(TaskAddStatus.CLIENT_ERROR)
+                            .withTaskId(task.parameter.id())
+                            .withError(e.body()));
+                } else if (budget.isAdaptive() && isThrottled(e)) {
+                    retryThrottled(taskList, e);
+                } else {
+                    // Any exception will stop further call
+                    chunkException = e;
+                    requeue(taskList);
+                }
+            } catch (RuntimeException e) {
+                if (budget.isAdaptive() && isThrottled(e)) {
+                    retryThrottled(taskList, e);
+                } else {
+                    // Any exception will stop further call
+                    chunkException = e;
+                    requeue(taskList);
+                }
+            }
+        }
+
+        private void accepted(TaskAddResult result, List<String> acceptedTaskIds) {
+            tasksAccepted++;
+            if (acceptedTaskIds != null) {
+                acceptedTaskIds.add(result.taskId());
+            }
+        }
+
+        /**
+         * Sends a throttled chunk again after a delay, unless the retries of its tasks run out.
+         */
+        private void retryThrottled(List<PendingTask> taskList, RuntimeException e) {
+            throttled = true;
+            for (PendingTask task : taskList) {
+                if (task.retryCount < maxTaskRetries) {
+                    task.retryCount++;
+                    retryList.add(task);
+                    retries++;
+                } else {
+                    chunkException = e;
+                    pendingList.add(task);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                submitChunk(taskList);
+            } finally {
+                chunkCompleted(this);
+            }
+        }
+    }
+}
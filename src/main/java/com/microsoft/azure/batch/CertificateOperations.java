@@ -150,7 +150,7 @@ public class CertificateOperations implements IInheritedBehaviors {
      */
     public void createCertificate(CertificateAddParameter certificate, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         CertificateAddOptions options = new CertificateAddOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().certificates().add(certificate, options);
@@ -183,7 +183,7 @@ public class CertificateOperations implements IInheritedBehaviors {
      */
     public void cancelDeleteCertificate(String thumbprintAlgorithm, String thumbprint, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         CertificateCancelDeletionOptions options = new CertificateCancelDeletionOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().certificates().cancelDeletion(thumbprintAlgorithm, thumbprint, options);
@@ -230,7 +230,7 @@ public class CertificateOperations implements IInheritedBehaviors {
      */
     public void deleteCertificate(String thumbprintAlgorithm, String thumbprint, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         CertificateDeleteOptions options = new CertificateDeleteOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().certificates().delete(thumbprintAlgorithm, thumbprint, options);
@@ -276,7 +276,7 @@ public class CertificateOperations implements IInheritedBehaviors {
      */
     public Certificate getCertificate(String thumbprintAlgorithm, String thumbprint, DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         CertificateGetOptions getCertificateOptions = new CertificateGetOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
         bhMgr.applyRequestBehaviors(getCertificateOptions);
 
@@ -318,10 +318,47 @@ public class CertificateOperations implements IInheritedBehaviors {
     public PagedList<Certificate> listCertificates(DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
 
         CertificateListOptions certificateListOptions = new CertificateListOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
         bhMgr.applyRequestBehaviors(certificateListOptions);
 
         return this._parentBatchClient.protocolLayer().certificates().list(certificateListOptions);
     }
+
+    /**
+     * Lists the {@link Certificate certificates} in the Batch account.
+     *
+     * @return A {@link PagedIterator} over {@link Certificate} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<Certificate> iterateCertificates() throws BatchErrorException, IOException {
+        return iterateCertificates(null, null);
+    }
+
+    /**
+     * Lists the {@link Certificate certificates} in the Batch account.
+     *
+     * @param detailLevel A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @return A {@link PagedIterator} over {@link Certificate} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<Certificate> iterateCertificates(DetailLevel detailLevel) throws BatchErrorException, IOException {
+        return iterateCertificates(detailLevel, null);
+    }
+
+    /**
+     * Lists the {@link Certificate certificates} in the Batch account.
+     *
+     * @param detailLevel A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @param additionalBehaviors A collection of {@link BatchClientBehavior} instances that are applied to the Batch service request.
+     * @return A {@link PagedIterator} over {@link Certificate} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<Certificate> iterateCertificates(DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return PagedIterator.create(listCertificates(detailLevel, additionalBehaviors), this._parentBatchClient, bhMgr);
+    }
 }
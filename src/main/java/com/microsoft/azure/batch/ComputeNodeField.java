@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+/**
+ * The properties of a {@link com.microsoft.azure.batch.protocol.models.ComputeNode ComputeNode} which can be selected
+ * through {@link DetailLevel.Builder#withSelectFields(SelectableField...)}.
+ */
+public enum ComputeNodeField implements SelectableField {
+    /**
+     * The {@code id} property.
+     */
+    ID("id"),
+
+    /**
+     * The {@code url} property.
+     */
+    URL("url"),
+
+    /**
+     * The {@code state} property.
+     */
+    STATE("state"),
+
+    /**
+     * The {@code schedulingState} property.
+     */
+    SCHEDULING_STATE("schedulingState"),
+
+    /**
+     * The {@code stateTransitionTime} property.
+     */
+    STATE_TRANSITION_TIME("stateTransitionTime"),
+
+    /**
+     * The {@code lastBootTime} property.
+     */
+    LAST_BOOT_TIME("lastBootTime"),
+
+    /**
+     * The {@code allocationTime} property.
+     */
+    ALLOCATION_TIME("allocationTime"),
+
+    /**
+     * The {@code ipAddress} property.
+     */
+    IP_ADDRESS("ipAddress"),
+
+    /**
+     * The {@code affinityId} property.
+     */
+    AFFINITY_ID("affinityId"),
+
+    /**
+     * The {@code vmSize} property.
+     */
+    VM_SIZE("vmSize"),
+
+    /**
+     * The {@code totalTasksRun} property.
+     */
+    TOTAL_TASKS_RUN("totalTasksRun"),
+
+    /**
+     * The {@code runningTasksCount} property.
+     */
+    RUNNING_TASKS_COUNT("runningTasksCount"),
+
+    /**
+     * The {@code totalTasksSucceeded} property.
+     */
+    TOTAL_TASKS_SUCCEEDED("totalTasksSucceeded"),
+
+    /**
+     * The {@code recentTasks} property.
+     */
+    RECENT_TASKS("recentTasks"),
+
+    /**
+     * The {@code startTask} property.
+     */
+    START_TASK("startTask"),
+
+    /**
+     * The {@code startTaskInfo} property.
+     */
+    START_TASK_INFO("startTaskInfo"),
+
+    /**
+     * The {@code certificateReferences} property.
+     */
+    CERTIFICATE_REFERENCES("certificateReferences"),
+
+    /**
+     * The {@code errors} property.
+     */
+    ERRORS("errors"),
+
+    /**
+     * The {@code isDedicated} property.
+     */
+    IS_DEDICATED("isDedicated"),
+
+    /**
+     * The {@code endpointConfiguration} property.
+     */
+    ENDPOINT_CONFIGURATION("endpointConfiguration"),
+
+    /**
+     * The {@code nodeAgentInfo} property.
+     */
+    NODE_AGENT_INFO("nodeAgentInfo");
+
+    private final String propertyName;
+
+    ComputeNodeField(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    @Override
+    public String propertyName() {
+        return this.propertyName;
+    }
+}
@@ -12,6 +12,7 @@ import org.joda.time.DateTime;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
@@ -20,6 +21,8 @@ import java.util.List;
  */
 public class ComputeNodeOperations implements IInheritedBehaviors {
 
+    private static final int DEFAULT_POOL_PARALLELISM = 10;
+
     private Collection<BatchClientBehavior> _customBehaviors;
 
     private BatchClient _parentBatchClient;
@@ -78,7 +81,7 @@ public class ComputeNodeOperations implements IInheritedBehaviors {
      */
     public void addComputeNodeUser(String poolId, String nodeId, ComputeNodeUser user, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         ComputeNodeAddUserOptions options = new ComputeNodeAddUserOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().computeNodes().addUser(poolId, nodeId, user, options);
@@ -109,7 +112,7 @@ public class ComputeNodeOperations implements IInheritedBehaviors {
      */
     public void deleteComputeNodeUser(String poolId, String nodeId, String userName, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         ComputeNodeDeleteUserOptions options = new ComputeNodeDeleteUserOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().computeNodes().deleteUser(poolId, nodeId, userName, options);
@@ -195,7 +198,7 @@ public class ComputeNodeOperations implements IInheritedBehaviors {
      */
     private void updateComputeNodeUser(String poolId, String nodeId, String userName, NodeUpdateUserParameter nodeUpdateUserParameter, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         ComputeNodeUpdateUserOptions options = new ComputeNodeUpdateUserOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().computeNodes().updateUser(poolId, nodeId, userName, nodeUpdateUserParameter, options);
@@ -241,7 +244,7 @@ public class ComputeNodeOperations implements IInheritedBehaviors {
      */
     public ComputeNode getComputeNode(String poolId, String nodeId, DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         ComputeNodeGetOptions options = new ComputeNodeGetOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
         bhMgr.applyRequestBehaviors(options);
 
@@ -288,7 +291,7 @@ public class ComputeNodeOperations implements IInheritedBehaviors {
      */
     public void rebootComputeNode(String poolId, String nodeId, ComputeNodeRebootOption nodeRebootOption, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         ComputeNodeRebootOptions options = new ComputeNodeRebootOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().computeNodes().reboot(poolId, nodeId, nodeRebootOption, options);
@@ -334,7 +337,7 @@ public class ComputeNodeOperations implements IInheritedBehaviors {
      */
     public void reimageComputeNode(String poolId, String nodeId, ComputeNodeReimageOption nodeReimageOption, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         ComputeNodeReimageOptions options = new ComputeNodeReimageOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().computeNodes().reimage(poolId, nodeId, nodeReimageOption, options);
@@ -377,7 +380,7 @@ public class ComputeNodeOperations implements IInheritedBehaviors {
      */
     public void disableComputeNodeScheduling(String poolId, String nodeId, DisableComputeNodeSchedulingOption nodeDisableSchedulingOption, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         ComputeNodeDisableSchedulingOptions options = new ComputeNodeDisableSchedulingOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().computeNodes().disableScheduling(poolId, nodeId, nodeDisableSchedulingOption, options);
@@ -406,7 +409,7 @@ public class ComputeNodeOperations implements IInheritedBehaviors {
      */
     public void enableComputeNodeScheduling(String poolId, String nodeId, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         ComputeNodeEnableSchedulingOptions options = new ComputeNodeEnableSchedulingOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().computeNodes().enableScheduling(poolId, nodeId, options);
@@ -437,7 +440,7 @@ public class ComputeNodeOperations implements IInheritedBehaviors {
      */
     public String getComputeNodeRemoteDesktop(String poolId, String nodeId, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         ComputeNodeGetRemoteDesktopOptions options = new ComputeNodeGetRemoteDesktopOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -472,7 +475,7 @@ public class ComputeNodeOperations implements IInheritedBehaviors {
      */
     public ComputeNodeGetRemoteLoginSettingsResult getComputeNodeRemoteLoginSettings(String poolId, String nodeId, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         ComputeNodeGetRemoteLoginSettingsOptions options = new ComputeNodeGetRemoteLoginSettingsOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         return this._parentBatchClient.protocolLayer().computeNodes().getRemoteLoginSettings(poolId, nodeId, options);
@@ -515,13 +518,296 @@ public class ComputeNodeOperations implements IInheritedBehaviors {
      */
     public PagedList<ComputeNode> listComputeNodes(String poolId, DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         ComputeNodeListOptions options = new ComputeNodeListOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
         bhMgr.applyRequestBehaviors(options);
 
         return this._parentBatchClient.protocolLayer().computeNodes().list(poolId, options);
     }
 
+    /**
+     * Lists the {@link ComputeNode compute nodes} of the specified pool.
+     *
+     * @param poolId The ID of the pool.
+     * @return A {@link PagedIterator} over {@link ComputeNode} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<ComputeNode> iterateComputeNodes(String poolId) throws BatchErrorException, IOException {
+        return iterateComputeNodes(poolId, null, null);
+    }
+
+    /**
+     * Lists the {@link ComputeNode compute nodes} of the specified pool.
+     *
+     * @param poolId The ID of the pool.
+     * @param detailLevel A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @return A {@link PagedIterator} over {@link ComputeNode} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<ComputeNode> iterateComputeNodes(String poolId, DetailLevel detailLevel) throws BatchErrorException, IOException {
+        return iterateComputeNodes(poolId, detailLevel, null);
+    }
+
+    /**
+     * Lists the {@link ComputeNode compute nodes} of the specified pool.
+     *
+     * @param poolId The ID of the pool.
+     * @param detailLevel A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @param additionalBehaviors A collection of {@link BatchClientBehavior} instances that are applied to the Batch service request.
+     * @return A {@link PagedIterator} over {@link ComputeNode} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<ComputeNode> iterateComputeNodes(String poolId, DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return PagedIterator.create(listComputeNodes(poolId, detailLevel, additionalBehaviors), this._parentBatchClient, bhMgr);
+    }
+
+    /**
+     * Lists the {@link ComputeNode compute nodes} of the specified pool, listing disjoint partitions of the nodes concurrently.
+     *
+     * Each partition is a filter clause, combined with the filter clause of the detail level, which selects the nodes listed
+     * by one sequence of requests. {@link ListPartitions} builds partitions by node state. Up to the degree of parallelism set through
+     * {@link com.microsoft.azure.batch.interceptor.BatchClientParallelOptions BatchClientParallelOptions}, or else all of the partitions,
+     * are listed at once. Nodes are returned in no particular order. The iterator must be closed if it is not iterated to the end.
+     *
+     * @param poolId The ID of the pool.
+     * @param partitions The filter clauses of the partitions. Nodes matching none of them are not listed.
+     * @param detailLevel A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @param additionalBehaviors A collection of {@link BatchClientBehavior} instances that are applied to the Batch service request.
+     * @return An iterator over {@link ComputeNode} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PartitionedIterator<ComputeNode> iterateComputeNodesInPartitions(final String poolId, List<String> partitions, DetailLevel detailLevel, final Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return PartitionedIterator.create(new PartitionedIterator.PartitionLister<ComputeNode>() {
+            @Override
+            public PagedList<ComputeNode> list(DetailLevel partitionDetailLevel) throws BatchErrorException, IOException {
+                return listComputeNodes(poolId, partitionDetailLevel, additionalBehaviors);
+            }
+        }, partitions, detailLevel, this._parentBatchClient, bhMgr);
+    }
+
+    /**
+     * Lists the compute nodes of every pool in the account, listing the nodes of several pools concurrently.
+     *
+     * @param detailLevel A {@link DetailLevel} used for filtering the nodes of each pool and for controlling which properties are retrieved from the service.
+     * @return An iterator over {@link PoolComputeNode} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PartitionedIterator<PoolComputeNode> iterateComputeNodesInAccount(DetailLevel detailLevel) throws BatchErrorException, IOException {
+        return iterateComputeNodesInAccount(null, detailLevel, null);
+    }
+
+    /**
+     * Lists the compute nodes of every pool in the account, listing the nodes of several pools concurrently.
+     *
+     * @param detailLevel A {@link DetailLevel} used for filtering the nodes of each pool and for controlling which properties are retrieved from the service.
+     * @param additionalBehaviors A collection of {@link BatchClientBehavior} instances that are applied to the Batch service request.
+     * @return An iterator over {@link PoolComputeNode} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PartitionedIterator<PoolComputeNode> iterateComputeNodesInAccount(DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        return iterateComputeNodesInAccount(null, detailLevel, additionalBehaviors);
+    }
+
+    /**
+     * Lists the compute nodes of the pools in the account, listing the nodes of several pools concurrently.
+     *
+     * The IDs of the pools are listed first, then the nodes of each pool with the same detail level. Up to the degree of
+     * parallelism set through {@link com.microsoft.azure.batch.interceptor.BatchClientParallelOptions BatchClientParallelOptions},
+     * or else 10 pools, are listed at once. Nodes are returned in no particular order, each with the ID of its pool. A pool deleted
+     * since it was listed is skipped, with any of its nodes already returned, while any other failure to list the nodes of a pool
+     * stops the listing. The iterator must be closed if it is not iterated to the end.
+     *
+     * @param poolFilter An OData filter clause selecting the pools whose nodes are listed, or null for every pool.
+     * @param detailLevel A {@link DetailLevel} used for filtering the nodes of each pool and for controlling which properties are retrieved from the service.
+     * @param additionalBehaviors A collection of {@link BatchClientBehavior} instances that are applied to the Batch service request.
+     * @return An iterator over {@link PoolComputeNode} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PartitionedIterator<PoolComputeNode> iterateComputeNodesInAccount(String poolFilter, final DetailLevel detailLevel, final Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        DetailLevel poolDetailLevel = new DetailLevel.Builder()
+                .withFilterClause(poolFilter)
+                .withSelectClause("id")
+                .build();
+        List<String> poolIds = new ArrayList<>();
+        for (CloudPool pool : this._parentBatchClient.poolOperations().listPools(poolDetailLevel, additionalBehaviors)) {
+            poolIds.add(pool.id());
+        }
+
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return PartitionedIterator.create(new PartitionedIterator.KeyedPartitionLister<ComputeNode, PoolComputeNode>() {
+            @Override
+            public PagedList<ComputeNode> list(String poolId) throws BatchErrorException, IOException {
+                return listComputeNodes(poolId, detailLevel, additionalBehaviors);
+            }
+
+            @Override
+            public PoolComputeNode convert(String poolId, ComputeNode node) {
+                return new PoolComputeNode(poolId, node);
+            }
+
+            @Override
+            public boolean isRemoved(String poolId, BatchErrorException e) {
+                return e.body() != null && BatchErrorCodeStrings.PoolNotFound.equals(e.body().code());
+            }
+        }, poolIds, DEFAULT_POOL_PARALLELISM, this._parentBatchClient, bhMgr);
+    }
+
+    /**
+     * Lists the {@link ComputeNodeSummary summaries} of the compute nodes of the specified pool.
+     *
+     * Only the ID, state, scheduling state, state transition time and running tasks count of each node are retrieved,
+     * which is cheaper than listing {@link ComputeNode} objects when following the state of many nodes.
+     *
+     * @param poolId The ID of the pool.
+     * @return A list of {@link ComputeNodeSummary} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedList<ComputeNodeSummary> listComputeNodeSummaries(String poolId) throws BatchErrorException, IOException {
+        return listComputeNodeSummaries(poolId, null, null);
+    }
+
+    /**
+     * Lists the {@link ComputeNodeSummary summaries} of the compute nodes of the specified pool.
+     *
+     * Only the ID, state, scheduling state, state transition time and running tasks count of each node are retrieved,
+     * which is cheaper than listing {@link ComputeNode} objects when following the state of many nodes.
+     *
+     * @param poolId The ID of the pool.
+     * @param detailLevel A {@link DetailLevel} used for filtering the list. Its select and expand clauses are ignored.
+     * @return A list of {@link ComputeNodeSummary} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedList<ComputeNodeSummary> listComputeNodeSummaries(String poolId, DetailLevel detailLevel) throws BatchErrorException, IOException {
+        return listComputeNodeSummaries(poolId, detailLevel, null);
+    }
+
+    /**
+     * Lists the {@link ComputeNodeSummary summaries} of the compute nodes of the specified pool.
+     *
+     * Only the ID, state, scheduling state, state transition time and running tasks count of each node are retrieved,
+     * which is cheaper than listing {@link ComputeNode} objects when following the state of many nodes.
+     *
+     * @param poolId The ID of the pool.
+     * @param detailLevel A {@link DetailLevel} used for filtering the list. Its select and expand clauses are ignored.
+     * @param additionalBehaviors A collection of {@link BatchClientBehavior} instances that are applied to the Batch service request.
+     * @return A list of {@link ComputeNodeSummary} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedList<ComputeNodeSummary> listComputeNodeSummaries(String poolId, DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        ComputeNodeListOptions options = new ComputeNodeListOptions();
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
+        bhMgr.applyRequestBehaviors(options);
+
+        return new RawLists(this._parentBatchClient.protocolLayer()).listComputeNodeSummaries(poolId, options);
+    }
+
+    /**
+     * Lists the {@link ComputeNode compute nodes} of the specified pool, deserializing each as it is read from the response of the Batch service
+     * rather than a page at a time. The iterator must be closed if it is not iterated to the end.
+     *
+     * @param poolId The ID of the pool.
+     * @return An iterator over {@link ComputeNode} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public StreamingIterator<ComputeNode> streamComputeNodes(String poolId) throws BatchErrorException, IOException {
+        return streamComputeNodes(poolId, null, null);
+    }
+
+    /**
+     * Lists the {@link ComputeNode compute nodes} of the specified pool, deserializing each as it is read from the response of the Batch service
+     * rather than a page at a time. The iterator must be closed if it is not iterated to the end.
+     *
+     * @param poolId The ID of the pool.
+     * @param detailLevel A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @return An iterator over {@link ComputeNode} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public StreamingIterator<ComputeNode> streamComputeNodes(String poolId, DetailLevel detailLevel) throws BatchErrorException, IOException {
+        return streamComputeNodes(poolId, detailLevel, null);
+    }
+
+    /**
+     * Lists the {@link ComputeNode compute nodes} of the specified pool, deserializing each as it is read from the response of the Batch service
+     * rather than a page at a time. The iterator must be closed if it is not iterated to the end.
+     *
+     * @param poolId The ID of the pool.
+     * @param detailLevel A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @param additionalBehaviors A collection of {@link BatchClientBehavior} instances that are applied to the Batch service request.
+     * @return An iterator over {@link ComputeNode} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public StreamingIterator<ComputeNode> streamComputeNodes(String poolId, DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        ComputeNodeListOptions options = new ComputeNodeListOptions();
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
+        bhMgr.applyRequestBehaviors(options);
+
+        return new RawLists(this._parentBatchClient.protocolLayer()).streamComputeNodes(poolId, options);
+    }
+
+    /**
+     * Lists the {@link ComputeNodeSummary summaries} of the compute nodes of the specified pool, deserializing each as it is read from the response of the Batch service
+     * rather than a page at a time. The iterator must be closed if it is not iterated to the end.
+     *
+     * @param poolId The ID of the pool.
+     * @return An iterator over {@link ComputeNodeSummary} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public StreamingIterator<ComputeNodeSummary> streamComputeNodeSummaries(String poolId) throws BatchErrorException, IOException {
+        return streamComputeNodeSummaries(poolId, null, null);
+    }
+
+    /**
+     * Lists the {@link ComputeNodeSummary summaries} of the compute nodes of the specified pool, deserializing each as it is read from the response of the Batch service
+     * rather than a page at a time. The iterator must be closed if it is not iterated to the end.
+     *
+     * @param poolId The ID of the pool.
+     * @param detailLevel A {@link DetailLevel} used for filtering the list. Its select and expand clauses are ignored.
+     * @return An iterator over {@link ComputeNodeSummary} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public StreamingIterator<ComputeNodeSummary> streamComputeNodeSummaries(String poolId, DetailLevel detailLevel) throws BatchErrorException, IOException {
+        return streamComputeNodeSummaries(poolId, detailLevel, null);
+    }
+
+    /**
+     * Lists the {@link ComputeNodeSummary summaries} of the compute nodes of the specified pool, deserializing each as it is read from the response of the Batch service
+     * rather than a page at a time. The iterator must be closed if it is not iterated to the end.
+     *
+     * @param poolId The ID of the pool.
+     * @param detailLevel A {@link DetailLevel} used for filtering the list. Its select and expand clauses are ignored.
+     * @param additionalBehaviors A collection of {@link BatchClientBehavior} instances that are applied to the Batch service request.
+     * @return An iterator over {@link ComputeNodeSummary} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public StreamingIterator<ComputeNodeSummary> streamComputeNodeSummaries(String poolId, DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        ComputeNodeListOptions options = new ComputeNodeListOptions();
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
+        bhMgr.applyRequestBehaviors(options);
+
+        return new RawLists(this._parentBatchClient.protocolLayer()).streamComputeNodeSummaries(poolId, options);
+    }
+
     /**
      * Upload Azure Batch service log files from the specified compute node to Azure Blob Storage.
      * This is for gathering Azure Batch service log files in an automated fashion from nodes if you are experiencing an error and wish to escalate to Azure support. The Azure Batch service log files should be shared with Azure support to aid in debugging issues with the Batch service.
@@ -560,7 +846,7 @@ public class ComputeNodeOperations implements IInheritedBehaviors {
         configuration.withEndTime(endTime);
 
         ComputeNodeUploadBatchServiceLogsOptions options = new ComputeNodeUploadBatchServiceLogsOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         return this._parentBatchClient.protocolLayer().computeNodes().uploadBatchServiceLogs(poolId, nodeId, configuration, options);
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.microsoft.azure.batch.protocol.models.ComputeNodeState;
+import com.microsoft.azure.batch.protocol.models.SchedulingState;
+import org.joda.time.DateTime;
+
+/**
+ * The state of a compute node, as retrieved by
+ * {@link ComputeNodeOperations#listComputeNodeSummaries(String, DetailLevel, Iterable)}.
+ *
+ * Only the properties needed to follow the state of a node are requested from the Batch service
+ * and deserialized, so a summary takes a fraction of the memory and parsing time of a
+ * {@link com.microsoft.azure.batch.protocol.models.ComputeNode ComputeNode}.
+ */
+public class ComputeNodeSummary {
+    /**
+     * The $select clause requesting the properties of a summary.
+     */
+    static final String SELECT_CLAUSE = new DetailLevel.Builder()
+            .withSelectFields(ComputeNodeField.ID, ComputeNodeField.STATE, ComputeNodeField.SCHEDULING_STATE,
+                    ComputeNodeField.STATE_TRANSITION_TIME, ComputeNodeField.RUNNING_TASKS_COUNT)
+            .build()
+            .selectClause();
+
+    @JsonProperty(value = "id")
+    private String id;
+
+    @JsonProperty(value = "state")
+    private ComputeNodeState state;
+
+    @JsonProperty(value = "schedulingState")
+    private SchedulingState schedulingState;
+
+    @JsonProperty(value = "stateTransitionTime")
+    private DateTime stateTransitionTime;
+
+    @JsonProperty(value = "runningTasksCount")
+    private Integer runningTasksCount;
+
+    /**
+     * Gets the ID of the compute node.
+     *
+     * @return The node ID.
+     */
+    public String id() {
+        return this.id;
+    }
+
+    /**
+     * Gets the current state of the compute node.
+     *
+     * @return The node state.
+     */
+    public ComputeNodeState state() {
+        return this.state;
+    }
+
+    /**
+     * Gets whether the compute node is available for task scheduling.
+     *
+     * @return The scheduling state.
+     */
+    public SchedulingState schedulingState() {
+        return this.schedulingState;
+    }
+
+    /**
+     * Gets the time at which the compute node entered its current state.
+     *
+     * @return The state transition time.
+     */
+    public DateTime stateTransitionTime() {
+        return this.stateTransitionTime;
+    }
+
+    /**
+     * Gets the number of tasks currently running on the compute node.
+     *
+     * @return The running tasks count.
+     */
+    public Integer runningTasksCount() {
+        return this.runningTasksCount;
+    }
+}
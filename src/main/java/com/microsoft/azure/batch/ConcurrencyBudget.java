@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A number of requests allowed in flight, shared by the submissions drawing from it.
+ *
+ * A submission which finds no free permit is queued as a waiter, and waiters are woken in
+ * the order they were queued as permits are released. A submission queues itself again after
+ * each request it sends while others are waiting, so the permits are shared round-robin between
+ * submissions rather than taken by the first one.
+ *
+ * Waiters are only woken from {@link #release(boolean, long, long)} and {@link #wakeWaiters()},
+ * which must be called without holding a submission lock, since waking a waiter takes its lock.
+ */
+class ConcurrencyBudget {
+
+    /**
+     * A submission waiting for a permit.
+     */
+    interface Waiter {
+        /**
+         * Called when a permit may be available. The waiter is no longer queued, and must call
+         * {@link ConcurrencyBudget#tryAcquire(Waiter)} to take the permit.
+         */
+        void permitAvailable();
+    }
+
+    private final int maxDegreeOfParallelism;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    // Guarded by this
+    private int inUse;
+    private final Set<Waiter> waiters = new LinkedHashSet<>();
+
+    /**
+     * Initializes a new instance of the ConcurrencyBudget class.
+     *
+     * @param maxDegreeOfParallelism The number of requests allowed in flight.
+     * @param concurrencyLimit The adaptive limit on the requests in flight, or null to always allow
+     *                         maxDegreeOfParallelism requests.
+     */
+    ConcurrencyBudget(int maxDegreeOfParallelism, AdaptiveConcurrencyLimit concurrencyLimit) {
+        this.maxDegreeOfParallelism = maxDegreeOfParallelism;
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    /**
+     * @return The current number of requests allowed in flight.
+     */
+    synchronized int limit() {
+        return concurrencyLimit != null ? concurrencyLimit.current() : maxDegreeOfParallelism;
+    }
+
+    /**
+     * @return true if the number of requests allowed in flight adapts to throttling by the Batch service.
+     */
+    boolean isAdaptive() {
+        return concurrencyLimit != null;
+    }
+
+    /**
+     * Takes a permit if one is free, otherwise queues the waiter.
+     *
+     * @param waiter The submission to wake when a permit is released.
+     * @return true if a permit was taken.
+     */
+    synchronized boolean tryAcquire(Waiter waiter) {
+        if (inUse < limit()) {
+            inUse++;
+            return true;
+        }
+        waiters.add(waiter);
+        return false;
+    }
+
+    /**
+     * Gives back a permit which was not used to send a request. Waiters are woken by the
+     * next call to {@link #wakeWaiters()}.
+     */
+    synchronized void returnPermit() {
+        inUse--;
+    }
+
+    /**
+     * Gives back the permit of a completed request and wakes waiters.
+     *
+     * @param throttled Whether the request was throttled by the Batch service.
+     * @param startNanos The {@link System#nanoTime()} at which the request was sent.
+     * @param latencyNanos The time taken by the request, or a negative value if it failed.
+     */
+    void release(boolean throttled, long startNanos, long latencyNanos) {
+        synchronized (this) {
+            if (concurrencyLimit != null) {
+                if (throttled) {
+                    concurrencyLimit.onThrottle(startNanos);
+                } else if (latencyNanos >= 0) {
+                    concurrencyLimit.onSuccess(latencyNanos, inUse);
+                }
+            }
+            inUse--;
+        }
+        wakeWaiters();
+    }
+
+    /**
+     * Wakes waiters, in the order they were queued, while permits are free.
+     */
+    void wakeWaiters() {
+        while (true) {
+            Waiter waiter;
+            synchronized (this) {
+                if (inUse >= limit() || waiters.isEmpty()) {
+                    return;
+                }
+                Iterator<Waiter> iterator = waiters.iterator();
+                waiter = iterator.next();
+                iterator.remove();
+            }
+            waiter.permitAvailable();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.batch.interceptor.BatchClientParallelOptions;
+import com.microsoft.azure.batch.protocol.models.BatchErrorException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Issues one request to the Batch service per key, such as the subtasks of each of a set of tasks,
+ * with up to the degree of parallelism set through {@link BatchClientParallelOptions} in flight.
+ *
+ * The calling thread issues requests alongside the workers, so with the default degree of
+ * parallelism of 1 the requests are issued one after another on the calling thread. The first
+ * failure stops further requests from being issued, and is thrown once the requests in flight have
+ * completed.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the results.
+ */
+final class ConcurrentRequests<K, V> {
+
+    /**
+     * Issues the request of a key.
+     *
+     * @param <K> The type of the keys.
+     * @param <V> The type of the results.
+     */
+    interface Request<K, V> {
+        /**
+         * Issues the request of a key.
+         *
+         * @param key The key.
+         * @return The result of the request.
+         * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+         * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+         */
+        V call(K key) throws BatchErrorException, IOException;
+    }
+
+    private final Request<K, V> request;
+
+    // Guarded by lock
+    private final Object lock = new Object();
+    private final Deque<K> remainingKeys;
+    private final Map<K, V> results = new LinkedHashMap<>();
+    private int activeWorkers;
+    private boolean stopped;
+    private Exception failure;
+
+    private ConcurrentRequests(Request<K, V> request, Collection<K> keys) {
+        this.request = request;
+        this.remainingKeys = new ArrayDeque<>(keys);
+        // The results are in the order of the keys
+        for (K key : keys) {
+            results.put(key, null);
+        }
+    }
+
+    /**
+     * Issues the request of each key and waits for them to complete.
+     *
+     * @param request Issues the request of a key.
+     * @param keys The keys. Duplicate keys are requested once.
+     * @param client The client which issues the requests.
+     * @param bhMgr The behaviors of the operation.
+     * @param <K> The type of the keys.
+     * @param <V> The type of the results.
+     * @return The result of each key, in the order of the keys.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     * @throws InterruptedException Exception thrown if the calling thread is interrupted, after which no further requests
+     *             are issued.
+     */
+    static <K, V> Map<K, V> run(Request<K, V> request, Collection<K> keys, BatchClient client, BehaviorManager bhMgr)
+            throws BatchErrorException, IOException, InterruptedException {
+        if (keys == null) {
+            throw new IllegalArgumentException("keys");
+        }
+        List<K> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+
+        int parallelism = 1;
+        Executor executor = client.executorService();
+        for (BatchClientBehavior op : bhMgr.getMasterListOfBehaviors()) {
+            if (op instanceof BatchClientParallelOptions) {
+                BatchClientParallelOptions parallelOptions = (BatchClientParallelOptions) op;
+                parallelism = parallelOptions.maxDegreeOfParallelism();
+                if (parallelOptions.executorService() != null) {
+                    executor = parallelOptions.executorService();
+                }
+            }
+        }
+        parallelism = Math.min(parallelism, distinctKeys.size());
+
+        ConcurrentRequests<K, V> requests = new ConcurrentRequests<>(request, distinctKeys);
+        requests.start(executor, parallelism - 1);
+        return requests.await();
+    }
+
+    private void start(Executor executor, int workers) {
+        synchronized (lock) {
+            // The calling thread is a worker as well
+            activeWorkers++;
+            for (int i = 0; i < workers; i++) {
+                try {
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            issueRequests(false);
+                        }
+                    });
+                    activeWorkers++;
+                } catch (RejectedExecutionException e) {
+                    // The keys are shared by the workers, fewer workers still request all of them
+                    break;
+                }
+            }
+        }
+    }
+
+    private Map<K, V> await() throws BatchErrorException, IOException, InterruptedException {
+        boolean interrupted = issueRequests(true);
+        synchronized (lock) {
+            try {
+                if (interrupted || Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                while (activeWorkers > 0) {
+                    lock.wait();
+                }
+            } catch (InterruptedException e) {
+                stopped = true;
+                throw e;
+            }
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            } else if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Issues requests until none remain or the requests are stopped.
+     *
+     * @param callingThread Whether the requests are issued by the calling thread.
+     * @return true if a request of the calling thread failed because it was interrupted.
+     */
+    private boolean issueRequests(boolean callingThread) {
+        try {
+            while (true) {
+                K key;
+                synchronized (lock) {
+                    if (stopped || remainingKeys.isEmpty()) {
+                        return false;
+                    }
+                    key = remainingKeys.poll();
+                }
+                V result = request.call(key);
+                synchronized (lock) {
+                    results.put(key, result);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // The interruption of the calling thread is reported as such, rather than as the failure of its request
+            boolean interrupted = callingThread && isInterruption(e);
+            synchronized (lock) {
+                if (failure == null && !interrupted) {
+                    failure = e;
+                }
+                stopped = true;
+            }
+            return interrupted;
+        } finally {
+            synchronized (lock) {
+                activeWorkers--;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private static boolean isInterruption(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedIOException && !(cause instanceof SocketTimeoutException)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
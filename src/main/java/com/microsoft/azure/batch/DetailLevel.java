@@ -56,6 +56,25 @@ public class DetailLevel {
             return this;
         }
 
+        /**
+         * Sets the OData select clause from a list of properties, such as {@link TaskField} or {@link ComputeNodeField}
+         * values. Used to retrieve only specific properties instead of all object properties.
+         *
+         * @param fields The properties to retrieve.
+         * @return The Builder instance.
+         */
+        public Builder withSelectFields(SelectableField... fields) {
+            StringBuilder select = new StringBuilder();
+            for (SelectableField field : fields) {
+                if (select.length() > 0) {
+                    select.append(',');
+                }
+                select.append(field.propertyName());
+            }
+            this.selectClause = select.toString();
+            return this;
+        }
+
         /**
          * Sets the OData expand clause. Used to retrieve associated entities of the main entity being retrieved.
          *
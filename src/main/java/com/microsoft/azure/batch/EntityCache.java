@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.microsoft.azure.batch.protocol.models.BatchErrorException;
+import com.microsoft.rest.protocol.SerializerAdapter;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The entities last retrieved by get operations, with their ETags, enabled through
+ * {@link BatchClient#withEntityCache(int, long, TimeUnit)}.
+ *
+ * Each get of a cached entity is sent with an If-None-Match header carrying the ETag of the cached
+ * copy, so the Batch service answers 304 Not Modified, without a body, while the entity is unchanged,
+ * and the cached copy is returned without being downloaded again. The cache keeps the JSON of each
+ * entity rather than the entity, and deserializes a new instance for each caller, so a caller which
+ * modifies its entity does not modify the cached copy. A cached copy is evicted once it is older than
+ * the time to live, or when the cache is full and it is the least recently used, after which the
+ * entity is downloaded in full.
+ */
+final class EntityCache {
+
+    /**
+     * An entity and its ETag.
+     *
+     * @param <T> The type of the entity.
+     */
+    static final class Entry<T> {
+        private final T entity;
+        private final String eTag;
+
+        Entry(T entity, String eTag) {
+            this.entity = entity;
+            this.eTag = eTag;
+        }
+    }
+
+    /**
+     * Gets an entity from the Batch service.
+     *
+     * @param <T> The type of the entity.
+     */
+    interface ConditionalGet<T> {
+        /**
+         * Gets the entity.
+         *
+         * @param ifNoneMatch The ETag of the cached copy, sent as the If-None-Match header, or null if there is none.
+         * @return The entity and its ETag.
+         * @throws BatchErrorException Exception thrown when an error response, including 304 Not Modified, is received from the Batch service.
+         * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+         */
+        Entry<T> get(String ifNoneMatch) throws BatchErrorException, IOException;
+    }
+
+    /**
+     * The JSON of a cached entity, its type and its ETag.
+     */
+    private static final class CachedEntity {
+        private final String json;
+        private final Class<?> type;
+        private final String eTag;
+
+        private CachedEntity(String json, Class<?> type, String eTag) {
+            this.json = json;
+            this.type = type;
+            this.eTag = eTag;
+        }
+    }
+
+    private final Cache<String, CachedEntity> entries;
+    private final SerializerAdapter<?> serializer;
+
+    EntityCache(int maximumSize, long timeToLive, TimeUnit unit, SerializerAdapter<?> serializer) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize");
+        }
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("timeToLive");
+        }
+        this.entries = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive, unit)
+                .build();
+        this.serializer = serializer;
+    }
+
+    /**
+     * Gets the key of an entity.
+     *
+     * @param path The path of the entity, such as jobs/{jobId}/tasks/{taskId}.
+     * @param select The $select clause of the get, or null.
+     * @param expand The $expand clause of the get, or null.
+     * @return The key. Gets selecting different properties are cached separately.
+     */
+    static String key(String path, String select, String expand) {
+        return path + "?$select=" + (select != null ? select : "") + "&$expand=" + (expand != null ? expand : "");
+    }
+
+    /**
+     * Gets an entity, revalidating the cached copy if there is one.
+     *
+     * @param key The key of the entity.
+     * @param conditionalGet The get of the entity.
+     * @param <T> The type of the entity.
+     * @return The entity, an instance of which no other caller holds.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    <T> T get(String key, ConditionalGet<T> conditionalGet) throws BatchErrorException, IOException {
+        CachedEntity cached = entries.getIfPresent(key);
+        Entry<T> entry;
+        try {
+            entry = conditionalGet.get(cached != null ? cached.eTag : null);
+        } catch (BatchErrorException e) {
+            if (cached != null && e.response() != null && e.response().code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                // The time to live is not extended, so a cached copy is eventually downloaded again
+                return serializer.deserialize(cached.json, cached.type);
+            }
+            entries.invalidate(key);
+            throw e;
+        }
+        if (entry.eTag != null && entry.entity != null) {
+            // The caller gets the downloaded instance, the cache keeps its JSON
+            entries.put(key, new CachedEntity(serializer.serialize(entry.entity), entry.entity.getClass(), entry.eTag));
+        } else {
+            entries.invalidate(key);
+        }
+        return entry.entity;
+    }
+
+    /**
+     * Evicts every cached entity.
+     */
+    void clear() {
+        entries.invalidateAll();
+    }
+}
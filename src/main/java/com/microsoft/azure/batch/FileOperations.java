@@ -106,13 +106,58 @@ public class FileOperations implements IInheritedBehaviors {
      */
     public PagedList<NodeFile> listFilesFromTask(String jobId, String taskId, Boolean recursive, DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         FileListFromTaskOptions options = new FileListFromTaskOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
         bhMgr.applyRequestBehaviors(options);
 
         return this._parentBatchClient.protocolLayer().files().listFromTask(jobId, taskId, recursive, options);
     }
 
+    /**
+     * Lists the files in the specified task's directory on its compute node.
+     *
+     * @param jobId The ID of the job.
+     * @param taskId The ID of the task.
+     * @return A {@link PagedIterator} over {@link NodeFile} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<NodeFile> iterateFilesFromTask(String jobId, String taskId) throws BatchErrorException, IOException {
+        return iterateFilesFromTask(jobId, taskId, null, null, null);
+    }
+
+    /**
+     * Lists the files in the specified task's directory on its compute node.
+     *
+     * @param jobId The ID of the job.
+     * @param taskId The ID of the task.
+     * @param recursive If true, performs a recursive list of all files of the task. If false or null, returns only the files in the root task directory.
+     * @param detailLevel A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @return A {@link PagedIterator} over {@link NodeFile} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<NodeFile> iterateFilesFromTask(String jobId, String taskId, Boolean recursive, DetailLevel detailLevel) throws BatchErrorException, IOException {
+        return iterateFilesFromTask(jobId, taskId, recursive, detailLevel, null);
+    }
+
+    /**
+     * Lists the files in the specified task's directory on its compute node.
+     *
+     * @param jobId The ID of the job.
+     * @param taskId The ID of the task.
+     * @param recursive If true, performs a recursive list of all files of the task. If false or null, returns only the files in the root task directory.
+     * @param detailLevel A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @param additionalBehaviors A collection of {@link BatchClientBehavior} instances that are applied to the Batch service request.
+     * @return A {@link PagedIterator} over {@link NodeFile} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<NodeFile> iterateFilesFromTask(String jobId, String taskId, Boolean recursive, DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return PagedIterator.create(listFilesFromTask(jobId, taskId, recursive, detailLevel, additionalBehaviors), this._parentBatchClient, bhMgr);
+    }
+
     /**
      * Lists files on the specified compute node.
      *
@@ -155,13 +200,58 @@ public class FileOperations implements IInheritedBehaviors {
      */
     public PagedList<NodeFile> listFilesFromComputeNode(String poolId, String nodeId, Boolean recursive, DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         FileListFromComputeNodeOptions options = new FileListFromComputeNodeOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
         bhMgr.applyRequestBehaviors(options);
 
         return this._parentBatchClient.protocolLayer().files().listFromComputeNode(poolId, nodeId, recursive, options);
     }
 
+    /**
+     * Lists files on the specified compute node.
+     *
+     * @param poolId The ID of the pool that contains the compute node.
+     * @param nodeId The ID of the compute node.
+     * @return A {@link PagedIterator} over {@link NodeFile} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<NodeFile> iterateFilesFromComputeNode(String poolId, String nodeId) throws BatchErrorException, IOException {
+        return iterateFilesFromComputeNode(poolId, nodeId, null, null, null);
+    }
+
+    /**
+     * Lists files on the specified compute node.
+     *
+     * @param poolId The ID of the pool that contains the compute node.
+     * @param nodeId The ID of the compute node.
+     * @param recursive If true, recursively lists all files on the compute node. If false or null, lists only the files in the compute node root directory.
+     * @param detailLevel A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @return A {@link PagedIterator} over {@link NodeFile} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<NodeFile> iterateFilesFromComputeNode(String poolId, String nodeId, Boolean recursive, DetailLevel detailLevel) throws BatchErrorException, IOException {
+        return iterateFilesFromComputeNode(poolId, nodeId, recursive, detailLevel, null);
+    }
+
+    /**
+     * Lists files on the specified compute node.
+     *
+     * @param poolId The ID of the pool that contains the compute node.
+     * @param nodeId The ID of the compute node.
+     * @param recursive If true, recursively lists all files on the compute node. If false or null, lists only the files in the compute node root directory.
+     * @param detailLevel A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @param additionalBehaviors A collection of {@link BatchClientBehavior} instances that are applied to the Batch service request.
+     * @return A {@link PagedIterator} over {@link NodeFile} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<NodeFile> iterateFilesFromComputeNode(String poolId, String nodeId, Boolean recursive, DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return PagedIterator.create(listFilesFromComputeNode(poolId, nodeId, recursive, detailLevel, additionalBehaviors), this._parentBatchClient, bhMgr);
+    }
+
     /**
      * Deletes the specified file from the specified task's directory on its compute node.
      *
@@ -202,7 +292,7 @@ public class FileOperations implements IInheritedBehaviors {
      */
     public void deleteFileFromTask(String jobId, String taskId, String fileName, Boolean recursive, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         FileDeleteFromTaskOptions options = new FileDeleteFromTaskOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().files().deleteFromTask(jobId, taskId, fileName, recursive, options);
@@ -248,7 +338,7 @@ public class FileOperations implements IInheritedBehaviors {
      */
     public void deleteFileFromComputeNode(String poolId, String nodeId, String fileName, Boolean recursive, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         FileDeleteFromComputeNodeOptions options = new FileDeleteFromComputeNodeOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().files().deleteFromComputeNode(poolId, nodeId, fileName, recursive, options);
@@ -281,7 +371,7 @@ public class FileOperations implements IInheritedBehaviors {
      */
     public void getFileFromTask(String jobId, String taskId, String fileName, Iterable<BatchClientBehavior> additionalBehaviors, OutputStream outputStream) throws BatchErrorException, IOException {
         FileGetFromTaskOptions options = new FileGetFromTaskOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().files().getFromTask(jobId, taskId, fileName, options, outputStream);
@@ -314,7 +404,7 @@ public class FileOperations implements IInheritedBehaviors {
      */
     public void getFileFromComputeNode(String poolId, String nodeId, String fileName, Iterable<BatchClientBehavior> additionalBehaviors, OutputStream outputStream) throws BatchErrorException, IOException {
         FileGetFromComputeNodeOptions options = new FileGetFromComputeNodeOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().files().getFromComputeNode(poolId, nodeId, fileName, options, outputStream);
@@ -347,7 +437,7 @@ public class FileOperations implements IInheritedBehaviors {
      */
     public FileProperties getFilePropertiesFromTask(String jobId, String taskId, String fileName, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         FileGetPropertiesFromTaskOptions options = new FileGetPropertiesFromTaskOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         ServiceResponseWithHeaders<Void, FileGetPropertiesFromTaskHeaders> response = this._parentBatchClient.protocolLayer().files().
@@ -388,7 +478,7 @@ public class FileOperations implements IInheritedBehaviors {
      */
     public FileProperties getFilePropertiesFromComputeNode(String poolId, String nodeId, String fileName, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         FileGetPropertiesFromComputeNodeOptions options = new FileGetPropertiesFromComputeNodeOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         ServiceResponseWithHeaders<Void, FileGetPropertiesFromComputeNodeHeaders> response = this._parentBatchClient.protocolLayer().files().
@@ -8,6 +8,7 @@ package com.microsoft.azure.batch;
 
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.batch.protocol.models.*;
+import com.microsoft.rest.ServiceResponseWithHeaders;
 
 import java.io.IOException;
 import java.util.Collection;
@@ -72,7 +73,7 @@ public class JobOperations implements IInheritedBehaviors {
      */
     public JobStatistics getAllJobsLifetimeStatistics(Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobGetAllLifetimeStatisticsOptions options = new JobGetAllLifetimeStatisticsOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         return this._parentBatchClient.protocolLayer().jobs().getAllLifetimeStatistics(options);
@@ -113,14 +114,40 @@ public class JobOperations implements IInheritedBehaviors {
      * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
      * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
      */
-    public CloudJob getJob(String jobId, DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
-        JobGetOptions getJobOptions = new JobGetOptions();
+    public CloudJob getJob(final String jobId, DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        final JobGetOptions getJobOptions = new JobGetOptions();
 
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
         bhMgr.applyRequestBehaviors(getJobOptions);
 
-        return this._parentBatchClient.protocolLayer().jobs().get(jobId, getJobOptions);
+        return SingleFlight.coalesce(this._parentBatchClient, bhMgr,
+                SingleFlight.isConditional(getJobOptions.ifMatch(), getJobOptions.ifNoneMatch(), getJobOptions.ifModifiedSince(), getJobOptions.ifUnmodifiedSince(), getJobOptions.ocpDate()),
+                SingleFlight.key("getJob", getJobOptions.select(), getJobOptions.expand(), getJobOptions.timeout(), jobId),
+                new SingleFlight.Read<CloudJob>() {
+                    @Override
+                    public CloudJob read() throws BatchErrorException, IOException {
+                        return readJob(jobId, getJobOptions);
+                    }
+                });
+    }
+
+    private CloudJob readJob(final String jobId, JobGetOptions getJobOptions) throws BatchErrorException, IOException {
+        EntityCache cache = this._parentBatchClient.entityCache();
+        if (cache == null || getJobOptions.ifNoneMatch() != null || getJobOptions.ifModifiedSince() != null) {
+            return this._parentBatchClient.protocolLayer().jobs().get(jobId, getJobOptions);
+        }
+        final JobGetOptions conditionalOptions = getJobOptions;
+        return cache.get(EntityCache.key("jobs/" + jobId, getJobOptions.select(), getJobOptions.expand()), new EntityCache.ConditionalGet<CloudJob>() {
+            @Override
+            public EntityCache.Entry<CloudJob> get(String ifNoneMatch) {
+                ServiceResponseWithHeaders<CloudJob, JobGetHeaders> response = _parentBatchClient.protocolLayer().jobs()
+                        .getWithServiceResponseAsync(jobId, conditionalOptions.withIfNoneMatch(ifNoneMatch)).toBlocking().single();
+                // The ETag of the entity itself stands in for a header lost by an intermediary
+                String eTag = response.headers().eTag() != null ? response.headers().eTag() : response.body().eTag();
+                return new EntityCache.Entry<>(response.body(), eTag);
+            }
+        });
     }
 
     /**
@@ -158,7 +185,7 @@ public class JobOperations implements IInheritedBehaviors {
     public PagedList<CloudJob> listJobs(DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobListOptions jobListOptions = new JobListOptions();
 
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
         bhMgr.applyRequestBehaviors(jobListOptions);
 
@@ -203,13 +230,90 @@ public class JobOperations implements IInheritedBehaviors {
     public PagedList<CloudJob> listJobs(String jobScheduleId, DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobListFromJobScheduleOptions jobListOptions = new JobListFromJobScheduleOptions();
 
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
         bhMgr.applyRequestBehaviors(jobListOptions);
 
         return this._parentBatchClient.protocolLayer().jobs().listFromJobSchedule(jobScheduleId, jobListOptions);
     }
 
+    /**
+     * Lists the {@link CloudJob jobs} in the Batch account.
+     *
+     * @return A {@link PagedIterator} over {@link CloudJob} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<CloudJob> iterateJobs() throws BatchErrorException, IOException {
+        return iterateJobs(null, (Iterable<BatchClientBehavior>) null);
+    }
+
+    /**
+     * Lists the {@link CloudJob jobs} in the Batch account.
+     *
+     * @param detailLevel A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @return A {@link PagedIterator} over {@link CloudJob} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<CloudJob> iterateJobs(DetailLevel detailLevel) throws BatchErrorException, IOException {
+        return iterateJobs(detailLevel, null);
+    }
+
+    /**
+     * Lists the {@link CloudJob jobs} in the Batch account.
+     *
+     * @param detailLevel A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @param additionalBehaviors A collection of {@link BatchClientBehavior} instances that are applied to the Batch service request.
+     * @return A {@link PagedIterator} over {@link CloudJob} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<CloudJob> iterateJobs(DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return PagedIterator.create(listJobs(detailLevel, additionalBehaviors), this._parentBatchClient, bhMgr);
+    }
+
+    /**
+     * Lists the {@link CloudJob jobs} created under the specified job schedule.
+     *
+     * @param jobScheduleId The ID of job schedule.
+     * @return A {@link PagedIterator} over {@link CloudJob} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<CloudJob> iterateJobs(String jobScheduleId) throws BatchErrorException, IOException {
+        return iterateJobs(jobScheduleId, null, null);
+    }
+
+    /**
+     * Lists the {@link CloudJob jobs} created under the specified job schedule.
+     *
+     * @param jobScheduleId The ID of job schedule.
+     * @param detailLevel A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @return A {@link PagedIterator} over {@link CloudJob} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<CloudJob> iterateJobs(String jobScheduleId, DetailLevel detailLevel) throws BatchErrorException, IOException {
+        return iterateJobs(jobScheduleId, detailLevel, null);
+    }
+
+    /**
+     * Lists the {@link CloudJob jobs} created under the specified jobSchedule.
+     *
+     * @param jobScheduleId The ID of jobSchedule.
+     * @param detailLevel A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @param additionalBehaviors A collection of {@link BatchClientBehavior} instances that are applied to the Batch service request.
+     * @return A {@link PagedIterator} over {@link CloudJob} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<CloudJob> iterateJobs(String jobScheduleId, DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return PagedIterator.create(listJobs(jobScheduleId, detailLevel, additionalBehaviors), this._parentBatchClient, bhMgr);
+    }
+
     /**
      * Lists the status of {@link JobPreparationTask} and {@link JobReleaseTask} tasks for the specified job.
      *
@@ -234,12 +338,38 @@ public class JobOperations implements IInheritedBehaviors {
     public PagedList<JobPreparationAndReleaseTaskExecutionInformation> listPreparationAndReleaseTaskStatus(String jobId, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobListPreparationAndReleaseTaskStatusOptions jobListOptions = new JobListPreparationAndReleaseTaskStatusOptions();
 
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(jobListOptions);
 
         return this._parentBatchClient.protocolLayer().jobs().listPreparationAndReleaseTaskStatus(jobId, jobListOptions);
     }
 
+    /**
+     * Lists the status of {@link JobPreparationTask} and {@link JobReleaseTask} tasks for the specified job.
+     *
+     * @param jobId The ID of the job.
+     * @return A {@link PagedIterator} over {@link JobPreparationAndReleaseTaskExecutionInformation} instances.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<JobPreparationAndReleaseTaskExecutionInformation> iteratePreparationAndReleaseTaskStatus(String jobId) throws BatchErrorException, IOException {
+        return iteratePreparationAndReleaseTaskStatus(jobId, null);
+    }
+
+    /**
+     * Lists the status of {@link JobPreparationTask} and {@link JobReleaseTask} tasks for the specified job.
+     *
+     * @param jobId The ID of the job.
+     * @param additionalBehaviors A collection of {@link BatchClientBehavior} instances that are applied to the Batch service request.
+     * @return A {@link PagedIterator} over {@link JobPreparationAndReleaseTaskExecutionInformation} instances.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<JobPreparationAndReleaseTaskExecutionInformation> iteratePreparationAndReleaseTaskStatus(String jobId, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return PagedIterator.create(listPreparationAndReleaseTaskStatus(jobId, additionalBehaviors), this._parentBatchClient, bhMgr);
+    }
+
     /**
      * Adds a job to the Batch account.
      *
@@ -290,7 +420,7 @@ public class JobOperations implements IInheritedBehaviors {
      */
     public void createJob(JobAddParameter job, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobAddOptions options = new JobAddOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().jobs().add(job, options);
@@ -317,7 +447,7 @@ public class JobOperations implements IInheritedBehaviors {
      */
     public void deleteJob(String jobId, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobDeleteOptions options = new JobDeleteOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().jobs().delete(jobId, options);
@@ -357,7 +487,7 @@ public class JobOperations implements IInheritedBehaviors {
      */
     public void terminateJob(String jobId, String terminateReason, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobTerminateOptions options = new JobTerminateOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().jobs().terminate(jobId, terminateReason, options);
@@ -384,7 +514,7 @@ public class JobOperations implements IInheritedBehaviors {
      */
     public void enableJob(String jobId, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobEnableOptions options = new JobEnableOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().jobs().enable(jobId, options);
@@ -413,7 +543,7 @@ public class JobOperations implements IInheritedBehaviors {
      */
     public void disableJob(String jobId, DisableJobOption disableJobOption, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobDisableOptions options = new JobDisableOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().jobs().disable(jobId, disableJobOption, options);
@@ -454,7 +584,7 @@ public class JobOperations implements IInheritedBehaviors {
     public void updateJob(String jobId, PoolInformation poolInfo, Integer priority, JobConstraints constraints, OnAllTasksComplete onAllTasksComplete,
                           List<MetadataItem> metadata, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobUpdateOptions options = new JobUpdateOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         JobUpdateParameter param = new JobUpdateParameter()
@@ -562,7 +692,7 @@ public class JobOperations implements IInheritedBehaviors {
      */
     public void patchJob(String jobId, JobPatchParameter jobPatchParameter, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobPatchOptions options = new JobPatchOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().jobs().patch(jobId, jobPatchParameter, options);
@@ -591,12 +721,20 @@ public class JobOperations implements IInheritedBehaviors {
      * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
      * @return the TaskCounts object if successful.
      */
-    public TaskCounts getTaskCounts(String jobId, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
-        JobGetTaskCountsOptions options = new JobGetTaskCountsOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+    public TaskCounts getTaskCounts(final String jobId, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        final JobGetTaskCountsOptions options = new JobGetTaskCountsOptions();
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
-        return this._parentBatchClient.protocolLayer().jobs().getTaskCounts(jobId, options);
+        return SingleFlight.coalesce(this._parentBatchClient, bhMgr,
+                SingleFlight.isConditional(null, null, null, null, options.ocpDate()),
+                SingleFlight.key("getTaskCounts", null, null, options.timeout(), jobId),
+                new SingleFlight.Read<TaskCounts>() {
+                    @Override
+                    public TaskCounts read() throws BatchErrorException, IOException {
+                        return _parentBatchClient.protocolLayer().jobs().getTaskCounts(jobId, options);
+                    }
+                });
     }
 
 }
@@ -8,6 +8,7 @@ package com.microsoft.azure.batch;
 
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.batch.protocol.models.*;
+import com.microsoft.rest.ServiceResponseWithHeaders;
 
 import java.io.IOException;
 import java.util.Collection;
@@ -74,7 +75,7 @@ public class JobScheduleOperations implements IInheritedBehaviors {
      */
     public boolean existsJobSchedule(String jobScheduleId, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobScheduleExistsOptions options = new JobScheduleExistsOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         return this._parentBatchClient.protocolLayer().jobSchedules().exists(jobScheduleId, options);
@@ -101,7 +102,7 @@ public class JobScheduleOperations implements IInheritedBehaviors {
      */
     public void deleteJobSchedule(String jobScheduleId, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobScheduleDeleteOptions options = new JobScheduleDeleteOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().jobSchedules().delete(jobScheduleId, options);
@@ -142,13 +143,39 @@ public class JobScheduleOperations implements IInheritedBehaviors {
      * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
      * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
      */
-    public CloudJobSchedule getJobSchedule(String jobScheduleId, DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
-        JobScheduleGetOptions options = new JobScheduleGetOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+    public CloudJobSchedule getJobSchedule(final String jobScheduleId, DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        final JobScheduleGetOptions options = new JobScheduleGetOptions();
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
         bhMgr.applyRequestBehaviors(options);
 
-        return this._parentBatchClient.protocolLayer().jobSchedules().get(jobScheduleId, options);
+        return SingleFlight.coalesce(this._parentBatchClient, bhMgr,
+                SingleFlight.isConditional(options.ifMatch(), options.ifNoneMatch(), options.ifModifiedSince(), options.ifUnmodifiedSince(), options.ocpDate()),
+                SingleFlight.key("getJobSchedule", options.select(), options.expand(), options.timeout(), jobScheduleId),
+                new SingleFlight.Read<CloudJobSchedule>() {
+                    @Override
+                    public CloudJobSchedule read() throws BatchErrorException, IOException {
+                        return readJobSchedule(jobScheduleId, options);
+                    }
+                });
+    }
+
+    private CloudJobSchedule readJobSchedule(final String jobScheduleId, JobScheduleGetOptions options) throws BatchErrorException, IOException {
+        EntityCache cache = this._parentBatchClient.entityCache();
+        if (cache == null || options.ifNoneMatch() != null || options.ifModifiedSince() != null) {
+            return this._parentBatchClient.protocolLayer().jobSchedules().get(jobScheduleId, options);
+        }
+        final JobScheduleGetOptions conditionalOptions = options;
+        return cache.get(EntityCache.key("jobschedules/" + jobScheduleId, options.select(), options.expand()), new EntityCache.ConditionalGet<CloudJobSchedule>() {
+            @Override
+            public EntityCache.Entry<CloudJobSchedule> get(String ifNoneMatch) {
+                ServiceResponseWithHeaders<CloudJobSchedule, JobScheduleGetHeaders> response = _parentBatchClient.protocolLayer().jobSchedules()
+                        .getWithServiceResponseAsync(jobScheduleId, conditionalOptions.withIfNoneMatch(ifNoneMatch)).toBlocking().single();
+                // The ETag of the entity itself stands in for a header lost by an intermediary
+                String eTag = response.headers().eTag() != null ? response.headers().eTag() : response.body().eTag();
+                return new EntityCache.Entry<>(response.body(), eTag);
+            }
+        });
     }
 
     /**
@@ -194,7 +221,7 @@ public class JobScheduleOperations implements IInheritedBehaviors {
      */
     public void patchJobSchedule(String jobScheduleId, Schedule schedule, JobSpecification jobSpecification, List<MetadataItem> metadata, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobSchedulePatchOptions options = new JobSchedulePatchOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         JobSchedulePatchParameter param = new JobSchedulePatchParameter()
@@ -247,7 +274,7 @@ public class JobScheduleOperations implements IInheritedBehaviors {
      */
     public void updateJobSchedule(String jobScheduleId, Schedule schedule, JobSpecification jobSpecification, List<MetadataItem> metadata, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobScheduleUpdateOptions options = new JobScheduleUpdateOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         JobScheduleUpdateParameter param = new JobScheduleUpdateParameter()
@@ -278,7 +305,7 @@ public class JobScheduleOperations implements IInheritedBehaviors {
      */
     public void disableJobSchedule(String jobScheduleId, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobScheduleDisableOptions options = new JobScheduleDisableOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().jobSchedules().disable(jobScheduleId, options);
@@ -305,7 +332,7 @@ public class JobScheduleOperations implements IInheritedBehaviors {
      */
     public void enableJobSchedule(String jobScheduleId, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobScheduleEnableOptions options = new JobScheduleEnableOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().jobSchedules().enable(jobScheduleId, options);
@@ -332,7 +359,7 @@ public class JobScheduleOperations implements IInheritedBehaviors {
      */
     public void terminateJobSchedule(String jobScheduleId, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobScheduleTerminateOptions options = new JobScheduleTerminateOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().jobSchedules().terminate(jobScheduleId, options);
@@ -390,7 +417,7 @@ public class JobScheduleOperations implements IInheritedBehaviors {
      */
     public void createJobSchedule(JobScheduleAddParameter jobSchedule, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobScheduleAddOptions options = new JobScheduleAddOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().jobSchedules().add(jobSchedule, options);
@@ -430,11 +457,48 @@ public class JobScheduleOperations implements IInheritedBehaviors {
      */
     public PagedList<CloudJobSchedule> listJobSchedules(DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         JobScheduleListOptions options = new JobScheduleListOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
         bhMgr.applyRequestBehaviors(options);
 
         return this._parentBatchClient.protocolLayer().jobSchedules().list(options);
     }
 
+    /**
+     * Lists the {@link CloudJobSchedule job schedules} in the Batch account.
+     *
+     * @return A {@link PagedIterator} over {@link CloudJobSchedule} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<CloudJobSchedule> iterateJobSchedules() throws BatchErrorException, IOException {
+        return iterateJobSchedules(null, null);
+    }
+
+    /**
+     * Lists the {@link CloudJobSchedule job schedules} in the Batch account.
+     *
+     * @param detailLevel A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @return A {@link PagedIterator} over {@link CloudJobSchedule} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<CloudJobSchedule> iterateJobSchedules(DetailLevel detailLevel) throws BatchErrorException, IOException {
+        return iterateJobSchedules(detailLevel, null);
+    }
+
+    /**
+     * Lists the {@link CloudJobSchedule job schedules} in the Batch account.
+     *
+     * @param detailLevel A {@link DetailLevel} used for filtering the list and for controlling which properties are retrieved from the service.
+     * @param additionalBehaviors A collection of {@link BatchClientBehavior} instances that are applied to the Batch service request.
+     * @return A {@link PagedIterator} over {@link CloudJobSchedule} objects.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public PagedIterator<CloudJobSchedule> iterateJobSchedules(DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return PagedIterator.create(listJobSchedules(detailLevel, additionalBehaviors), this._parentBatchClient, bhMgr);
+    }
+
 }
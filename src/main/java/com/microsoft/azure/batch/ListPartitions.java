@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.batch.protocol.models.ComputeNodeState;
+import com.microsoft.azure.batch.protocol.models.TaskState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Builds OData $filter clauses splitting the items of a list operation into disjoint partitions
+ * which can be listed concurrently, such as with
+ * {@link TaskOperations#iterateTasksInPartitions(String, List, DetailLevel, Iterable)}.
+ *
+ * Items which match none of the partitions are not listed, and an item which changes between
+ * partitions while they are listed, such as a task changing state, may be listed twice or not at all.
+ */
+public final class ListPartitions {
+
+    private ListPartitions() {
+    }
+
+    /**
+     * Gets partitions of tasks by {@link TaskState}, one per state.
+     *
+     * @return The filter clauses of the partitions.
+     */
+    public static List<String> byTaskState() {
+        List<String> partitions = new ArrayList<>();
+        for (TaskState state : TaskState.values()) {
+            partitions.add(String.format("state eq '%s'", state));
+        }
+        return Collections.unmodifiableList(partitions);
+    }
+
+    /**
+     * Gets partitions of compute nodes by {@link ComputeNodeState}, one per state.
+     *
+     * @return The filter clauses of the partitions.
+     */
+    public static List<String> byComputeNodeState() {
+        List<String> partitions = new ArrayList<>();
+        for (ComputeNodeState state : ComputeNodeState.values()) {
+            partitions.add(String.format("state eq '%s'", state));
+        }
+        return Collections.unmodifiableList(partitions);
+    }
+
+    /**
+     * Gets partitions of items whose IDs are a prefix followed by a decimal number, such as
+     * mytask0 to mytask99999, one per leading digit of the number.
+     *
+     * @param idPrefix The prefix shared by the IDs.
+     * @return The filter clauses of the partitions.
+     */
+    public static List<String> byNumericIdSuffix(String idPrefix) {
+        // Quotes are escaped by doubling them in OData string literals
+        String escaped = idPrefix.replace("'", "''");
+        List<String> partitions = new ArrayList<>();
+        for (char digit = '0'; digit <= '9'; digit++) {
+            partitions.add(String.format("startswith(id, '%s%c')", escaped, digit));
+        }
+        return Collections.unmodifiableList(partitions);
+    }
+
+    /**
+     * Gets the given filter clauses as partitions. The caller ensures they are disjoint.
+     *
+     * @param filterClauses The filter clauses of the partitions.
+     * @return The filter clauses of the partitions.
+     */
+    public static List<String> of(String... filterClauses) {
+        return Collections.unmodifiableList(Arrays.asList(filterClauses));
+    }
+
+    /**
+     * Restricts a detail level to a partition, keeping its select and expand clauses.
+     *
+     * @param detailLevel The detail level of the list operation, or null.
+     * @param partition The filter clause of the partition.
+     * @return The detail level of the partition.
+     */
+    static DetailLevel restrict(DetailLevel detailLevel, String partition) {
+        if (detailLevel == null) {
+            return new DetailLevel.Builder().withFilterClause(partition).build();
+        }
+        String filter = detailLevel.filterClause() == null || detailLevel.filterClause().isEmpty()
+                ? partition
+                : String.format("(%s) and (%s)", detailLevel.filterClause(), partition);
+        return new DetailLevel.Builder()
+                .withFilterClause(filter)
+                .withSelectClause(detailLevel.selectClause())
+                .withExpandClause(detailLevel.expandClause())
+                .build();
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.Page;
+import com.microsoft.azure.PagedList;
+import com.microsoft.azure.batch.interceptor.BatchClientParallelOptions;
+import com.microsoft.azure.batch.interceptor.ListPrefetchOptions;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * An iterator over the items of a list operation which holds only the pages being iterated.
+ *
+ * A {@link PagedList} keeps every page it loads, so iterating a large list keeps all of its items
+ * in memory. This iterator releases each page from the list once its items are iterated, so the
+ * memory used is bounded by the page size however many items the list operation returns. The next
+ * page is requested when the items of the current page are exhausted, or, with
+ * {@link ListPrefetchOptions}, in the background while the current page is iterated.
+ *
+ * Failures to retrieve a page after the first are thrown from {@link #hasNext()} and {@link #next()}
+ * as a {@link com.microsoft.rest.RestException RestException}, such as
+ * {@link com.microsoft.azure.batch.protocol.models.BatchErrorException BatchErrorException}, or as a
+ * {@link RuntimeException} wrapping the {@link java.io.IOException IOException}.
+ *
+ * @param <E> The type of the items.
+ */
+public class PagedIterator<E> implements Iterator<E> {
+    private final PagedList<E> pagedList;
+    private final Executor executor;
+    private final int prefetchDepth;
+    private Iterator<E> items;
+
+    // Guarded by prefetched, only used when prefetching
+    private final Deque<Page<E>> prefetched = new ArrayDeque<>();
+    private boolean fetching;
+    private boolean exhausted;
+    private RuntimeException failure;
+
+    /**
+     * Initializes a new instance of the PagedIterator class, starting at the current page of a list.
+     *
+     * @param pagedList The list whose pages are iterated. The list must not be used while it is iterated,
+     *                  since its items are removed as pages are iterated.
+     */
+    public PagedIterator(PagedList<E> pagedList) {
+        this(pagedList, null, 0);
+    }
+
+    private PagedIterator(PagedList<E> pagedList, Executor executor, int prefetchDepth) {
+        this.pagedList = pagedList;
+        this.executor = executor;
+        this.prefetchDepth = prefetchDepth;
+        this.items = itemsOf(pagedList.currentPage());
+        if (prefetchDepth > 0) {
+            synchronized (prefetched) {
+                startFetching();
+            }
+        }
+    }
+
+    /**
+     * Creates an iterator over a list returned by a list operation, prefetching pages if the
+     * behaviors of the operation include {@link ListPrefetchOptions}.
+     *
+     * @param pagedList The list returned by the operation.
+     * @param client The client which issued the operation.
+     * @param bhMgr The behaviors of the operation.
+     * @param <E> The type of the items.
+     * @return The iterator.
+     */
+    static <E> PagedIterator<E> create(PagedList<E> pagedList, BatchClient client, BehaviorManager bhMgr) {
+        int prefetchDepth = 0;
+        Executor executor = null;
+        for (BatchClientBehavior op : bhMgr.getMasterListOfBehaviors()) {
+            if (op instanceof ListPrefetchOptions) {
+                prefetchDepth = ((ListPrefetchOptions) op).prefetchDepth();
+            } else if (op instanceof BatchClientParallelOptions) {
+                executor = ((BatchClientParallelOptions) op).executorService();
+            }
+        }
+        if (prefetchDepth == 0) {
+            return new PagedIterator<>(pagedList);
+        }
+        return new PagedIterator<>(pagedList, executor != null ? executor : client.executorService(), prefetchDepth);
+    }
+
+    private static <E> Iterator<E> itemsOf(Page<E> page) {
+        List<E> items = page != null ? page.items() : null;
+        return items != null ? items.iterator() : Collections.<E>emptyIterator();
+    }
+
+    /**
+     * Moves the list to its next page, dropping the iterated page from the list first.
+     *
+     * @return The next page, or null if there are no more pages.
+     */
+    private Page<E> loadNextPage() {
+        if (!pagedList.hasNextPage()) {
+            return null;
+        }
+        pagedList.clear();
+        pagedList.loadNextPage();
+        return pagedList.currentPage();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!items.hasNext()) {
+            Page<E> page = prefetchDepth > 0 ? takePrefetchedPage() : loadNextPage();
+            if (page == null) {
+                return false;
+            }
+            items = itemsOf(page);
+        }
+        return true;
+    }
+
+    @Override
+    public E next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return items.next();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Starts fetching the next page in the background if there is room for it. One page is
+     * fetched at a time, since the list is not thread-safe. Must be called while holding the lock.
+     */
+    private void startFetching() {
+        if (fetching || exhausted || failure != null || prefetched.size() >= prefetchDepth) {
+            return;
+        }
+        fetching = true;
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    fetch();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            fetching = false;
+            failure = e;
+        }
+    }
+
+    private void fetch() {
+        Page<E> page = null;
+        RuntimeException error = null;
+        try {
+            page = loadNextPage();
+        } catch (RuntimeException e) {
+            error = e;
+        }
+
+        synchronized (prefetched) {
+            fetching = false;
+            if (error != null) {
+                failure = error;
+            } else if (page == null) {
+                exhausted = true;
+            } else {
+                prefetched.add(page);
+                startFetching();
+            }
+            prefetched.notifyAll();
+        }
+    }
+
+    private Page<E> takePrefetchedPage() {
+        synchronized (prefetched) {
+            boolean interrupted = false;
+            try {
+                while (prefetched.isEmpty() && fetching) {
+                    try {
+                        prefetched.wait();
+                    } catch (InterruptedException e) {
+                        // Iterator methods cannot throw InterruptedException, keep waiting for the page
+                        // in flight and restore the interrupt status.
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            Page<E> page = prefetched.poll();
+            if (page != null) {
+                startFetching();
+                return page;
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return null;
+        }
+    }
+}
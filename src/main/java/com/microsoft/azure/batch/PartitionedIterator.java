@@ -0,0 +1,431 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.Page;
+import com.microsoft.azure.PagedList;
+import com.microsoft.azure.batch.interceptor.BatchClientParallelOptions;
+import com.microsoft.azure.batch.protocol.models.BatchErrorException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * An iterator over the items of a list operation which lists disjoint partitions of the items
+ * concurrently and merges them as they arrive.
+ *
+ * Each partition is a $filter clause combined with the filter of the list operation, see
+ * {@link ListPartitions}, or a parent of the items, such as the pool of compute nodes. Up to the
+ * degree of parallelism set through {@link BatchClientParallelOptions}, or else all of the filter
+ * partitions, are listed at once, each as a sequence of pages. Items are returned in no particular order, and the pages retrieved ahead of
+ * the consumer are bounded by the degree of parallelism. A partition whose next page has no room waits for the consumer without
+ * holding an executor thread, and is resumed as pages are taken, so an iterator which is abandoned holds no threads once the requests
+ * in flight complete.
+ *
+ * Failures to list a partition are thrown from {@link #hasNext()} and {@link #next()} as a
+ * {@link com.microsoft.rest.RestException RestException}, such as {@link BatchErrorException}, or as a
+ * {@link RuntimeException} wrapping the {@link IOException}, and stop the listing of the other
+ * partitions. An iterator which is not iterated to the end must be closed to stop the listing.
+ *
+ * @param <E> The type of the items.
+ */
+public class PartitionedIterator<E> implements Iterator<E>, Closeable {
+
+    /**
+     * Starts the list operation restricted to a partition.
+     *
+     * @param <E> The type of the items.
+     */
+    interface PartitionLister<E> {
+        /**
+         * Lists the items of a partition.
+         *
+         * @param detailLevel The detail level of the list operation restricted to the partition.
+         * @return The first page of the items.
+         * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+         * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+         */
+        PagedList<E> list(DetailLevel detailLevel) throws BatchErrorException, IOException;
+    }
+
+    /**
+     * Starts the list operation of a partition which is not a filter clause, such as the compute nodes of
+     * one pool, and converts its items.
+     *
+     * @param <S> The type of the items of the list operation.
+     * @param <E> The type of the items of the iterator.
+     */
+    interface KeyedPartitionLister<S, E> {
+        /**
+         * Lists the items of a partition.
+         *
+         * @param partition The partition.
+         * @return The first page of the items.
+         * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+         * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+         */
+        PagedList<S> list(String partition) throws BatchErrorException, IOException;
+
+        /**
+         * Converts an item of a partition.
+         *
+         * @param partition The partition.
+         * @param item The item.
+         * @return The converted item.
+         */
+        E convert(String partition, S item);
+
+        /**
+         * Determines whether an error shows that a partition no longer exists, such as a pool deleted
+         * since it was listed. The rest of such a partition is skipped, and the other partitions are
+         * still listed.
+         *
+         * @param partition The partition.
+         * @param e The error of a request for the items of the partition.
+         * @return Whether the rest of the partition is skipped rather than the listing failing.
+         */
+        boolean isRemoved(String partition, BatchErrorException e);
+    }
+
+    /**
+     * The position of a worker in the pages of a partition.
+     *
+     * @param <S> The type of the items of the list operation.
+     */
+    private final class Cursor<S> {
+        private final KeyedPartitionLister<S, E> lister;
+        private final String partition;
+        private PagedList<S> pagedList;
+        private boolean removed;
+
+        Cursor(KeyedPartitionLister<S, E> lister, String partition) {
+            this.lister = lister;
+            this.partition = partition;
+        }
+
+        boolean hasNextPage() {
+            return !removed && (pagedList == null || pagedList.hasNextPage());
+        }
+
+        /**
+         * Retrieves the next page of the partition, dropping the previous one from its list.
+         */
+        List<E> nextPage() throws BatchErrorException, IOException {
+            try {
+                if (pagedList == null) {
+                    pagedList = lister.list(partition);
+                } else {
+                    pagedList.clear();
+                    pagedList.loadNextPage();
+                }
+            } catch (BatchErrorException e) {
+                if (!lister.isRemoved(partition, e)) {
+                    throw e;
+                }
+                removed = true;
+                return null;
+            }
+            return convert(lister, partition, pagedList.currentPage());
+        }
+    }
+
+    private final KeyedPartitionLister<?, E> lister;
+    private final int capacity;
+    private final Executor executor;
+    private Iterator<E> items = Collections.emptyIterator();
+
+    // Guarded by lock
+    private final Object lock = new Object();
+    private final Deque<String> remainingPartitions;
+    private final Deque<List<E>> pages = new ArrayDeque<>();
+    private final Deque<Cursor<?>> suspended = new ArrayDeque<>();
+    private int activeWorkers;
+    private boolean closed;
+    private RuntimeException failure;
+
+    private PartitionedIterator(KeyedPartitionLister<?, E> lister, List<String> partitions, int parallelism, Executor executor) {
+        this.lister = lister;
+        this.capacity = parallelism;
+        this.executor = executor;
+        this.remainingPartitions = new ArrayDeque<>(partitions);
+    }
+
+    /**
+     * Creates an iterator and starts listing the partitions.
+     *
+     * @param lister Starts the list operation restricted to a partition.
+     * @param partitions The filter clauses of the partitions.
+     * @param detailLevel The detail level of the list operation, or null.
+     * @param client The client which issues the operation.
+     * @param bhMgr The behaviors of the operation.
+     * @param <E> The type of the items.
+     * @return The iterator.
+     */
+    static <E> PartitionedIterator<E> create(final PartitionLister<E> lister, List<String> partitions, final DetailLevel detailLevel,
+            BatchClient client, BehaviorManager bhMgr) {
+        if (partitions == null || partitions.isEmpty()) {
+            throw new IllegalArgumentException("partitions");
+        }
+        return create(new KeyedPartitionLister<E, E>() {
+            @Override
+            public PagedList<E> list(String partition) throws BatchErrorException, IOException {
+                return lister.list(ListPartitions.restrict(detailLevel, partition));
+            }
+
+            @Override
+            public E convert(String partition, E item) {
+                return item;
+            }
+
+            @Override
+            public boolean isRemoved(String partition, BatchErrorException e) {
+                return false;
+            }
+        }, partitions, partitions.size(), client, bhMgr);
+    }
+
+    /**
+     * Creates an iterator and starts listing the partitions.
+     *
+     * @param lister Starts the list operation of a partition and converts its items.
+     * @param partitions The partitions.
+     * @param defaultParallelism The number of partitions listed at once when no degree of parallelism is set.
+     * @param client The client which issues the operation.
+     * @param bhMgr The behaviors of the operation.
+     * @param <E> The type of the items.
+     * @return The iterator.
+     */
+    static <E> PartitionedIterator<E> create(KeyedPartitionLister<?, E> lister, List<String> partitions, int defaultParallelism,
+            BatchClient client, BehaviorManager bhMgr) {
+        int parallelism = defaultParallelism;
+        Executor executor = client.executorService();
+        for (BatchClientBehavior op : bhMgr.getMasterListOfBehaviors()) {
+            if (op instanceof BatchClientParallelOptions) {
+                BatchClientParallelOptions parallelOptions = (BatchClientParallelOptions) op;
+                parallelism = parallelOptions.maxDegreeOfParallelism();
+                if (parallelOptions.executorService() != null) {
+                    executor = parallelOptions.executorService();
+                }
+            }
+        }
+        parallelism = Math.max(1, Math.min(parallelism, partitions.size()));
+
+        PartitionedIterator<E> iterator = new PartitionedIterator<>(lister, partitions, parallelism, executor);
+        iterator.start(parallelism);
+        return iterator;
+    }
+
+    private void start(int parallelism) {
+        synchronized (lock) {
+            for (int i = 0; i < parallelism; i++) {
+                try {
+                    executor.execute(worker(null));
+                    activeWorkers++;
+                } catch (RejectedExecutionException e) {
+                    // The partitions are shared by the workers, fewer workers still list all of them
+                    if (activeWorkers == 0) {
+                        failure = e;
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!items.hasNext()) {
+            List<E> page = takePage();
+            if (page == null) {
+                return false;
+            }
+            items = page.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public E next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return items.next();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Stops listing the partitions. Requests in flight complete, but their pages are dropped.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            remainingPartitions.clear();
+            pages.clear();
+            suspended.clear();
+            items = Collections.emptyIterator();
+            lock.notifyAll();
+        }
+    }
+
+    private List<E> takePage() {
+        while (true) {
+            List<E> page;
+            Cursor<?> resumed = null;
+            synchronized (lock) {
+                boolean interrupted = false;
+                try {
+                    while (pages.isEmpty() && activeWorkers > 0 && failure == null && !closed) {
+                        try {
+                            lock.wait();
+                        } catch (InterruptedException e) {
+                            // Iterator methods cannot throw InterruptedException, keep waiting for the pages
+                            // in flight and restore the interrupt status.
+                            interrupted = true;
+                        }
+                    }
+                } finally {
+                    if (interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                if (failure != null) {
+                    closed = true;
+                    remainingPartitions.clear();
+                    pages.clear();
+                    suspended.clear();
+                    throw failure;
+                }
+                page = pages.poll();
+                // The page taken makes room for a suspended worker
+                if (!closed && !suspended.isEmpty() && pages.size() < capacity) {
+                    resumed = suspended.poll();
+                    activeWorkers++;
+                }
+            }
+
+            if (resumed != null) {
+                resume(resumed);
+            }
+            if (page != null || resumed == null) {
+                return page;
+            }
+            // Every worker was suspended, wait for the page of the one resumed
+        }
+    }
+
+    /**
+     * Runs a suspended worker again. It is called without holding the lock.
+     */
+    private void resume(Cursor<?> cursor) {
+        try {
+            executor.execute(worker(cursor));
+        } catch (RejectedExecutionException e) {
+            synchronized (lock) {
+                activeWorkers--;
+                suspended.addFirst(cursor);
+                if (activeWorkers == 0 && pages.isEmpty()) {
+                    // Nothing else would resume the listing
+                    fail(e);
+                }
+            }
+        }
+    }
+
+    private Runnable worker(final Cursor<?> cursor) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                listPages(cursor);
+            }
+        };
+    }
+
+    /**
+     * Retrieves pages, continuing with the next partition once one is listed, until no partition remains
+     * or there is no room for the next page. Run by each worker.
+     *
+     * @param cursor The partition listed by a worker which was suspended, or null for a new worker.
+     */
+    private void listPages(Cursor<?> cursor) {
+        try {
+            while (true) {
+                synchronized (lock) {
+                    if (closed || failure != null) {
+                        return;
+                    }
+                    if (cursor == null || !cursor.hasNextPage()) {
+                        String partition = remainingPartitions.poll();
+                        if (partition == null) {
+                            return;
+                        }
+                        cursor = new Cursor<>(lister, partition);
+                    }
+                    if (pages.size() >= capacity) {
+                        // Resumed by takePage, without holding the thread meanwhile
+                        suspended.add(cursor);
+                        return;
+                    }
+                }
+
+                List<E> page = cursor.nextPage();
+                synchronized (lock) {
+                    if (closed || failure != null) {
+                        return;
+                    }
+                    if (page != null && !page.isEmpty()) {
+                        pages.add(page);
+                        lock.notifyAll();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            fail(new RuntimeException(e));
+        } catch (RuntimeException e) {
+            fail(e);
+        } finally {
+            synchronized (lock) {
+                activeWorkers--;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private static <S, E> List<E> convert(KeyedPartitionLister<S, E> lister, String partition, Page<S> page) {
+        if (page == null || page.items() == null) {
+            return null;
+        }
+        List<E> items = new ArrayList<>(page.items().size());
+        for (S item : page.items()) {
+            items.add(lister.convert(partition, item));
+        }
+        return items;
+    }
+
+    private void fail(RuntimeException e) {
+        synchronized (lock) {
+            if (failure == null && !closed) {
+                failure = e;
+            }
+            lock.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.batch.interceptor.PollIntervalOptions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The intervals between the polls of a method waiting for a state of the Batch service, bounded by
+ * the timeout of the wait.
+ *
+ * The interval starts at the minimum set through {@link PollIntervalOptions}, is halved after a poll
+ * which observed progress, and doubled up to the maximum after one which did not. Waiting for the
+ * next poll is cancelled by interrupting the waiting thread.
+ */
+final class PollSchedule {
+    private static final long DEFAULT_MIN_INTERVAL_IN_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    private static final long DEFAULT_MAX_INTERVAL_IN_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final long minIntervalInMillis;
+    private final long maxIntervalInMillis;
+    private final long deadlineInNanos;
+    private long intervalInMillis;
+    private boolean waited;
+
+    private PollSchedule(long minIntervalInMillis, long maxIntervalInMillis, long timeoutInNanos) {
+        this.minIntervalInMillis = minIntervalInMillis;
+        this.maxIntervalInMillis = maxIntervalInMillis;
+        this.deadlineInNanos = System.nanoTime() + timeoutInNanos;
+        this.intervalInMillis = minIntervalInMillis;
+    }
+
+    /**
+     * Creates the schedule of a wait starting now.
+     *
+     * @param timeout The timeout of the wait.
+     * @param unit The unit of the timeout.
+     * @param bhMgr The behaviors of the operation.
+     * @return The schedule.
+     */
+    static PollSchedule create(long timeout, TimeUnit unit, BehaviorManager bhMgr) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout");
+        }
+        PollIntervalOptions intervals = intervals(bhMgr);
+        return new PollSchedule(intervals.minInterval(TimeUnit.MILLISECONDS), intervals.maxInterval(TimeUnit.MILLISECONDS),
+                unit.toNanos(timeout));
+    }
+
+    /**
+     * Gets the bounds of the poll intervals of an operation.
+     *
+     * @param bhMgr The behaviors of the operation.
+     * @return The {@link PollIntervalOptions} of the behaviors, or the default bounds of 1 and 30 seconds.
+     */
+    static PollIntervalOptions intervals(BehaviorManager bhMgr) {
+        PollIntervalOptions intervals = new PollIntervalOptions(DEFAULT_MIN_INTERVAL_IN_MILLIS, DEFAULT_MAX_INTERVAL_IN_MILLIS,
+                TimeUnit.MILLISECONDS);
+        for (BatchClientBehavior op : bhMgr.getMasterListOfBehaviors()) {
+            if (op instanceof PollIntervalOptions) {
+                intervals = (PollIntervalOptions) op;
+            }
+        }
+        return intervals;
+    }
+
+    /**
+     * Waits for the next poll.
+     *
+     * @param progressed Whether the last poll observed progress towards the awaited state.
+     * @return true once it is time for the next poll, false if the timeout has elapsed.
+     * @throws InterruptedException Exception thrown if the waiting thread is interrupted.
+     */
+    boolean awaitNextPoll(boolean progressed) throws InterruptedException {
+        long remainingInMillis = TimeUnit.NANOSECONDS.toMillis(deadlineInNanos - System.nanoTime());
+        if (remainingInMillis <= 0) {
+            return false;
+        }
+        if (waited) {
+            intervalInMillis = progressed
+                    ? Math.max(minIntervalInMillis, intervalInMillis / 2)
+                    : Math.min(maxIntervalInMillis, intervalInMillis * 2);
+        }
+        waited = true;
+        Thread.sleep(Math.min(intervalInMillis, remainingInMillis));
+        return true;
+    }
+}
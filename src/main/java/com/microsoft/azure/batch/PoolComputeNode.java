@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.batch.protocol.models.ComputeNode;
+
+/**
+ * A compute node together with the ID of its pool, as returned by
+ * {@link ComputeNodeOperations#iterateComputeNodesInAccount(String, DetailLevel, Iterable)}.
+ */
+public class PoolComputeNode {
+    private final String poolId;
+    private final ComputeNode computeNode;
+
+    /**
+     * Initializes a new instance of the PoolComputeNode class.
+     *
+     * @param poolId The ID of the pool.
+     * @param computeNode The compute node.
+     */
+    PoolComputeNode(String poolId, ComputeNode computeNode) {
+        this.poolId = poolId;
+        this.computeNode = computeNode;
+    }
+
+    /**
+     * Gets the ID of the pool containing the compute node.
+     *
+     * @return The pool ID.
+     */
+    public String poolId() {
+        return this.poolId;
+    }
+
+    /**
+     * Gets the compute node.
+     *
+     * @return The compute node, with the properties selected by the detail level of the list operation.
+     */
+    public ComputeNode computeNode() {
+        return this.computeNode;
+    }
+}
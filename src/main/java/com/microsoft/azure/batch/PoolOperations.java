@@ -8,6 +8,7 @@ package com.microsoft.azure.batch;
 
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.batch.protocol.models.*;
+import com.microsoft.rest.ServiceResponseWithHeaders;
 import org.joda.time.DateTime;
 import org.joda.time.Period;
 
@@ -15,6 +16,7 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Performs pool-related operations on an Azure Batch account.
@@ -27,6 +29,10 @@ public class PoolOperations implements IInheritedBehaviors {
         InternalHelper.InheritClientBehaviorsAndSetPublicProperty(this, customBehaviors);
     }
 
+    // The properties of a pool retrieved by each poll of waitForPool
+    private static final String POOL_ALLOCATION_SELECT_CLAUSE =
+            "id,state,allocationState,resizeErrors,currentDedicatedNodes,currentLowPriorityNodes,targetDedicatedNodes,targetLowPriorityNodes";
+
     private Collection<BatchClientBehavior> _customBehaviors;
 
     private final BatchClient _parentBatchClient;
@@ -113,13 +119,72 @@ public class PoolOperations implements IInheritedBehaviors {
             throws BatchErrorException, IOException {
         PoolListOptions options = new PoolListOptions();
 
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
         bhMgr.applyRequestBehaviors(options);
 
         return this._parentBatchClient.protocolLayer().pools().list(options);
     }
 
+    /**
+     * Lists the {@link CloudPool pools} in the Batch account.
+     *
+     * @return A {@link PagedIterator} over {@link CloudPool} objects.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public PagedIterator<CloudPool> iteratePools() throws BatchErrorException, IOException {
+        return iteratePools(null, null);
+    }
+
+    /**
+     * Lists the {@link CloudPool pools} in the Batch account.
+     *
+     * @param detailLevel
+     *            A {@link DetailLevel} used for filtering the list and for
+     *            controlling which properties are retrieved from the service.
+     * @return A {@link PagedIterator} over {@link CloudPool} objects.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public PagedIterator<CloudPool> iteratePools(DetailLevel detailLevel) throws BatchErrorException, IOException {
+        return iteratePools(detailLevel, null);
+    }
+
+    /**
+     * Lists the {@link CloudPool pools} in the Batch account.
+     *
+     * @param detailLevel
+     *            A {@link DetailLevel} used for filtering the list and for
+     *            controlling which properties are retrieved from the service.
+     * @param additionalBehaviors
+     *            A collection of {@link BatchClientBehavior} instances that are
+     *            applied to the Batch service request.
+     * @return A {@link PagedIterator} over {@link CloudPool} objects.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public PagedIterator<CloudPool> iteratePools(DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors)
+            throws BatchErrorException, IOException {
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return PagedIterator.create(listPools(detailLevel, additionalBehaviors), this._parentBatchClient, bhMgr);
+    }
+
     /**
      * Gets the specified {@link CloudPool}.
      *
@@ -182,14 +247,40 @@ public class PoolOperations implements IInheritedBehaviors {
      *             serialization/deserialization of data sent to/received from the
      *             Batch service.
      */
-    public CloudPool getPool(String poolId, DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors)
+    public CloudPool getPool(final String poolId, DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors)
             throws BatchErrorException, IOException {
-        PoolGetOptions options = new PoolGetOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        final PoolGetOptions options = new PoolGetOptions();
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
         bhMgr.applyRequestBehaviors(options);
 
-        return this._parentBatchClient.protocolLayer().pools().get(poolId, options);
+        return SingleFlight.coalesce(this._parentBatchClient, bhMgr,
+                SingleFlight.isConditional(options.ifMatch(), options.ifNoneMatch(), options.ifModifiedSince(), options.ifUnmodifiedSince(), options.ocpDate()),
+                SingleFlight.key("getPool", options.select(), options.expand(), options.timeout(), poolId),
+                new SingleFlight.Read<CloudPool>() {
+                    @Override
+                    public CloudPool read() throws BatchErrorException, IOException {
+                        return readPool(poolId, options);
+                    }
+                });
+    }
+
+    private CloudPool readPool(final String poolId, PoolGetOptions options) throws BatchErrorException, IOException {
+        EntityCache cache = this._parentBatchClient.entityCache();
+        if (cache == null || options.ifNoneMatch() != null || options.ifModifiedSince() != null) {
+            return this._parentBatchClient.protocolLayer().pools().get(poolId, options);
+        }
+        final PoolGetOptions conditionalOptions = options;
+        return cache.get(EntityCache.key("pools/" + poolId, options.select(), options.expand()), new EntityCache.ConditionalGet<CloudPool>() {
+            @Override
+            public EntityCache.Entry<CloudPool> get(String ifNoneMatch) {
+                ServiceResponseWithHeaders<CloudPool, PoolGetHeaders> response = _parentBatchClient.protocolLayer().pools()
+                        .getWithServiceResponseAsync(poolId, conditionalOptions.withIfNoneMatch(ifNoneMatch)).toBlocking().single();
+                // The ETag of the entity itself stands in for a header lost by an intermediary
+                String eTag = response.headers().eTag() != null ? response.headers().eTag() : response.body().eTag();
+                return new EntityCache.Entry<>(response.body(), eTag);
+            }
+        });
     }
 
     /**
@@ -228,7 +319,7 @@ public class PoolOperations implements IInheritedBehaviors {
     public void deletePool(String poolId, Iterable<BatchClientBehavior> additionalBehaviors)
             throws BatchErrorException, IOException {
         PoolDeleteOptions options = new PoolDeleteOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().pools().delete(poolId, options);
@@ -458,7 +549,7 @@ public class PoolOperations implements IInheritedBehaviors {
     public void createPool(PoolAddParameter pool, Iterable<BatchClientBehavior> additionalBehaviors)
             throws BatchErrorException, IOException {
         PoolAddOptions options = new PoolAddOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().pools().add(pool, options);
@@ -573,7 +664,7 @@ public class PoolOperations implements IInheritedBehaviors {
             Period resizeTimeout, ComputeNodeDeallocationOption deallocationOption,
             Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         PoolResizeOptions options = new PoolResizeOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         PoolResizeParameter param = new PoolResizeParameter().withResizeTimeout(resizeTimeout)
@@ -619,7 +710,7 @@ public class PoolOperations implements IInheritedBehaviors {
     public void stopResizePool(String poolId, Iterable<BatchClientBehavior> additionalBehaviors)
             throws BatchErrorException, IOException {
         PoolStopResizeOptions options = new PoolStopResizeOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().pools().stopResize(poolId, options);
@@ -706,7 +797,7 @@ public class PoolOperations implements IInheritedBehaviors {
     public void enableAutoScale(String poolId, String autoScaleFormula, Period autoScaleEvaluationInterval,
             Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         PoolEnableAutoScaleOptions options = new PoolEnableAutoScaleOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         PoolEnableAutoScaleParameter param = new PoolEnableAutoScaleParameter().withAutoScaleFormula(autoScaleFormula)
@@ -751,7 +842,7 @@ public class PoolOperations implements IInheritedBehaviors {
     public void disableAutoScale(String poolId, Iterable<BatchClientBehavior> additionalBehaviors)
             throws BatchErrorException, IOException {
         PoolDisableAutoScaleOptions options = new PoolDisableAutoScaleOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().pools().disableAutoScale(poolId, options);
@@ -804,7 +895,7 @@ public class PoolOperations implements IInheritedBehaviors {
     public AutoScaleRun evaluateAutoScale(String poolId, String autoScaleFormula,
             Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         PoolEvaluateAutoScaleOptions options = new PoolEvaluateAutoScaleOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         return this._parentBatchClient.protocolLayer().pools().evaluateAutoScale(poolId, autoScaleFormula, options);
@@ -983,7 +1074,7 @@ public class PoolOperations implements IInheritedBehaviors {
             ComputeNodeDeallocationOption deallocationOption, Period resizeTimeout,
             Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         PoolRemoveNodesOptions options = new PoolRemoveNodesOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         NodeRemoveParameter param = new NodeRemoveParameter().withNodeList(computeNodeIds)
@@ -1031,12 +1122,133 @@ public class PoolOperations implements IInheritedBehaviors {
             throws BatchErrorException, IOException {
 
         PoolExistsOptions options = new PoolExistsOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         return this._parentBatchClient.protocolLayer().pools().exists(poolId, options);
     }
 
+    /**
+     * Waits for the specified pool to become ready.
+     *
+     * @param poolId
+     *            The ID of the pool.
+     * @param readiness
+     *            The condition which the pool must meet, such as
+     *            {@link PoolReadiness#allocationSteady()} or
+     *            {@link PoolReadiness#nodesReady(double)}.
+     * @param timeout
+     *            The longest time to wait.
+     * @param unit
+     *            The unit of the timeout.
+     * @return true if the pool became ready, false if the timeout elapsed first.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     * @throws InterruptedException
+     *             Exception thrown if the waiting thread is interrupted, which
+     *             cancels the wait.
+     */
+    public boolean waitForPool(String poolId, PoolReadiness readiness, long timeout, TimeUnit unit)
+            throws BatchErrorException, IOException, InterruptedException {
+        return waitForPool(poolId, readiness, timeout, unit, null);
+    }
+
+    /**
+     * Waits for the specified pool to become ready.
+     *
+     * Each poll gets the allocation properties of the pool, namely its id, state, allocationState,
+     * resizeErrors and current and target node counts, and, if the condition needs them, the number of
+     * its nodes in each state through {@link AccountOperations#listPoolNodeCounts(DetailLevel, Iterable)},
+     * which cost the Batch service the same whatever the number of nodes. The interval between polls
+     * shortens while nodes become ready or the allocation state changes, and lengthens otherwise, between
+     * the bounds set through {@link com.microsoft.azure.batch.interceptor.PollIntervalOptions PollIntervalOptions},
+     * by default 1 and 30 seconds.
+     *
+     * A pool which is steady with resize errors and does not meet the condition will not meet it without
+     * another resize, so the wait fails with the first resize error rather than running to its timeout.
+     *
+     * @param poolId
+     *            The ID of the pool.
+     * @param readiness
+     *            The condition which the pool must meet, such as
+     *            {@link PoolReadiness#allocationSteady()} or
+     *            {@link PoolReadiness#nodesReady(double)}.
+     * @param timeout
+     *            The longest time to wait.
+     * @param unit
+     *            The unit of the timeout.
+     * @param additionalBehaviors
+     *            A collection of {@link BatchClientBehavior} instances that are
+     *            applied to the Batch service requests.
+     * @return true if the pool became ready, false if the timeout elapsed first.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service, or when the pool is steady with resize errors
+     *             before it is ready.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     * @throws InterruptedException
+     *             Exception thrown if the waiting thread is interrupted, which
+     *             cancels the wait.
+     */
+    public boolean waitForPool(String poolId, PoolReadiness readiness, long timeout, TimeUnit unit,
+            Iterable<BatchClientBehavior> additionalBehaviors)
+            throws BatchErrorException, IOException, InterruptedException {
+        if (readiness == null) {
+            throw new IllegalArgumentException("readiness");
+        }
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        PollSchedule schedule = PollSchedule.create(timeout, unit, bhMgr);
+        DetailLevel poolDetailLevel = new DetailLevel.Builder()
+                .withSelectClause(POOL_ALLOCATION_SELECT_CLAUSE)
+                .build();
+        DetailLevel nodeCountsDetailLevel = new DetailLevel.Builder()
+                .withFilterClause(String.format("poolId eq '%s'", poolId))
+                .build();
+
+        AllocationState lastAllocationState = null;
+        long lastReadyNodes = -1;
+        do {
+            CloudPool pool = getPool(poolId, poolDetailLevel, additionalBehaviors);
+            PoolNodeCounts nodeCounts = null;
+            if (readiness.needsNodeCounts()) {
+                for (PoolNodeCounts counts : this._parentBatchClient.accountOperations().listPoolNodeCounts(nodeCountsDetailLevel, additionalBehaviors)) {
+                    if (poolId.equals(counts.poolId())) {
+                        nodeCounts = counts;
+                    }
+                }
+                if (nodeCounts == null) {
+                    // A pool without nodes is not listed
+                    nodeCounts = new PoolNodeCounts().withPoolId(poolId).withDedicated(new NodeCounts()).withLowPriority(new NodeCounts());
+                }
+            }
+            if (readiness.isReady(pool, nodeCounts)) {
+                return true;
+            }
+            if (pool.allocationState() == AllocationState.STEADY && pool.resizeErrors() != null && !pool.resizeErrors().isEmpty()) {
+                ResizeError resizeError = pool.resizeErrors().get(0);
+                BatchError error = new BatchError().withCode(resizeError.code())
+                        .withMessage(new ErrorMessage().withValue(resizeError.message()));
+                throw new BatchErrorException(String.format("The pool %s is steady with resize errors: %s", poolId, resizeError.code()),
+                        null, error);
+            }
+            long readyNodes = nodeCounts != null ? PoolReadiness.readyNodes(nodeCounts) : 0;
+            boolean progressed = readyNodes > lastReadyNodes || pool.allocationState() != lastAllocationState;
+            lastReadyNodes = readyNodes;
+            lastAllocationState = pool.allocationState();
+            if (!schedule.awaitNextPoll(progressed)) {
+                return false;
+            }
+        } while (true);
+    }
+
     /**
      * Updates the specified pool. This method fully replaces all the updatable
      * properties of the pool. For example, if the startTask parameter is null and
@@ -1112,7 +1324,7 @@ public class PoolOperations implements IInheritedBehaviors {
             Collection<ApplicationPackageReference> applicationPackageReferences, Collection<MetadataItem> metadata,
             Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         PoolUpdatePropertiesOptions options = new PoolUpdatePropertiesOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         PoolUpdatePropertiesParameter param = new PoolUpdatePropertiesParameter()
@@ -1196,7 +1408,7 @@ public class PoolOperations implements IInheritedBehaviors {
             Collection<ApplicationPackageReference> applicationPackageReferences, Collection<MetadataItem> metadata,
             Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         PoolPatchOptions options = new PoolPatchOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         PoolPatchParameter param = new PoolPatchParameter().withStartTask(startTask);
@@ -1285,13 +1497,87 @@ public class PoolOperations implements IInheritedBehaviors {
             throws BatchErrorException, IOException {
         PoolListUsageMetricsOptions options = new PoolListUsageMetricsOptions().withStartTime(startTime)
                 .withEndTime(endTime);
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
         bhMgr.applyRequestBehaviors(options);
 
         return this._parentBatchClient.protocolLayer().pools().listUsageMetrics(options);
     }
 
+    /**
+     * Lists pool usage metrics.
+     *
+     * @param startTime
+     *            The start time of the aggregation interval covered by this entry.
+     * @param endTime
+     *            The end time of the aggregation interval for this entry.
+     * @return A {@link PagedIterator} over {@link PoolUsageMetrics} objects.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public PagedIterator<PoolUsageMetrics> iteratePoolUsageMetrics(DateTime startTime, DateTime endTime)
+            throws BatchErrorException, IOException {
+        return iteratePoolUsageMetrics(startTime, endTime, null, null);
+    }
+
+    /**
+     * Lists pool usage metrics.
+     *
+     * @param startTime
+     *            The start time of the aggregation interval covered by this entry.
+     * @param endTime
+     *            The end time of the aggregation interval for this entry.
+     * @param detailLevel
+     *            A {@link DetailLevel} used for filtering the list and for
+     *            controlling which properties are retrieved from the service.
+     * @return A {@link PagedIterator} over {@link PoolUsageMetrics} objects.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public PagedIterator<PoolUsageMetrics> iteratePoolUsageMetrics(DateTime startTime, DateTime endTime,
+            DetailLevel detailLevel) throws BatchErrorException, IOException {
+        return iteratePoolUsageMetrics(startTime, endTime, detailLevel, null);
+    }
+
+    /**
+     * Lists pool usage metrics.
+     *
+     * @param startTime
+     *            The start time of the aggregation interval covered by this entry.
+     * @param endTime
+     *            The end time of the aggregation interval for this entry.
+     * @param detailLevel
+     *            A {@link DetailLevel} used for filtering the list and for
+     *            controlling which properties are retrieved from the service.
+     * @param additionalBehaviors
+     *            A collection of {@link BatchClientBehavior} instances that are
+     *            applied to the Batch service request.
+     * @return A {@link PagedIterator} over {@link PoolUsageMetrics} objects.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public PagedIterator<PoolUsageMetrics> iteratePoolUsageMetrics(DateTime startTime, DateTime endTime,
+            DetailLevel detailLevel, Iterable<BatchClientBehavior> additionalBehaviors)
+            throws BatchErrorException, IOException {
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return PagedIterator.create(listPoolUsageMetrics(startTime, endTime, detailLevel, additionalBehaviors), this._parentBatchClient, bhMgr);
+    }
+
     /**
      * Gets lifetime summary statistics for all of the pools in the current account.
      * Statistics are aggregated across all pools that have ever existed in the
@@ -1330,7 +1616,7 @@ public class PoolOperations implements IInheritedBehaviors {
     public PoolStatistics getAllPoolsLifetimeStatistics(Iterable<BatchClientBehavior> additionalBehaviors)
             throws BatchErrorException, IOException {
         PoolGetAllLifetimeStatisticsOptions options = new PoolGetAllLifetimeStatisticsOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         return this._parentBatchClient.protocolLayer().pools().getAllLifetimeStatistics(options);
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.batch.protocol.models.AllocationState;
+import com.microsoft.azure.batch.protocol.models.CloudPool;
+import com.microsoft.azure.batch.protocol.models.NodeCounts;
+import com.microsoft.azure.batch.protocol.models.PoolNodeCounts;
+
+/**
+ * A condition awaited by {@link PoolOperations#waitForPool(String, PoolReadiness, long, java.util.concurrent.TimeUnit, Iterable)}.
+ *
+ * The condition is evaluated against the allocation properties of the pool and, if the condition
+ * needs them, the number of its nodes in each state, which are retrieved from the Batch service on
+ * each poll.
+ */
+public abstract class PoolReadiness {
+
+    /**
+     * Evaluates the condition.
+     *
+     * @param pool The pool, with only its allocation properties, as listed by {@link PoolOperations#waitForPool(String, PoolReadiness, long, java.util.concurrent.TimeUnit, Iterable)}.
+     * @param nodeCounts The number of dedicated and low-priority nodes of the pool in each state, or null if
+     *                   {@link #needsNodeCounts()} is false.
+     * @return true if the pool is ready.
+     */
+    public abstract boolean isReady(CloudPool pool, PoolNodeCounts nodeCounts);
+
+    /**
+     * Gets whether the condition depends on the number of nodes of the pool in each state. A condition which
+     * does not is evaluated without retrieving them, which saves a request to the Batch service per poll.
+     *
+     * @return true if {@link #isReady(CloudPool, PoolNodeCounts)} uses the node counts, which is the default.
+     */
+    public boolean needsNodeCounts() {
+        return true;
+    }
+
+    /**
+     * Gets a condition which holds once the pool is steady, whatever the state of its nodes.
+     *
+     * @return The condition.
+     */
+    public static PoolReadiness allocationSteady() {
+        return new PoolReadiness() {
+            @Override
+            public boolean isReady(CloudPool pool, PoolNodeCounts nodeCounts) {
+                return pool.allocationState() == AllocationState.STEADY;
+            }
+
+            @Override
+            public boolean needsNodeCounts() {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets a condition which holds once a fraction of the target nodes of the pool are idle or running.
+     *
+     * @param fraction The fraction of the target dedicated and low-priority nodes, between 0 and 1.
+     * @return The condition.
+     */
+    public static PoolReadiness nodesReady(final double fraction) {
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("fraction");
+        }
+        return new PoolReadiness() {
+            @Override
+            public boolean isReady(CloudPool pool, PoolNodeCounts nodeCounts) {
+                long targetNodes = valueOf(pool.targetDedicatedNodes()) + valueOf(pool.targetLowPriorityNodes());
+                return readyNodes(nodeCounts) >= Math.ceil(fraction * targetNodes);
+            }
+        };
+    }
+
+    /**
+     * Gets the number of nodes of a pool which can run tasks.
+     *
+     * @param nodeCounts The number of nodes of the pool in each state.
+     * @return The number of idle and running nodes.
+     */
+    static long readyNodes(PoolNodeCounts nodeCounts) {
+        return readyNodes(nodeCounts.dedicated()) + readyNodes(nodeCounts.lowPriority());
+    }
+
+    private static long readyNodes(NodeCounts counts) {
+        return counts != null ? (long) counts.idle() + counts.running() : 0;
+    }
+
+    private static long valueOf(Integer nodes) {
+        return nodes != null ? nodes : 0;
+    }
+}
@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.reflect.TypeToken;
+import com.microsoft.azure.Page;
+import com.microsoft.azure.PagedList;
+import com.microsoft.azure.batch.protocol.BatchServiceClient;
+import com.microsoft.azure.batch.protocol.models.BatchErrorException;
+import com.microsoft.azure.batch.protocol.models.CloudTask;
+import com.microsoft.azure.batch.protocol.models.ComputeNode;
+import com.microsoft.azure.batch.protocol.models.ComputeNodeListOptions;
+import com.microsoft.azure.batch.protocol.models.PageImpl;
+import com.microsoft.azure.batch.protocol.models.TaskListOptions;
+import com.microsoft.rest.DateTimeRfc1123;
+import com.microsoft.rest.serializer.JacksonAdapter;
+import okhttp3.HttpUrl;
+import okhttp3.ResponseBody;
+import org.joda.time.DateTime;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.Headers;
+import retrofit2.http.Streaming;
+import retrofit2.http.Url;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.UUID;
+
+/**
+ * Issues the list operations of the Batch service on the raw response, rather than through the
+ * protocol layer, so that items can be deserialized into summaries, or as they are read from the
+ * response.
+ */
+class RawLists {
+
+    /**
+     * A page of a list operation of the Batch service, returning the response without reading its
+     * body. The page is identified by its full URL, built by {@link RawLists} for the first page and
+     * returned by the service as the next link for the others, so no operation of the protocol layer
+     * is declared again. The calls are executed directly rather than through an Observable, whose
+     * unsubscription would cancel the call while its body is being read.
+     */
+    interface RawListService {
+        @Headers({ "Content-Type: application/json; charset=utf-8", "x-ms-logging-context: com.microsoft.azure.batch.RawLists list" })
+        @GET
+        @Streaming
+        Call<ResponseBody> list(@Url String url, @Header("accept-language") String acceptLanguage, @Header("client-request-id") UUID clientRequestId, @Header("return-client-request-id") Boolean returnClientRequestId, @Header("ocp-date") DateTimeRfc1123 ocpDate, @Header("User-Agent") String userAgent);
+    }
+
+    private final BatchServiceClient client;
+    private final RawListService service;
+
+    RawLists(BatchServiceClient client) {
+        this.client = client;
+        this.service = client.restClient().retrofit().create(RawListService.class);
+    }
+
+    /**
+     * Lists the summaries of the tasks of a job.
+     *
+     * @param jobId The ID of the job.
+     * @param options The options of the request. The select clause is replaced by the properties of the summary.
+     * @return The summaries.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    PagedList<TaskSummary> listTaskSummaries(String jobId, TaskListOptions options) throws BatchErrorException, IOException {
+        Response<ResponseBody> response = requestTasks(jobId, options, TaskSummary.SELECT_CLAUSE, null);
+        return pagedList(response, new TypeToken<PageImpl<TaskSummary>>() { }.getType(),
+                options.clientRequestId(), options.returnClientRequestId(), options.ocpDate());
+    }
+
+    /**
+     * Lists the summaries of the compute nodes of a pool.
+     *
+     * @param poolId The ID of the pool.
+     * @param options The options of the request. The select clause is replaced by the properties of the summary.
+     * @return The summaries.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    PagedList<ComputeNodeSummary> listComputeNodeSummaries(String poolId, ComputeNodeListOptions options) throws BatchErrorException, IOException {
+        Response<ResponseBody> response = requestComputeNodes(poolId, options, ComputeNodeSummary.SELECT_CLAUSE);
+        return pagedList(response, new TypeToken<PageImpl<ComputeNodeSummary>>() { }.getType(),
+                options.clientRequestId(), options.returnClientRequestId(), options.ocpDate());
+    }
+
+    /**
+     * Lists the tasks of a job, deserializing each task as it is read from the response.
+     *
+     * @param jobId The ID of the job.
+     * @param options The options of the request.
+     * @return The tasks.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    StreamingIterator<CloudTask> streamTasks(String jobId, TaskListOptions options) throws BatchErrorException, IOException {
+        Response<ResponseBody> response = requestTasks(jobId, options, options.select(), options.expand());
+        return streamingIterator(response, CloudTask.class, options.clientRequestId(), options.returnClientRequestId(), options.ocpDate());
+    }
+
+    /**
+     * Lists the summaries of the tasks of a job, deserializing each summary as it is read from the response.
+     *
+     * @param jobId The ID of the job.
+     * @param options The options of the request. The select clause is replaced by the properties of the summary.
+     * @return The summaries.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    StreamingIterator<TaskSummary> streamTaskSummaries(String jobId, TaskListOptions options) throws BatchErrorException, IOException {
+        Response<ResponseBody> response = requestTasks(jobId, options, TaskSummary.SELECT_CLAUSE, null);
+        return streamingIterator(response, TaskSummary.class, options.clientRequestId(), options.returnClientRequestId(), options.ocpDate());
+    }
+
+    /**
+     * Lists the compute nodes of a pool, deserializing each node as it is read from the response.
+     *
+     * @param poolId The ID of the pool.
+     * @param options The options of the request.
+     * @return The compute nodes.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    StreamingIterator<ComputeNode> streamComputeNodes(String poolId, ComputeNodeListOptions options) throws BatchErrorException, IOException {
+        Response<ResponseBody> response = requestComputeNodes(poolId, options, options.select());
+        return streamingIterator(response, ComputeNode.class, options.clientRequestId(), options.returnClientRequestId(), options.ocpDate());
+    }
+
+    /**
+     * Lists the summaries of the compute nodes of a pool, deserializing each summary as it is read from the response.
+     *
+     * @param poolId The ID of the pool.
+     * @param options The options of the request. The select clause is replaced by the properties of the summary.
+     * @return The summaries.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    StreamingIterator<ComputeNodeSummary> streamComputeNodeSummaries(String poolId, ComputeNodeListOptions options) throws BatchErrorException, IOException {
+        Response<ResponseBody> response = requestComputeNodes(poolId, options, ComputeNodeSummary.SELECT_CLAUSE);
+        return streamingIterator(response, ComputeNodeSummary.class, options.clientRequestId(), options.returnClientRequestId(), options.ocpDate());
+    }
+
+    private Response<ResponseBody> requestTasks(String jobId, TaskListOptions options, String select, String expand) throws IOException {
+        HttpUrl url = listUrl(options.filter(), select, expand, options.maxResults(), options.timeout())
+                .addPathSegment("jobs").addPathSegment(jobId).addPathSegment("tasks")
+                .build();
+        return request(url.toString(), options.clientRequestId(), options.returnClientRequestId(), options.ocpDate());
+    }
+
+    private Response<ResponseBody> requestComputeNodes(String poolId, ComputeNodeListOptions options, String select) throws IOException {
+        HttpUrl url = listUrl(options.filter(), select, null, options.maxResults(), options.timeout())
+                .addPathSegment("pools").addPathSegment(poolId).addPathSegment("nodes")
+                .build();
+        return request(url.toString(), options.clientRequestId(), options.returnClientRequestId(), options.ocpDate());
+    }
+
+    /**
+     * Builds the URL of the first page of a list operation, with the query parameters the protocol layer sends.
+     */
+    private HttpUrl.Builder listUrl(String filter, String select, String expand, Integer maxResults, Integer timeout) {
+        HttpUrl.Builder url = HttpUrl.parse(client.batchUrl()).newBuilder()
+                .addQueryParameter("api-version", client.apiVersion());
+        addQueryParameter(url, "$filter", filter);
+        addQueryParameter(url, "$select", select);
+        addQueryParameter(url, "$expand", expand);
+        addQueryParameter(url, "maxresults", maxResults);
+        addQueryParameter(url, "timeout", timeout);
+        return url;
+    }
+
+    private static void addQueryParameter(HttpUrl.Builder url, String name, Object value) {
+        if (value != null) {
+            url.addQueryParameter(name, value.toString());
+        }
+    }
+
+    private Response<ResponseBody> request(String url, UUID clientRequestId, Boolean returnClientRequestId, DateTime ocpDate) throws IOException {
+        return service.list(url, client.acceptLanguage(), clientRequestId,
+                returnClientRequestId, rfc1123(ocpDate), client.userAgent()).execute();
+    }
+
+    private <T> PagedList<T> pagedList(Response<ResponseBody> firstResponse, final Type pageType, final UUID clientRequestId,
+            final Boolean returnClientRequestId, final DateTime ocpDate) throws BatchErrorException, IOException {
+        return new PagedList<T>(this.<T>page(firstResponse, pageType)) {
+            @Override
+            public Page<T> nextPage(String nextPageLink) throws BatchErrorException, IOException {
+                return page(request(nextPageLink, clientRequestId, returnClientRequestId, ocpDate), pageType);
+            }
+        };
+    }
+
+    private <T> PageImpl<T> page(Response<ResponseBody> response, Type pageType) throws BatchErrorException, IOException {
+        return client.restClient().responseBuilderFactory().<PageImpl<T>, BatchErrorException>newInstance(client.restClient().serializerAdapter())
+                .register(200, pageType)
+                .registerError(BatchErrorException.class)
+                .build(response)
+                .body();
+    }
+
+    private <T> StreamingIterator<T> streamingIterator(Response<ResponseBody> firstResponse, Class<T> itemClass, final UUID clientRequestId,
+            final Boolean returnClientRequestId, final DateTime ocpDate) throws BatchErrorException, IOException {
+        ObjectMapper mapper = ((JacksonAdapter) client.restClient().serializerAdapter()).serializer();
+        JavaType itemType = mapper.getTypeFactory().constructType(itemClass);
+        return new StreamingIterator<T>(mapper, itemType, checkSuccess(firstResponse)) {
+            @Override
+            Response<ResponseBody> nextPage(String nextPageLink) throws BatchErrorException, IOException {
+                return checkSuccess(request(nextPageLink, clientRequestId, returnClientRequestId, ocpDate));
+            }
+        };
+    }
+
+    /**
+     * Throws the error of a failed response, reading its body.
+     *
+     * @return The response, if successful.
+     */
+    private Response<ResponseBody> checkSuccess(Response<ResponseBody> response) throws BatchErrorException, IOException {
+        if (response.code() != 200) {
+            // Throws the BatchErrorException of the response
+            page(response, new TypeToken<PageImpl<Object>>() { }.getType());
+            throw new BatchErrorException(String.format("Status code %d", response.code()), response);
+        }
+        return response;
+    }
+
+    private static DateTimeRfc1123 rfc1123(DateTime dateTime) {
+        return dateTime != null ? new DateTimeRfc1123(dateTime) : null;
+    }
+}
@@ -0,0 +1,19 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+/**
+ * A property of an entity of the Batch service which can be named in the $select clause of a request.
+ */
+public interface SelectableField {
+    /**
+     * Gets the name of the property in the $select clause.
+     *
+     * @return The name of the property.
+     */
+    String propertyName();
+}
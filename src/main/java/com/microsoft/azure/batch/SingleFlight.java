@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.batch.interceptor.RequestCoalescingOptions;
+import com.microsoft.azure.batch.protocol.models.BatchErrorException;
+import org.joda.time.DateTime;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * The reads in flight through a {@link BatchClient}, which identical concurrent reads enabled through
+ * {@link RequestCoalescingOptions} join instead of sending their own requests.
+ */
+final class SingleFlight {
+
+    /**
+     * A read from the Batch service.
+     *
+     * @param <T> The type of the result.
+     */
+    interface Read<T> {
+        /**
+         * Reads the result.
+         *
+         * @return The result.
+         * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+         * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+         */
+        T read() throws BatchErrorException, IOException;
+    }
+
+    /**
+     * A read in flight, and its outcome once it completes.
+     */
+    private static final class Call {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private Object result;
+        private Throwable error;
+    }
+
+    private final ConcurrentMap<String, Call> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the key of a read.
+     *
+     * @param operation The name of the operation.
+     * @param select The $select clause of the read, or null.
+     * @param expand The $expand clause of the read, or null.
+     * @param timeout The server timeout of the read in seconds, or null.
+     * @param ids The IDs identifying the read entity.
+     * @return The key.
+     */
+    static String key(String operation, String select, String expand, Integer timeout, String... ids) {
+        StringBuilder key = new StringBuilder(operation);
+        for (String id : ids) {
+            key.append('/').append(id);
+        }
+        return key.append("?$select=").append(select != null ? select : "")
+                .append("&$expand=").append(expand != null ? expand : "")
+                .append("&timeout=").append(timeout != null ? timeout.toString() : "")
+                .toString();
+    }
+
+    /**
+     * Gets whether a read must be sent on its own, because it carries request conditions or an ocp-date
+     * header its caller expects the Batch service to evaluate for it.
+     *
+     * @param ifMatch The If-Match header of the read, or null.
+     * @param ifNoneMatch The If-None-Match header of the read, or null.
+     * @param ifModifiedSince The If-Modified-Since header of the read, or null.
+     * @param ifUnmodifiedSince The If-Unmodified-Since header of the read, or null.
+     * @param ocpDate The ocp-date header of the read, or null.
+     * @return Whether the read must not be coalesced.
+     */
+    static boolean isConditional(String ifMatch, String ifNoneMatch, DateTime ifModifiedSince, DateTime ifUnmodifiedSince, DateTime ocpDate) {
+        return ifMatch != null || ifNoneMatch != null || ifModifiedSince != null || ifUnmodifiedSince != null || ocpDate != null;
+    }
+
+    /**
+     * Performs a read, or joins an identical read in flight if the behaviors enable it.
+     *
+     * @param client The client issuing the read.
+     * @param bhMgr The behaviors of the read.
+     * @param conditional Whether the read must be sent on its own, see {@link #isConditional}.
+     * @param key The key of the read.
+     * @param read The read.
+     * @param <T> The type of the result.
+     * @return The result of the read.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    static <T> T coalesce(BatchClient client, BehaviorManager bhMgr, boolean conditional, String key, Read<T> read)
+            throws BatchErrorException, IOException {
+        if (conditional) {
+            return read.read();
+        }
+        for (BatchClientBehavior op : bhMgr.getMasterListOfBehaviors()) {
+            if (op instanceof RequestCoalescingOptions) {
+                return client.singleFlight().execute(key, read);
+            }
+        }
+        return read.read();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T execute(String key, Read<T> read) throws BatchErrorException, IOException {
+        Call call = new Call();
+        Call inFlight = calls.putIfAbsent(key, call);
+        if (inFlight != null) {
+            return (T) await(inFlight);
+        }
+
+        try {
+            call.result = read.read();
+            return (T) call.result;
+        } catch (IOException | RuntimeException | Error e) {
+            call.error = e;
+            throw e;
+        } finally {
+            // Reads issued from now on are sent again, so they observe changes made after this one
+            calls.remove(key, call);
+            call.done.countDown();
+        }
+    }
+
+    private static Object await(Call call) throws IOException {
+        try {
+            call.done.await();
+        } catch (InterruptedException e) {
+            // As an interrupted request would, without waiting for the read of another thread
+            Thread.currentThread().interrupt();
+            InterruptedIOException interrupted = new InterruptedIOException("Interrupted while waiting for a coalesced read.");
+            interrupted.initCause(e);
+            throw interrupted;
+        }
+        if (call.error instanceof IOException) {
+            throw (IOException) call.error;
+        }
+        if (call.error instanceof RuntimeException) {
+            throw (RuntimeException) call.error;
+        }
+        if (call.error instanceof Error) {
+            throw (Error) call.error;
+        }
+        return call.result;
+    }
+}
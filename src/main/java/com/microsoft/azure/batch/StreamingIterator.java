@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.azure.batch.protocol.models.BatchErrorException;
+import okhttp3.ResponseBody;
+import retrofit2.Response;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An iterator over the items of a list operation which deserializes each item as it is read
+ * from the response.
+ *
+ * Unlike a {@link com.microsoft.azure.PagedList PagedList}, which deserializes a whole page of up to
+ * a thousand items before the first of them is returned, the iterator returns an item as soon as it
+ * is read, and holds a single item and the read buffer of the response at a time. The next page is
+ * requested when the items of the current page are exhausted. The response being read keeps a
+ * connection to the Batch service, so an iterator which is not iterated to the end must be closed.
+ *
+ * Failures to retrieve or read a page after the first are thrown from {@link #hasNext()} and
+ * {@link #next()} as a {@link com.microsoft.rest.RestException RestException}, such as
+ * {@link BatchErrorException}, or as a {@link RuntimeException} wrapping the {@link IOException}.
+ *
+ * @param <E> The type of the items.
+ */
+public abstract class StreamingIterator<E> implements Iterator<E>, Closeable {
+    private static final String VALUE_FIELD = "value";
+    private static final String NEXT_LINK_FIELD = "odata.nextLink";
+
+    private final ObjectMapper mapper;
+    private final JavaType itemType;
+    private ResponseBody body;
+    private JsonParser parser;
+    private boolean inItems;
+    private String nextPageLink;
+    private E nextItem;
+    private boolean closed;
+
+    /**
+     * Initializes a new instance of the StreamingIterator class, positioned before the first item of a page.
+     *
+     * @param mapper The mapper deserializing the items.
+     * @param itemType The type of the items.
+     * @param firstResponse The successful response of the list operation.
+     * @throws IOException Exception thrown when the response cannot be read.
+     */
+    StreamingIterator(ObjectMapper mapper, JavaType itemType, Response<ResponseBody> firstResponse) throws IOException {
+        this.mapper = mapper;
+        this.itemType = itemType;
+        open(firstResponse);
+    }
+
+    /**
+     * Requests the next page of the list operation.
+     *
+     * @param nextPageLink The link to the page.
+     * @return The successful response.
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when the response cannot be read.
+     */
+    abstract Response<ResponseBody> nextPage(String nextPageLink) throws BatchErrorException, IOException;
+
+    /**
+     * Reads a page up to its first item, or to its end if it has no items.
+     */
+    private void open(Response<ResponseBody> response) throws IOException {
+        body = response.body();
+        try {
+            parser = mapper.getFactory().createParser(body.byteStream());
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("The response of the list operation is not a JSON object.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (VALUE_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                    inItems = true;
+                    return;
+                }
+                readField(field);
+            }
+            closePage();
+        } catch (IOException | RuntimeException e) {
+            closePage();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the value of a field other than the items, keeping the link to the next page.
+     */
+    private void readField(String field) throws IOException {
+        if (NEXT_LINK_FIELD.equals(field)) {
+            nextPageLink = parser.getValueAsString();
+        } else {
+            parser.skipChildren();
+        }
+    }
+
+    private void closePage() {
+        inItems = false;
+        try {
+            if (parser != null) {
+                parser.close();
+            }
+        } catch (IOException e) {
+            // The response is discarded
+        } finally {
+            parser = null;
+            if (body != null) {
+                body.close();
+                body = null;
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextItem != null) {
+            return true;
+        }
+        try {
+            while (!closed) {
+                if (parser == null) {
+                    if (nextPageLink == null) {
+                        return false;
+                    }
+                    String link = nextPageLink;
+                    nextPageLink = null;
+                    open(nextPage(link));
+                    continue;
+                }
+                if (inItems) {
+                    if (parser.nextToken() == JsonToken.START_OBJECT) {
+                        nextItem = mapper.readValue(parser, itemType);
+                        return true;
+                    }
+                    // The end of the items, the link to the next page may follow them
+                    inItems = false;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.getCurrentName();
+                        parser.nextToken();
+                        readField(field);
+                    }
+                }
+                closePage();
+            }
+            return false;
+        } catch (IOException e) {
+            close();
+            throw new RuntimeException(e);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public E next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        E item = nextItem;
+        nextItem = null;
+        return item;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Releases the response being read. Later pages are not requested.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        nextItem = null;
+        nextPageLink = null;
+        closePage();
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.batch.protocol.models.CloudTask;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The position of a client in the state changes of the tasks of a job, used by
+ * {@link TaskOperations#listTaskChanges(TaskChangeCursor, Iterable)} to list only the tasks which
+ * changed state since the previous call.
+ *
+ * The cursor keeps the latest state transition time seen, its high-water mark, and requests the
+ * tasks whose state transition time is no earlier than the high-water mark less an overlap window.
+ * The overlap covers state changes which become visible to list operations after later ones, and
+ * the tasks seen within the window are remembered by ID and state transition time, so that a task
+ * listed again without a new state change, including one tying on the high-water mark, is not
+ * returned twice. The first call lists every task of the job.
+ *
+ * The cost of a call grows with the number of tasks changing state within the overlap window and
+ * since the previous call, not with the number of tasks of the job. Deleted tasks are not reported.
+ * A cursor is not thread-safe.
+ */
+public class TaskChangeCursor {
+    // The overlap window of the cursors created for callers which do not choose one
+    static final long DEFAULT_OVERLAP_IN_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final String jobId;
+    private final DetailLevel detailLevel;
+    private final long overlapInMillis;
+    private DateTime highWaterMark;
+    private final Map<String, DateTime> recentTransitions = new HashMap<>();
+
+    /**
+     * Initializes a new instance of the TaskChangeCursor class, with an overlap window of 30 seconds.
+     *
+     * @param jobId The ID of the job.
+     */
+    public TaskChangeCursor(String jobId) {
+        this(jobId, null, DEFAULT_OVERLAP_IN_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Initializes a new instance of the TaskChangeCursor class.
+     *
+     * @param jobId The ID of the job.
+     * @param detailLevel A {@link DetailLevel} used for filtering the tasks and for controlling which properties
+     *                    are retrieved from the service, or null. The ID and state transition time are always retrieved.
+     * @param overlap The overlap window. A longer window tolerates later visibility of state changes, at the cost
+     *                of listing again the tasks which changed within it.
+     * @param unit The unit of the overlap window.
+     */
+    public TaskChangeCursor(String jobId, DetailLevel detailLevel, long overlap, TimeUnit unit) {
+        if (jobId == null) {
+            throw new IllegalArgumentException("jobId");
+        }
+        if (overlap < 0) {
+            throw new IllegalArgumentException("overlap");
+        }
+        this.jobId = jobId;
+        this.detailLevel = withRequiredFields(detailLevel);
+        this.overlapInMillis = unit.toMillis(overlap);
+    }
+
+    private static DetailLevel withRequiredFields(DetailLevel detailLevel) {
+        if (detailLevel == null || detailLevel.selectClause() == null || detailLevel.selectClause().isEmpty()) {
+            return detailLevel;
+        }
+        StringBuilder select = new StringBuilder(detailLevel.selectClause());
+        for (TaskField field : new TaskField[] { TaskField.ID, TaskField.STATE_TRANSITION_TIME }) {
+            if (!selects(detailLevel.selectClause(), field)) {
+                select.append(',').append(field.propertyName());
+            }
+        }
+        return new DetailLevel.Builder()
+                .withFilterClause(detailLevel.filterClause())
+                .withSelectClause(select.toString())
+                .withExpandClause(detailLevel.expandClause())
+                .build();
+    }
+
+    private static boolean selects(String selectClause, SelectableField field) {
+        for (String property : selectClause.split(",")) {
+            if (property.trim().equals(field.propertyName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the ID of the job.
+     *
+     * @return The job ID.
+     */
+    public String jobId() {
+        return this.jobId;
+    }
+
+    /**
+     * Gets the latest state transition time seen by the cursor.
+     *
+     * @return The high-water mark, or null if no task was listed yet.
+     */
+    public DateTime highWaterMark() {
+        return this.highWaterMark;
+    }
+
+    /**
+     * Gets the detail level of the next list operation.
+     *
+     * @return The detail level, restricted to the tasks which changed state since the high-water mark less the overlap.
+     */
+    DetailLevel nextDetailLevel() {
+        if (highWaterMark == null) {
+            return detailLevel;
+        }
+        return ListPartitions.restrict(detailLevel,
+                String.format("stateTransitionTime ge datetime'%s'", format(overlapStart(highWaterMark))));
+    }
+
+    /**
+     * Advances the cursor past the listed tasks.
+     *
+     * @param listedTasks The tasks returned by the list operation of {@link #nextDetailLevel()}.
+     * @return The listed tasks which were not returned by a previous call with the same state transition time.
+     */
+    List<CloudTask> advance(Iterator<CloudTask> listedTasks) {
+        // Read every page before changing the cursor, so a failed list operation leaves it unchanged
+        List<CloudTask> tasks = new ArrayList<>();
+        while (listedTasks.hasNext()) {
+            tasks.add(listedTasks.next());
+        }
+
+        List<CloudTask> changedTasks = new ArrayList<>();
+        for (CloudTask task : tasks) {
+            DateTime transitionTime = task.stateTransitionTime();
+            if (transitionTime != null) {
+                DateTime seen = recentTransitions.get(task.id());
+                if (seen != null && !transitionTime.isAfter(seen)) {
+                    continue;
+                }
+                recentTransitions.put(task.id(), transitionTime);
+                if (highWaterMark == null || transitionTime.isAfter(highWaterMark)) {
+                    highWaterMark = transitionTime;
+                }
+            }
+            changedTasks.add(task);
+        }
+
+        // Transitions before the overlap window are not listed again
+        if (highWaterMark != null) {
+            DateTime windowStart = overlapStart(highWaterMark);
+            Iterator<DateTime> iterator = recentTransitions.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isBefore(windowStart)) {
+                    iterator.remove();
+                }
+            }
+        }
+        return changedTasks;
+    }
+
+    private DateTime overlapStart(DateTime time) {
+        return time.minus(overlapInMillis);
+    }
+
+    private static String format(DateTime time) {
+        return time.withZone(DateTimeZone.UTC).toString("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+/**
+ * The properties of a {@link com.microsoft.azure.batch.protocol.models.CloudTask CloudTask} which can be selected
+ * through {@link DetailLevel.Builder#withSelectFields(SelectableField...)}.
+ */
+public enum TaskField implements SelectableField {
+    /**
+     * The {@code id} property.
+     */
+    ID("id"),
+
+    /**
+     * The {@code displayName} property.
+     */
+    DISPLAY_NAME("displayName"),
+
+    /**
+     * The {@code url} property.
+     */
+    URL("url"),
+
+    /**
+     * The {@code eTag} property.
+     */
+    E_TAG("eTag"),
+
+    /**
+     * The {@code lastModified} property.
+     */
+    LAST_MODIFIED("lastModified"),
+
+    /**
+     * The {@code creationTime} property.
+     */
+    CREATION_TIME("creationTime"),
+
+    /**
+     * The {@code exitConditions} property.
+     */
+    EXIT_CONDITIONS("exitConditions"),
+
+    /**
+     * The {@code state} property.
+     */
+    STATE("state"),
+
+    /**
+     * The {@code stateTransitionTime} property.
+     */
+    STATE_TRANSITION_TIME("stateTransitionTime"),
+
+    /**
+     * The {@code previousState} property.
+     */
+    PREVIOUS_STATE("previousState"),
+
+    /**
+     * The {@code previousStateTransitionTime} property.
+     */
+    PREVIOUS_STATE_TRANSITION_TIME("previousStateTransitionTime"),
+
+    /**
+     * The {@code commandLine} property.
+     */
+    COMMAND_LINE("commandLine"),
+
+    /**
+     * The {@code containerSettings} property.
+     */
+    CONTAINER_SETTINGS("containerSettings"),
+
+    /**
+     * The {@code resourceFiles} property.
+     */
+    RESOURCE_FILES("resourceFiles"),
+
+    /**
+     * The {@code outputFiles} property.
+     */
+    OUTPUT_FILES("outputFiles"),
+
+    /**
+     * The {@code environmentSettings} property.
+     */
+    ENVIRONMENT_SETTINGS("environmentSettings"),
+
+    /**
+     * The {@code affinityInfo} property.
+     */
+    AFFINITY_INFO("affinityInfo"),
+
+    /**
+     * The {@code constraints} property.
+     */
+    CONSTRAINTS("constraints"),
+
+    /**
+     * The {@code userIdentity} property.
+     */
+    USER_IDENTITY("userIdentity"),
+
+    /**
+     * The {@code executionInfo} property.
+     */
+    EXECUTION_INFO("executionInfo"),
+
+    /**
+     * The {@code nodeInfo} property.
+     */
+    NODE_INFO("nodeInfo"),
+
+    /**
+     * The {@code multiInstanceSettings} property.
+     */
+    MULTI_INSTANCE_SETTINGS("multiInstanceSettings"),
+
+    /**
+     * The {@code stats} property.
+     */
+    STATS("stats"),
+
+    /**
+     * The {@code dependsOn} property.
+     */
+    DEPENDS_ON("dependsOn"),
+
+    /**
+     * The {@code applicationPackageReferences} property.
+     */
+    APPLICATION_PACKAGE_REFERENCES("applicationPackageReferences"),
+
+    /**
+     * The {@code authenticationTokenSettings} property.
+     */
+    AUTHENTICATION_TOKEN_SETTINGS("authenticationTokenSettings");
+
+    private final String propertyName;
+
+    TaskField(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    @Override
+    public String propertyName() {
+        return this.propertyName;
+    }
+}
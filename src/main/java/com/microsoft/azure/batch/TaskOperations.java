@@ -8,18 +8,25 @@ package com.microsoft.azure.batch;
 
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.batch.interceptor.BatchClientParallelOptions;
+import com.microsoft.azure.batch.interceptor.BulkAddOptions;
 import com.microsoft.azure.batch.protocol.models.*;
+import com.microsoft.rest.ServiceCallback;
+import com.microsoft.rest.ServiceFuture;
+import com.microsoft.rest.ServiceResponseWithHeaders;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Performs task-related operations on an Azure Batch account.
  */
 public class TaskOperations implements IInheritedBehaviors {
+    // The outstanding tasks are listed once their IDs fit in a page
+    private static final int OUTSTANDING_TASKS_LISTED = 1000;
+
     TaskOperations(BatchClient batchClient, Collection<BatchClientBehavior> customBehaviors) {
         _parentBatchClient = batchClient;
 
@@ -96,7 +103,7 @@ public class TaskOperations implements IInheritedBehaviors {
     public void createTask(String jobId, TaskAddParameter taskToAdd, Iterable<BatchClientBehavior> additionalBehaviors)
             throws BatchErrorException, IOException {
         TaskAddOptions options = new TaskAddOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().tasks().add(jobId, taskToAdd, options);
@@ -121,127 +128,6 @@ public class TaskOperations implements IInheritedBehaviors {
         createTasks(jobId, taskList, null);
     }
 
-    private static class WorkingThread implements Runnable {
-        final static int MAX_TASKS_PER_REQUEST = 100;
-        private static final AtomicInteger currentMaxTasks = new AtomicInteger(MAX_TASKS_PER_REQUEST);
-
-        BatchClient client;
-        BehaviorManager bhMgr;
-        String jobId;
-        Queue<TaskAddParameter> pendingList;
-        List<TaskAddResult> failures;
-        volatile Exception exception;
-        final Object lock;
-
-        WorkingThread(BatchClient client, BehaviorManager bhMgr, String jobId, Queue<TaskAddParameter> pendingList,
-                List<TaskAddResult> failures, Object lock) {
-            this.client = client;
-            this.bhMgr = bhMgr;
-            this.jobId = jobId;
-            this.pendingList = pendingList;
-            this.failures = failures;
-            this.exception = null;
-            this.lock = lock;
-        }
-
-        public Exception getException() {
-            return this.exception;
-        }
-
-        /**
-         * Submits one chunk of tasks to a job.
-         * 
-         * @param taskList
-         *            A list of {@link TaskAddParameter tasks} to add.
-         */
-        private void submit_chunk(List<TaskAddParameter> taskList) {
-            // The option should be different to every server calls (for example,
-            // client-request-id)
-            TaskAddCollectionOptions options = new TaskAddCollectionOptions();
-            this.bhMgr.applyRequestBehaviors(options);
-            try {
-                TaskAddCollectionResult response = this.client.protocolLayer().tasks().addCollection(this.jobId,
-                        taskList, options);
-
-                if (response != null && response.value() != null) {
-                    for (TaskAddResult result : response.value()) {
-                        if (result.error() != null) {
-                            if (result.status() == TaskAddStatus.SERVER_ERROR) {
-                                // Server error will be retried
-                                for (TaskAddParameter addParameter : taskList) {
-                                    if (addParameter.id().equals(result.taskId())) {
-                                        pendingList.add(addParameter);
-                                        break;
-                                    }
-                                }
-                            } else if (result.status() == TaskAddStatus.CLIENT_ERROR
-                                    && !result.error().code().equals(BatchErrorCodeStrings.TaskExists)) {
-                                // Client error will be recorded
-                                failures.add(result);
-                            }
-                        }
-                    }
-                }
-            } catch (BatchErrorException e) {
-                // If we get RequestBodyTooLarge could be that we chunked the tasks too large.
-                // Try decreasing the size unless caused by 1 task.
-                if (e.body().code().equals(BatchErrorCodeStrings.RequestBodyTooLarge) && taskList.size() > 1) {
-                    // Use binary reduction to decrease size of submitted chunks
-                    int midpoint = taskList.size() / 2;
-                    // If the midpoint is less than the currentMaxTasks used to create new chunks,
-                    // attempt to atomically reduce currentMaxTasks.
-                    // In the case where compareAndSet fails, that means that currentMaxTasks which
-                    // was the goal
-                    int max = currentMaxTasks.get();
-                    while (midpoint < max) {
-                        currentMaxTasks.compareAndSet(max, midpoint);
-                        max = currentMaxTasks.get();
-                    }
-                    // Resubmit chunk as a smaller list and requeue remaining tasks.
-                    pendingList.addAll(taskList.subList(midpoint, taskList.size()));
-                    submit_chunk(taskList.subList(0, midpoint));
-                } else {
-                    // Any exception will stop further call
-                    exception = e;
-                    pendingList.addAll(taskList);
-                }
-            } catch (RuntimeException e) {
-                // Any exception will stop further call
-                exception = e;
-                pendingList.addAll(taskList);
-            }
-        }
-
-        @Override
-        public void run() {
-            try {
-                List<TaskAddParameter> taskList = new LinkedList<>();
-
-                // Take the task from the queue up to MAX_TASKS_PER_REQUEST
-                int count = 0;
-                int maxAmount = currentMaxTasks.get();
-                while (count < maxAmount) {
-                    TaskAddParameter param = pendingList.poll();
-                    if (param != null) {
-                        taskList.add(param);
-                        count++;
-                    } else {
-                        break;
-                    }
-                }
-
-                if (taskList.size() > 0) {
-                    submit_chunk(taskList);
-                }
-            } finally {
-                synchronized (lock) {
-                    // Notify main thread that sub thread finished
-                    lock.notify();
-                }
-            }
-        }
-    }
-
     /**
      * Adds multiple tasks to a job.
      *
@@ -261,103 +147,311 @@ public class TaskOperations implements IInheritedBehaviors {
      */
     public void createTasks(String jobId, List<TaskAddParameter> taskList,
             Iterable<BatchClientBehavior> additionalBehaviors) throws RuntimeException, InterruptedException {
+        BulkAddResult result = createTasks(jobId, taskList.iterator(), true, additionalBehaviors);
 
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        // With BulkAddOptions.continueOnError every task has been tried, report the failed ones.
+        if (result.tasksFailed() > 0) {
+            throw new CreateTasksErrorException("At least one task failed to be added.", result.failures(),
+                    new ArrayList<TaskAddParameter>());
+        }
+    }
 
-        // Default thread number is 1
-        int threadNumber = 1;
+    /**
+     * Adds multiple tasks to a job, reading them from an iterator as they are submitted.
+     *
+     * Tasks are read from the iterator only when a request is about to be sent, so the
+     * number of tasks held in memory depends on the degree of parallelism rather than on
+     * the total number of tasks.
+     *
+     * @param jobId
+     *            The ID of the job to which to add the task.
+     * @param tasks
+     *            An iterator over the {@link TaskAddParameter tasks} to add. The
+     *            iterator does not need to be thread-safe, but it may be called
+     *            from worker threads.
+     * @return A {@link BulkAddResult} describing the completed operation.
+     * @throws RuntimeException
+     *             Exception thrown when an error response is received from the
+     *             Batch service or any network exception.
+     * @throws InterruptedException
+     *             Exception thrown if any thread has interrupted the current
+     *             thread.
+     */
+    public BulkAddResult createTasks(String jobId, Iterator<TaskAddParameter> tasks)
+            throws RuntimeException, InterruptedException {
+        return createTasks(jobId, tasks, null);
+    }
 
-        // Get user defined thread number
-        for (BatchClientBehavior op : bhMgr.getMasterListOfBehaviors()) {
-            if (op instanceof BatchClientParallelOptions) {
-                threadNumber = ((BatchClientParallelOptions) op).maxDegreeOfParallelism();
-            }
+    /**
+     * Adds multiple tasks to a job, reading them from an iterator as they are submitted.
+     *
+     * Tasks are read from the iterator only when a request is about to be sent, so the
+     * number of tasks held in memory depends on the degree of parallelism rather than on
+     * the total number of tasks. If a {@link CreateTasksErrorException} is thrown, its
+     * pending task list does not include the tasks that were not yet read from the
+     * iterator. When {@link BulkAddOptions#continueOnError()} is set, failed tasks are
+     * reported in the returned {@link BulkAddResult} instead.
+     *
+     * @param jobId
+     *            The ID of the job to which to add the task.
+     * @param tasks
+     *            An iterator over the {@link TaskAddParameter tasks} to add. The
+     *            iterator does not need to be thread-safe, but it may be called
+     *            from worker threads.
+     * @param additionalBehaviors
+     *            A collection of {@link BatchClientBehavior} instances that are
+     *            applied to the Batch service request.
+     * @return A {@link BulkAddResult} describing the completed operation.
+     * @throws RuntimeException
+     *             Exception thrown when an error response is received from the
+     *             Batch service or any network exception.
+     * @throws InterruptedException
+     *             Exception thrown if any thread has interrupted the current
+     *             thread.
+     */
+    public BulkAddResult createTasks(String jobId, Iterator<TaskAddParameter> tasks,
+            Iterable<BatchClientBehavior> additionalBehaviors) throws RuntimeException, InterruptedException {
+        return createTasks(jobId, tasks, false, additionalBehaviors);
+    }
+
+    private BulkAddResult createTasks(String jobId, Iterator<TaskAddParameter> tasks, boolean reportUnreadTasks,
+            Iterable<BatchClientBehavior> additionalBehaviors) throws RuntimeException, InterruptedException {
+        BulkTaskSubmitter submitter = newBulkTaskSubmitter(jobId, tasks, reportUnreadTasks, additionalBehaviors,
+                null, null);
+
+        try {
+            return submitter.start().get();
+        } catch (InterruptedException e) {
+            // Stop scheduling further chunks, chunks already in flight are left to finish.
+            submitter.stop(e);
+            throw e;
+        } catch (ExecutionException e) {
+            // BulkTaskSubmitter only completes exceptionally with a BatchErrorException or a
+            // RuntimeException, making the cast safe.
+            throw (RuntimeException) e.getCause();
         }
+    }
 
-        final Object lock = new Object();
-        ConcurrentLinkedQueue<TaskAddParameter> pendingList = new ConcurrentLinkedQueue<>(taskList);
-        CopyOnWriteArrayList<TaskAddResult> failures = new CopyOnWriteArrayList<>();
-
-        Map<Thread, WorkingThread> threads = new HashMap<>();
-        Exception innerException = null;
-
-        synchronized (lock) {
-            while (!pendingList.isEmpty()) {
-
-                if (threads.size() < threadNumber) {
-                    // Kick as many as possible add tasks requests by max allowed threads
-                    WorkingThread worker = new WorkingThread(this._parentBatchClient, bhMgr, jobId, pendingList,
-                            failures, lock);
-                    Thread thread = new Thread(worker);
-                    thread.start();
-                    threads.put(thread, worker);
-                } else {
-                    // Wait for any thread to finish
-                    lock.wait();
-
-                    List<Thread> finishedThreads = new ArrayList<>();
-                    for (Thread t : threads.keySet()) {
-                        if (t.getState() == Thread.State.TERMINATED) {
-                            finishedThreads.add(t);
-                            // If any exception is encountered, then stop immediately without waiting for
-                            // remaining active threads.
-                            innerException = threads.get(t).getException();
-                            if (innerException != null) {
-                                break;
-                            }
-                        }
-                    }
+    /**
+     * Adds multiple tasks to a job without blocking the calling thread.
+     *
+     * @param jobId
+     *            The ID of the job to which to add the task.
+     * @param taskList
+     *            A list of {@link TaskAddParameter tasks} to add.
+     * @param additionalBehaviors
+     *            A collection of {@link BatchClientBehavior} instances that are
+     *            applied to the Batch service request.
+     * @return A {@link ServiceFuture} which completes with a {@link BulkAddResult}
+     *         once every task is added, or fails with the exception that
+     *         terminated the operation. Cancelling the future stops sending
+     *         further requests.
+     */
+    public ServiceFuture<BulkAddResult> createTasksAsync(String jobId, List<TaskAddParameter> taskList,
+            Iterable<BatchClientBehavior> additionalBehaviors) {
+        return createTasksAsync(jobId, taskList, additionalBehaviors, null, null);
+    }
+
+    /**
+     * Adds multiple tasks to a job without blocking the calling thread.
+     *
+     * @param jobId
+     *            The ID of the job to which to add the task.
+     * @param taskList
+     *            A list of {@link TaskAddParameter tasks} to add.
+     * @param additionalBehaviors
+     *            A collection of {@link BatchClientBehavior} instances that are
+     *            applied to the Batch service request.
+     * @param progressListener
+     *            A {@link BulkAddProgressListener} notified after each request
+     *            completes, or null.
+     * @param serviceCallback
+     *            The callback invoked when the operation completes, or null.
+     * @return A {@link ServiceFuture} which completes with a {@link BulkAddResult}
+     *         once every task is added, or fails with the exception that
+     *         terminated the operation. Cancelling the future stops sending
+     *         further requests.
+     */
+    public ServiceFuture<BulkAddResult> createTasksAsync(String jobId, List<TaskAddParameter> taskList,
+            Iterable<BatchClientBehavior> additionalBehaviors, BulkAddProgressListener progressListener,
+            ServiceCallback<BulkAddResult> serviceCallback) {
+        return newBulkTaskSubmitter(jobId, taskList.iterator(), true, additionalBehaviors, progressListener,
+                serviceCallback).start();
+    }
+
+    /**
+     * Adds multiple tasks to a job without blocking the calling thread, reading them
+     * from an iterator as they are submitted.
+     *
+     * @param jobId
+     *            The ID of the job to which to add the task.
+     * @param tasks
+     *            An iterator over the {@link TaskAddParameter tasks} to add. The
+     *            iterator does not need to be thread-safe, but it may be called
+     *            from worker threads.
+     * @param additionalBehaviors
+     *            A collection of {@link BatchClientBehavior} instances that are
+     *            applied to the Batch service request.
+     * @return A {@link ServiceFuture} which completes with a {@link BulkAddResult}
+     *         once every task is added, or fails with the exception that
+     *         terminated the operation. Cancelling the future stops sending
+     *         further requests.
+     */
+    public ServiceFuture<BulkAddResult> createTasksAsync(String jobId, Iterator<TaskAddParameter> tasks,
+            Iterable<BatchClientBehavior> additionalBehaviors) {
+        return createTasksAsync(jobId, tasks, additionalBehaviors, null, null);
+    }
+
+    /**
+     * Adds multiple tasks to a job without blocking the calling thread, reading them
+     * from an iterator as they are submitted.
+     *
+     * @param jobId
+     *            The ID of the job to which to add the task.
+     * @param tasks
+     *            An iterator over the {@link TaskAddParameter tasks} to add. The
+     *            iterator does not need to be thread-safe, but it may be called
+     *            from worker threads.
+     * @param additionalBehaviors
+     *            A collection of {@link BatchClientBehavior} instances that are
+     *            applied to the Batch service request.
+     * @param progressListener
+     *            A {@link BulkAddProgressListener} notified after each request
+     *            completes, or null.
+     * @param serviceCallback
+     *            The callback invoked when the operation completes, or null.
+     * @return A {@link ServiceFuture} which completes with a {@link BulkAddResult}
+     *         once every task is added, or fails with the exception that
+     *         terminated the operation. Cancelling the future stops sending
+     *         further requests.
+     */
+    public ServiceFuture<BulkAddResult> createTasksAsync(String jobId, Iterator<TaskAddParameter> tasks,
+            Iterable<BatchClientBehavior> additionalBehaviors, BulkAddProgressListener progressListener,
+            ServiceCallback<BulkAddResult> serviceCallback) {
+        return newBulkTaskSubmitter(jobId, tasks, false, additionalBehaviors, progressListener, serviceCallback)
+                .start();
+    }
 
-                    // Free the thread pool so we can start more threads to send the remaining add
-                    // tasks requests.
-                    threads.keySet().removeAll(finishedThreads);
+    /**
+     * Adds multiple tasks to each of several jobs, sharing one limit on the requests in flight.
+     *
+     * Requests for the jobs are sent round-robin within the limit set by
+     * {@link BatchClientParallelOptions}, which applies to all the jobs together rather than
+     * to each job. Tasks are read from each iterator only when a request is about to be sent.
+     * Every job is processed to completion even if another job fails.
+     *
+     * @param tasksByJob
+     *            A map from the ID of each job to an iterator over the
+     *            {@link TaskAddParameter tasks} to add to it. The iterators do
+     *            not need to be thread-safe, but they may be called from worker
+     *            threads.
+     * @param additionalBehaviors
+     *            A collection of {@link BatchClientBehavior} instances that are
+     *            applied to the Batch service request.
+     * @return A map from the ID of each job to a {@link BulkAddResult} describing
+     *         the tasks added to it, in the iteration order of tasksByJob.
+     * @throws BulkAddErrorException
+     *             Exception thrown when the tasks of at least one job could not
+     *             all be added, because of an error response from the Batch
+     *             service or any network exception. It carries the results of
+     *             the other jobs and the exception of each job which failed.
+     * @throws InterruptedException
+     *             Exception thrown if any thread has interrupted the current
+     *             thread.
+     */
+    public Map<String, BulkAddResult> createTasks(Map<String, Iterator<TaskAddParameter>> tasksByJob,
+            Iterable<BatchClientBehavior> additionalBehaviors) throws BulkAddErrorException, InterruptedException {
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        ConcurrencyBudget budget = newConcurrencyBudget(bhMgr);
+
+        Map<String, BulkTaskSubmitter> submitters = new LinkedHashMap<>();
+        for (Map.Entry<String, Iterator<TaskAddParameter>> entry : tasksByJob.entrySet()) {
+            submitters.put(entry.getKey(), newBulkTaskSubmitter(bhMgr, budget, entry.getKey(), entry.getValue(),
+                    false, null, null));
+        }
+        for (BulkTaskSubmitter submitter : submitters.values()) {
+            submitter.start();
+        }
 
-                    // Any errors happened, we stop.
-                    if (innerException != null || !failures.isEmpty()) {
-                        break;
+        Map<String, BulkAddResult> results = new LinkedHashMap<>();
+        Map<String, RuntimeException> failures = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, BulkTaskSubmitter> entry : submitters.entrySet()) {
+                try {
+                    results.put(entry.getKey(), entry.getValue().completion().get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
                     }
+                    failures.put(entry.getKey(), cause instanceof RuntimeException
+                            ? (RuntimeException) cause
+                            : new RuntimeException(cause));
                 }
             }
+        } catch (InterruptedException e) {
+            // Stop scheduling further chunks for every job, chunks already in flight are left to finish.
+            for (BulkTaskSubmitter submitter : submitters.values()) {
+                submitter.stop(e);
+            }
+            throw e;
         }
 
-        // Wait for all remaining threads to finish.
-        for (Thread t : threads.keySet()) {
-            t.join();
+        if (!failures.isEmpty()) {
+            throw new BulkAddErrorException("The tasks of " + failures.size() + " of " + submitters.size()
+                    + " jobs could not all be added.", results, failures);
         }
+        return results;
+    }
 
-        if (innerException == null) {
-            // Check for errors in any of the threads.
-            for (Thread t : threads.keySet()) {
-                innerException = threads.get(t).getException();
-                if (innerException != null) {
-                    break;
-                }
+    private BulkTaskSubmitter newBulkTaskSubmitter(String jobId, Iterator<TaskAddParameter> tasks,
+            boolean reportUnreadTasks, Iterable<BatchClientBehavior> additionalBehaviors,
+            BulkAddProgressListener progressListener, ServiceCallback<BulkAddResult> serviceCallback) {
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return newBulkTaskSubmitter(bhMgr, newConcurrencyBudget(bhMgr), jobId, tasks, reportUnreadTasks,
+                progressListener, serviceCallback);
+    }
+
+    private BulkTaskSubmitter newBulkTaskSubmitter(BehaviorManager bhMgr, ConcurrencyBudget budget, String jobId,
+            Iterator<TaskAddParameter> tasks, boolean reportUnreadTasks, BulkAddProgressListener progressListener,
+            ServiceCallback<BulkAddResult> serviceCallback) {
+        ExecutorService executor = null;
+        BulkAddOptions options = new BulkAddOptions();
+
+        // Get user defined executor and options
+        for (BatchClientBehavior op : bhMgr.getMasterListOfBehaviors()) {
+            if (op instanceof BatchClientParallelOptions) {
+                executor = ((BatchClientParallelOptions) op).executorService();
+            } else if (op instanceof BulkAddOptions) {
+                options = (BulkAddOptions) op;
             }
         }
 
-        if (innerException != null) {
-            // If an exception happened in any of the threads, throw it.
-            if (innerException instanceof BatchErrorException) {
-                throw (BatchErrorException) innerException;
-            } else {
-                // WorkingThread will only catch and store a BatchErrorException or a
-                // RuntimeException in its run() method.
-                // WorkingThread.getException() should therefore only return one of these two
-                // types, making the cast safe.
-                throw (RuntimeException) innerException;
-            }
+        if (executor == null) {
+            executor = this._parentBatchClient.executorService();
         }
 
-        if (!failures.isEmpty()) {
-            // Report any client error with leftover request
-            List<TaskAddParameter> notFinished = new ArrayList<>();
-            for (TaskAddParameter param : pendingList) {
-                notFinished.add(param);
+        return new BulkTaskSubmitter(this._parentBatchClient, bhMgr, jobId, tasks, reportUnreadTasks, executor,
+                budget, options, progressListener, serviceCallback);
+    }
+
+    private static ConcurrencyBudget newConcurrencyBudget(BehaviorManager bhMgr) {
+        // Default thread number is 1
+        int threadNumber = 1;
+        AdaptiveConcurrencyLimit concurrencyLimit = null;
+
+        // Get user defined thread number
+        for (BatchClientBehavior op : bhMgr.getMasterListOfBehaviors()) {
+            if (op instanceof BatchClientParallelOptions) {
+                BatchClientParallelOptions parallelOptions = (BatchClientParallelOptions) op;
+                threadNumber = parallelOptions.maxDegreeOfParallelism();
+                concurrencyLimit = parallelOptions.adaptiveDegreeOfParallelism()
+                        ? new AdaptiveConcurrencyLimit(Math.min(parallelOptions.minDegreeOfParallelism(), threadNumber), threadNumber)
+                        : null;
             }
-            throw new CreateTasksErrorException("At least one task failed to be added.", failures, notFinished);
         }
 
-        // We succeed here
+        return new ConcurrencyBudget(threadNumber, concurrencyLimit);
     }
 
     /**
@@ -423,7 +517,7 @@ public class TaskOperations implements IInheritedBehaviors {
     public PagedList<CloudTask> listTasks(String jobId, DetailLevel detailLevel,
             Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         TaskListOptions options = new TaskListOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
         bhMgr.applyRequestBehaviors(options);
 
@@ -431,13 +525,11 @@ public class TaskOperations implements IInheritedBehaviors {
     }
 
     /**
-     * Lists the {@link SubtaskInformation subtasks} of the specified task.
+     * Lists the {@link CloudTask tasks} of the specified job.
      *
      * @param jobId
-     *            The ID of the job containing the task.
-     * @param taskId
-     *            The ID of the task.
-     * @return A list of {@link SubtaskInformation} objects.
+     *            The ID of the job.
+     * @return A {@link PagedIterator} over {@link CloudTask} objects.
      * @throws BatchErrorException
      *             Exception thrown when an error response is received from the
      *             Batch service.
@@ -446,21 +538,19 @@ public class TaskOperations implements IInheritedBehaviors {
      *             serialization/deserialization of data sent to/received from the
      *             Batch service.
      */
-    public List<SubtaskInformation> listSubtasks(String jobId, String taskId) throws BatchErrorException, IOException {
-        return listSubtasks(jobId, taskId, null, null);
+    public PagedIterator<CloudTask> iterateTasks(String jobId) throws BatchErrorException, IOException {
+        return iterateTasks(jobId, null, null);
     }
 
     /**
-     * Lists the {@link SubtaskInformation subtasks} of the specified task.
+     * Lists the {@link CloudTask tasks} of the specified job.
      *
      * @param jobId
-     *            The ID of the job containing the task.
-     * @param taskId
-     *            The ID of the task.
+     *            The ID of the job.
      * @param detailLevel
-     *            A {@link DetailLevel} used for controlling which properties are
-     *            retrieved from the service.
-     * @return A list of {@link SubtaskInformation} objects.
+     *            A {@link DetailLevel} used for filtering the list and for
+     *            controlling which properties are retrieved from the service.
+     * @return A {@link PagedIterator} over {@link CloudTask} objects.
      * @throws BatchErrorException
      *             Exception thrown when an error response is received from the
      *             Batch service.
@@ -469,25 +559,23 @@ public class TaskOperations implements IInheritedBehaviors {
      *             serialization/deserialization of data sent to/received from the
      *             Batch service.
      */
-    public List<SubtaskInformation> listSubtasks(String jobId, String taskId, DetailLevel detailLevel)
+    public PagedIterator<CloudTask> iterateTasks(String jobId, DetailLevel detailLevel)
             throws BatchErrorException, IOException {
-        return listSubtasks(jobId, taskId, detailLevel, null);
+        return iterateTasks(jobId, detailLevel, null);
     }
 
     /**
-     * Lists the {@link SubtaskInformation subtasks} of the specified task.
+     * Lists the {@link CloudTask tasks} of the specified job.
      *
      * @param jobId
-     *            The ID of the job containing the task.
-     * @param taskId
-     *            The ID of the task.
+     *            The ID of the job.
      * @param detailLevel
-     *            A {@link DetailLevel} used for controlling which properties are
-     *            retrieved from the service.
+     *            A {@link DetailLevel} used for filtering the list and for
+     *            controlling which properties are retrieved from the service.
      * @param additionalBehaviors
      *            A collection of {@link BatchClientBehavior} instances that are
      *            applied to the Batch service request.
-     * @return A list of {@link SubtaskInformation} objects.
+     * @return A {@link PagedIterator} over {@link CloudTask} objects.
      * @throws BatchErrorException
      *             Exception thrown when an error response is received from the
      *             Batch service.
@@ -496,52 +584,34 @@ public class TaskOperations implements IInheritedBehaviors {
      *             serialization/deserialization of data sent to/received from the
      *             Batch service.
      */
-    public List<SubtaskInformation> listSubtasks(String jobId, String taskId, DetailLevel detailLevel,
+    public PagedIterator<CloudTask> iterateTasks(String jobId, DetailLevel detailLevel,
             Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
-        TaskListSubtasksOptions options = new TaskListSubtasksOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
-        bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
-        bhMgr.applyRequestBehaviors(options);
-
-        CloudTaskListSubtasksResult response = this._parentBatchClient.protocolLayer().tasks().listSubtasks(jobId,
-                taskId, options);
-
-        if (response != null) {
-            return response.value();
-        } else {
-            return null;
-        }
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return PagedIterator.create(listTasks(jobId, detailLevel, additionalBehaviors), this._parentBatchClient, bhMgr);
     }
 
     /**
-     * Deletes the specified task.
+     * Lists the {@link CloudTask tasks} of the specified job, listing disjoint partitions of the
+     * tasks concurrently.
      *
-     * @param jobId
-     *            The ID of the job containing the task.
-     * @param taskId
-     *            The ID of the task.
-     * @throws BatchErrorException
-     *             Exception thrown when an error response is received from the
-     *             Batch service.
-     * @throws IOException
-     *             Exception thrown when there is an error in
-     *             serialization/deserialization of data sent to/received from the
-     *             Batch service.
-     */
-    public void deleteTask(String jobId, String taskId) throws BatchErrorException, IOException {
-        deleteTask(jobId, taskId, null);
-    }
-
-    /**
-     * Deletes the specified task.
+     * Each partition is a filter clause, combined with the filter clause of the detail level, which
+     * selects the tasks listed by one sequence of requests. {@link ListPartitions} builds partitions
+     * by task state or by numeric task ID. Up to the degree of parallelism set through
+     * {@link com.microsoft.azure.batch.interceptor.BatchClientParallelOptions BatchClientParallelOptions},
+     * or else all of the partitions, are listed at once. Tasks are returned in no particular order.
+     * The iterator must be closed if it is not iterated to the end.
      *
      * @param jobId
-     *            The ID of the job containing the task.
-     * @param taskId
-     *            The ID of the task.
+     *            The ID of the job.
+     * @param partitions
+     *            The filter clauses of the partitions. Tasks matching none of them are not listed.
+     * @param detailLevel
+     *            A {@link DetailLevel} used for filtering the list and for
+     *            controlling which properties are retrieved from the service.
      * @param additionalBehaviors
      *            A collection of {@link BatchClientBehavior} instances that are
      *            applied to the Batch service request.
+     * @return An iterator over {@link CloudTask} objects.
      * @throws BatchErrorException
      *             Exception thrown when an error response is received from the
      *             Batch service.
@@ -550,24 +620,28 @@ public class TaskOperations implements IInheritedBehaviors {
      *             serialization/deserialization of data sent to/received from the
      *             Batch service.
      */
-    public void deleteTask(String jobId, String taskId, Iterable<BatchClientBehavior> additionalBehaviors)
+    public PartitionedIterator<CloudTask> iterateTasksInPartitions(final String jobId, List<String> partitions,
+            DetailLevel detailLevel, final Iterable<BatchClientBehavior> additionalBehaviors)
             throws BatchErrorException, IOException {
-        TaskDeleteOptions options = new TaskDeleteOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
-        bhMgr.applyRequestBehaviors(options);
-
-        this._parentBatchClient.protocolLayer().tasks().delete(jobId, taskId, options);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return PartitionedIterator.create(new PartitionedIterator.PartitionLister<CloudTask>() {
+            @Override
+            public PagedList<CloudTask> list(DetailLevel partitionDetailLevel) throws BatchErrorException, IOException {
+                return listTasks(jobId, partitionDetailLevel, additionalBehaviors);
+            }
+        }, partitions, detailLevel, this._parentBatchClient, bhMgr);
     }
 
     /**
-     * Gets the specified {@link CloudTask}.
+     * Lists the {@link TaskSummary summaries} of the tasks of the specified job.
+     *
+     * Only the ID, state, state transition time and execution information of each task are
+     * retrieved, and only the properties of a {@link TaskSummary} are kept from them, which
+     * is cheaper than listing {@link CloudTask} objects when following the progress of many tasks.
      *
      * @param jobId
-     *            The ID of the job containing the task.
-     * @param taskId
-     *            The ID of the task.
-     * @return A {@link CloudTask} containing information about the specified Azure
-     *         Batch task.
+     *            The ID of the job.
+     * @return A list of {@link TaskSummary} objects.
      * @throws BatchErrorException
      *             Exception thrown when an error response is received from the
      *             Batch service.
@@ -576,22 +650,23 @@ public class TaskOperations implements IInheritedBehaviors {
      *             serialization/deserialization of data sent to/received from the
      *             Batch service.
      */
-    public CloudTask getTask(String jobId, String taskId) throws BatchErrorException, IOException {
-        return getTask(jobId, taskId, null, null);
+    public PagedList<TaskSummary> listTaskSummaries(String jobId) throws BatchErrorException, IOException {
+        return listTaskSummaries(jobId, null, null);
     }
 
     /**
-     * Gets the specified {@link CloudTask}.
+     * Lists the {@link TaskSummary summaries} of the tasks of the specified job.
+     *
+     * Only the ID, state, state transition time and execution information of each task are
+     * retrieved, and only the properties of a {@link TaskSummary} are kept from them, which
+     * is cheaper than listing {@link CloudTask} objects when following the progress of many tasks.
      *
      * @param jobId
-     *            The ID of the job containing the task.
-     * @param taskId
-     *            The ID of the task.
+     *            The ID of the job.
      * @param detailLevel
-     *            A {@link DetailLevel} used for controlling which properties are
-     *            retrieved from the service.
-     * @return A {@link CloudTask} containing information about the specified Azure
-     *         Batch task.
+     *            A {@link DetailLevel} used for filtering the list. Its select
+     *            and expand clauses are ignored.
+     * @return A list of {@link TaskSummary} objects.
      * @throws BatchErrorException
      *             Exception thrown when an error response is received from the
      *             Batch service.
@@ -600,26 +675,27 @@ public class TaskOperations implements IInheritedBehaviors {
      *             serialization/deserialization of data sent to/received from the
      *             Batch service.
      */
-    public CloudTask getTask(String jobId, String taskId, DetailLevel detailLevel)
+    public PagedList<TaskSummary> listTaskSummaries(String jobId, DetailLevel detailLevel)
             throws BatchErrorException, IOException {
-        return getTask(jobId, taskId, detailLevel, null);
+        return listTaskSummaries(jobId, detailLevel, null);
     }
 
     /**
-     * Gets the specified {@link CloudTask}.
+     * Lists the {@link TaskSummary summaries} of the tasks of the specified job.
+     *
+     * Only the ID, state, state transition time and execution information of each task are
+     * retrieved, and only the properties of a {@link TaskSummary} are kept from them, which
+     * is cheaper than listing {@link CloudTask} objects when following the progress of many tasks.
      *
      * @param jobId
-     *            The ID of the job containing the task.
-     * @param taskId
-     *            The ID of the task.
+     *            The ID of the job.
      * @param detailLevel
-     *            A {@link DetailLevel} used for controlling which properties are
-     *            retrieved from the service.
+     *            A {@link DetailLevel} used for filtering the list. Its select
+     *            and expand clauses are ignored.
      * @param additionalBehaviors
      *            A collection of {@link BatchClientBehavior} instances that are
      *            applied to the Batch service request.
-     * @return A {@link CloudTask} containing information about the specified Azure
-     *         Batch task.
+     * @return A list of {@link TaskSummary} objects.
      * @throws BatchErrorException
      *             Exception thrown when an error response is received from the
      *             Batch service.
@@ -628,14 +704,685 @@ public class TaskOperations implements IInheritedBehaviors {
      *             serialization/deserialization of data sent to/received from the
      *             Batch service.
      */
-    public CloudTask getTask(String jobId, String taskId, DetailLevel detailLevel,
+    public PagedList<TaskSummary> listTaskSummaries(String jobId, DetailLevel detailLevel,
             Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
-        TaskGetOptions options = new TaskGetOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        TaskListOptions options = new TaskListOptions();
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
         bhMgr.applyRequestBehaviors(options);
 
-        return this._parentBatchClient.protocolLayer().tasks().get(jobId, taskId, options);
+        return new RawLists(this._parentBatchClient.protocolLayer()).listTaskSummaries(jobId, options);
+    }
+
+    /**
+     * Lists the {@link CloudTask tasks} of the specified job, deserializing each task as it is read from
+     * the response of the Batch service rather than a page at a time.
+     *
+     * The iterator must be closed if it is not iterated to the end.
+     *
+     * @param jobId
+     *            The ID of the job.
+     * @return An iterator over {@link CloudTask} objects.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public StreamingIterator<CloudTask> streamTasks(String jobId) throws BatchErrorException, IOException {
+        return streamTasks(jobId, null, null);
+    }
+
+    /**
+     * Lists the {@link CloudTask tasks} of the specified job, deserializing each task as it is read from
+     * the response of the Batch service rather than a page at a time.
+     *
+     * The iterator must be closed if it is not iterated to the end.
+     *
+     * @param jobId
+     *            The ID of the job.
+     * @param detailLevel
+     *            A {@link DetailLevel} used for filtering the list and for
+     *            controlling which properties are retrieved from the service.
+     * @return An iterator over {@link CloudTask} objects.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public StreamingIterator<CloudTask> streamTasks(String jobId, DetailLevel detailLevel)
+            throws BatchErrorException, IOException {
+        return streamTasks(jobId, detailLevel, null);
+    }
+
+    /**
+     * Lists the {@link CloudTask tasks} of the specified job, deserializing each task as it is read from
+     * the response of the Batch service rather than a page at a time.
+     *
+     * The iterator must be closed if it is not iterated to the end.
+     *
+     * @param jobId
+     *            The ID of the job.
+     * @param detailLevel
+     *            A {@link DetailLevel} used for filtering the list and for
+     *            controlling which properties are retrieved from the service.
+     * @param additionalBehaviors
+     *            A collection of {@link BatchClientBehavior} instances that are
+     *            applied to the Batch service request.
+     * @return An iterator over {@link CloudTask} objects.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public StreamingIterator<CloudTask> streamTasks(String jobId, DetailLevel detailLevel,
+            Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        TaskListOptions options = new TaskListOptions();
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
+        bhMgr.applyRequestBehaviors(options);
+
+        return new RawLists(this._parentBatchClient.protocolLayer()).streamTasks(jobId, options);
+    }
+
+    /**
+     * Lists the {@link TaskSummary summaries} of the tasks of the specified job, deserializing each summary as it is read from
+     * the response of the Batch service rather than a page at a time.
+     *
+     * The iterator must be closed if it is not iterated to the end.
+     *
+     * @param jobId
+     *            The ID of the job.
+     * @return An iterator over {@link TaskSummary} objects.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public StreamingIterator<TaskSummary> streamTaskSummaries(String jobId) throws BatchErrorException, IOException {
+        return streamTaskSummaries(jobId, null, null);
+    }
+
+    /**
+     * Lists the {@link TaskSummary summaries} of the tasks of the specified job, deserializing each summary as it is read from
+     * the response of the Batch service rather than a page at a time.
+     *
+     * The iterator must be closed if it is not iterated to the end.
+     *
+     * @param jobId
+     *            The ID of the job.
+     * @param detailLevel
+     *            A {@link DetailLevel} used for filtering the list. Its select
+     *            and expand clauses are ignored.
+     * @return An iterator over {@link TaskSummary} objects.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public StreamingIterator<TaskSummary> streamTaskSummaries(String jobId, DetailLevel detailLevel)
+            throws BatchErrorException, IOException {
+        return streamTaskSummaries(jobId, detailLevel, null);
+    }
+
+    /**
+     * Lists the {@link TaskSummary summaries} of the tasks of the specified job, deserializing each summary as it is read from
+     * the response of the Batch service rather than a page at a time.
+     *
+     * The iterator must be closed if it is not iterated to the end.
+     *
+     * @param jobId
+     *            The ID of the job.
+     * @param detailLevel
+     *            A {@link DetailLevel} used for filtering the list. Its select
+     *            and expand clauses are ignored.
+     * @param additionalBehaviors
+     *            A collection of {@link BatchClientBehavior} instances that are
+     *            applied to the Batch service request.
+     * @return An iterator over {@link TaskSummary} objects.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public StreamingIterator<TaskSummary> streamTaskSummaries(String jobId, DetailLevel detailLevel,
+            Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        TaskListOptions options = new TaskListOptions();
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
+        bhMgr.applyRequestBehaviors(options);
+
+        return new RawLists(this._parentBatchClient.protocolLayer()).streamTaskSummaries(jobId, options);
+    }
+
+    /**
+     * Lists the {@link CloudTask tasks} which changed state since the previous call with the
+     * same cursor, and advances the cursor past them.
+     *
+     * The first call with a cursor lists every task of its job. The cursor is left unchanged
+     * if the call fails.
+     *
+     * @param cursor
+     *            The {@link TaskChangeCursor} of the job.
+     * @return The tasks which changed state, in no particular order.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public List<CloudTask> listTaskChanges(TaskChangeCursor cursor) throws BatchErrorException, IOException {
+        return listTaskChanges(cursor, null);
+    }
+
+    /**
+     * Lists the {@link CloudTask tasks} which changed state since the previous call with the
+     * same cursor, and advances the cursor past them.
+     *
+     * The first call with a cursor lists every task of its job. The cursor is left unchanged
+     * if the call fails.
+     *
+     * @param cursor
+     *            The {@link TaskChangeCursor} of the job.
+     * @param additionalBehaviors
+     *            A collection of {@link BatchClientBehavior} instances that are
+     *            applied to the Batch service request.
+     * @return The tasks which changed state, in no particular order.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public List<CloudTask> listTaskChanges(TaskChangeCursor cursor, Iterable<BatchClientBehavior> additionalBehaviors)
+            throws BatchErrorException, IOException {
+        PagedList<CloudTask> tasks = listTasks(cursor.jobId(), cursor.nextDetailLevel(), additionalBehaviors);
+        return cursor.advance(new PagedIterator<>(tasks));
+    }
+
+    /**
+     * Creates an in-memory index of the state of the tasks of the specified jobs. No request is
+     * made until {@link TaskStateTracker#refresh()} is called.
+     *
+     * @param jobIds
+     *            The IDs of the jobs whose tasks are tracked.
+     * @return A {@link TaskStateTracker} for the jobs.
+     */
+    public TaskStateTracker createTaskStateTracker(Collection<String> jobIds) {
+        return createTaskStateTracker(jobIds, null);
+    }
+
+    /**
+     * Creates an in-memory index of the state of the tasks of the specified jobs. No request is
+     * made until {@link TaskStateTracker#refresh()} is called.
+     *
+     * @param jobIds
+     *            The IDs of the jobs whose tasks are tracked.
+     * @param additionalBehaviors
+     *            A collection of {@link BatchClientBehavior} instances that are
+     *            applied to the Batch service requests of each refresh.
+     * @return A {@link TaskStateTracker} for the jobs.
+     */
+    public TaskStateTracker createTaskStateTracker(Collection<String> jobIds,
+            Iterable<BatchClientBehavior> additionalBehaviors) {
+        return new TaskStateTracker(this, jobIds, additionalBehaviors);
+    }
+
+    /**
+     * Creates a {@link TaskStateWatcher} publishing the task state changes of the jobs it watches.
+     *
+     * @return A {@link TaskStateWatcher} watching no jobs yet.
+     */
+    public TaskStateWatcher createTaskStateWatcher() {
+        return createTaskStateWatcher(null);
+    }
+
+    /**
+     * Creates a {@link TaskStateWatcher} publishing the task state changes of the jobs it watches.
+     *
+     * @param additionalBehaviors
+     *            A collection of {@link BatchClientBehavior} instances that are
+     *            applied to the Batch service requests of each poll. The
+     *            {@link BatchClientParallelOptions} and
+     *            {@link com.microsoft.azure.batch.interceptor.PollIntervalOptions PollIntervalOptions}
+     *            among them configure the polling.
+     * @return A {@link TaskStateWatcher} watching no jobs yet.
+     */
+    public TaskStateWatcher createTaskStateWatcher(Iterable<BatchClientBehavior> additionalBehaviors) {
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return new TaskStateWatcher(this, this._parentBatchClient, bhMgr, additionalBehaviors);
+    }
+
+    /**
+     * Waits for every task of the specified job to complete.
+     *
+     * @param jobId
+     *            The ID of the job.
+     * @param timeout
+     *            The longest time to wait.
+     * @param unit
+     *            The unit of the timeout.
+     * @return true if every task completed, false if the timeout elapsed first.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     * @throws InterruptedException
+     *             Exception thrown if the waiting thread is interrupted, which
+     *             cancels the wait.
+     */
+    public boolean waitForTasksToComplete(String jobId, long timeout, TimeUnit unit)
+            throws BatchErrorException, IOException, InterruptedException {
+        return waitForTasksToComplete(jobId, timeout, unit, null);
+    }
+
+    /**
+     * Waits for every task of the specified job to complete.
+     *
+     * Each poll gets the {@link TaskCounts task counts} of the job, which cost the Batch service
+     * the same whatever the number of tasks. Once fewer than a page of tasks are counted as active or
+     * running, the IDs of the tasks which are not completed are listed as well, since the counts may
+     * lag behind the state of the tasks, and the wait ends when none are listed. The interval between
+     * polls adapts to the progress of the job, between the bounds set through
+     * {@link com.microsoft.azure.batch.interceptor.PollIntervalOptions PollIntervalOptions}, by default
+     * 1 and 30 seconds.
+     *
+     * @param jobId
+     *            The ID of the job.
+     * @param timeout
+     *            The longest time to wait.
+     * @param unit
+     *            The unit of the timeout.
+     * @param additionalBehaviors
+     *            A collection of {@link BatchClientBehavior} instances that are
+     *            applied to the Batch service requests.
+     * @return true if every task completed, false if the timeout elapsed first.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     * @throws InterruptedException
+     *             Exception thrown if the waiting thread is interrupted, which
+     *             cancels the wait.
+     */
+    public boolean waitForTasksToComplete(String jobId, long timeout, TimeUnit unit,
+            Iterable<BatchClientBehavior> additionalBehaviors)
+            throws BatchErrorException, IOException, InterruptedException {
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        PollSchedule schedule = PollSchedule.create(timeout, unit, bhMgr);
+        DetailLevel outstandingTasks = new DetailLevel.Builder()
+                .withFilterClause(String.format("state ne '%s'", TaskState.COMPLETED))
+                .withSelectFields(TaskField.ID)
+                .build();
+
+        long lastOutstanding = Long.MAX_VALUE;
+        do {
+            TaskCounts counts = this._parentBatchClient.jobOperations().getTaskCounts(jobId, additionalBehaviors);
+            long outstanding = (long) counts.active() + counts.running();
+            if (outstanding < OUTSTANDING_TASKS_LISTED) {
+                if (!listTasks(jobId, outstandingTasks, additionalBehaviors).iterator().hasNext()) {
+                    return true;
+                }
+            }
+            boolean progressed = outstanding < lastOutstanding;
+            lastOutstanding = outstanding;
+            if (!schedule.awaitNextPoll(progressed)) {
+                return false;
+            }
+        } while (true);
+    }
+
+    /**
+     * Lists the {@link SubtaskInformation subtasks} of the specified task.
+     *
+     * @param jobId
+     *            The ID of the job containing the task.
+     * @param taskId
+     *            The ID of the task.
+     * @return A list of {@link SubtaskInformation} objects.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public List<SubtaskInformation> listSubtasks(String jobId, String taskId) throws BatchErrorException, IOException {
+        return listSubtasks(jobId, taskId, null, null);
+    }
+
+    /**
+     * Lists the {@link SubtaskInformation subtasks} of the specified task.
+     *
+     * @param jobId
+     *            The ID of the job containing the task.
+     * @param taskId
+     *            The ID of the task.
+     * @param detailLevel
+     *            A {@link DetailLevel} used for controlling which properties are
+     *            retrieved from the service.
+     * @return A list of {@link SubtaskInformation} objects.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public List<SubtaskInformation> listSubtasks(String jobId, String taskId, DetailLevel detailLevel)
+            throws BatchErrorException, IOException {
+        return listSubtasks(jobId, taskId, detailLevel, null);
+    }
+
+    /**
+     * Lists the {@link SubtaskInformation subtasks} of the specified task.
+     *
+     * @param jobId
+     *            The ID of the job containing the task.
+     * @param taskId
+     *            The ID of the task.
+     * @param detailLevel
+     *            A {@link DetailLevel} used for controlling which properties are
+     *            retrieved from the service.
+     * @param additionalBehaviors
+     *            A collection of {@link BatchClientBehavior} instances that are
+     *            applied to the Batch service request.
+     * @return A list of {@link SubtaskInformation} objects.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public List<SubtaskInformation> listSubtasks(String jobId, String taskId, DetailLevel detailLevel,
+            Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        TaskListSubtasksOptions options = new TaskListSubtasksOptions();
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
+        bhMgr.applyRequestBehaviors(options);
+
+        CloudTaskListSubtasksResult response = this._parentBatchClient.protocolLayer().tasks().listSubtasks(jobId,
+                taskId, options);
+
+        if (response != null) {
+            return response.value();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Lists the {@link SubtaskInformation subtasks} of each of the specified tasks.
+     *
+     * @param jobId
+     *            The ID of the job containing the tasks.
+     * @param taskIds
+     *            The IDs of the tasks.
+     * @return A map of each task ID to its list of {@link SubtaskInformation} objects, in the order of the task IDs.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     * @throws InterruptedException
+     *             Exception thrown if any thread has interrupted the current
+     *             thread.
+     */
+    public Map<String, List<SubtaskInformation>> listSubtasks(String jobId, Collection<String> taskIds)
+            throws BatchErrorException, IOException, InterruptedException {
+        return listSubtasks(jobId, taskIds, null, null);
+    }
+
+    /**
+     * Lists the {@link SubtaskInformation subtasks} of each of the specified tasks.
+     *
+     * @param jobId
+     *            The ID of the job containing the tasks.
+     * @param taskIds
+     *            The IDs of the tasks.
+     * @param detailLevel
+     *            A {@link DetailLevel} used for controlling which properties are
+     *            retrieved from the service.
+     * @return A map of each task ID to its list of {@link SubtaskInformation} objects, in the order of the task IDs.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     * @throws InterruptedException
+     *             Exception thrown if any thread has interrupted the current
+     *             thread.
+     */
+    public Map<String, List<SubtaskInformation>> listSubtasks(String jobId, Collection<String> taskIds,
+            DetailLevel detailLevel) throws BatchErrorException, IOException, InterruptedException {
+        return listSubtasks(jobId, taskIds, detailLevel, null);
+    }
+
+    /**
+     * Lists the {@link SubtaskInformation subtasks} of each of the specified tasks.
+     *
+     * The subtasks of up to the degree of parallelism set through {@link BatchClientParallelOptions}
+     * tasks are requested at once, and of one task at a time otherwise. The first failure stops
+     * further requests and is thrown once the requests in flight have completed.
+     *
+     * @param jobId
+     *            The ID of the job containing the tasks.
+     * @param taskIds
+     *            The IDs of the tasks.
+     * @param detailLevel
+     *            A {@link DetailLevel} used for controlling which properties are
+     *            retrieved from the service.
+     * @param additionalBehaviors
+     *            A collection of {@link BatchClientBehavior} instances that are
+     *            applied to the Batch service requests.
+     * @return A map of each task ID to its list of {@link SubtaskInformation} objects, in the order of the task IDs.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     * @throws InterruptedException
+     *             Exception thrown if any thread has interrupted the current
+     *             thread.
+     */
+    public Map<String, List<SubtaskInformation>> listSubtasks(final String jobId, Collection<String> taskIds,
+            final DetailLevel detailLevel, final Iterable<BatchClientBehavior> additionalBehaviors)
+            throws BatchErrorException, IOException, InterruptedException {
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        return ConcurrentRequests.run(new ConcurrentRequests.Request<String, List<SubtaskInformation>>() {
+            @Override
+            public List<SubtaskInformation> call(String taskId) throws BatchErrorException, IOException {
+                return listSubtasks(jobId, taskId, detailLevel, additionalBehaviors);
+            }
+        }, taskIds, this._parentBatchClient, bhMgr);
+    }
+
+    /**
+     * Deletes the specified task.
+     *
+     * @param jobId
+     *            The ID of the job containing the task.
+     * @param taskId
+     *            The ID of the task.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public void deleteTask(String jobId, String taskId) throws BatchErrorException, IOException {
+        deleteTask(jobId, taskId, null);
+    }
+
+    /**
+     * Deletes the specified task.
+     *
+     * @param jobId
+     *            The ID of the job containing the task.
+     * @param taskId
+     *            The ID of the task.
+     * @param additionalBehaviors
+     *            A collection of {@link BatchClientBehavior} instances that are
+     *            applied to the Batch service request.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public void deleteTask(String jobId, String taskId, Iterable<BatchClientBehavior> additionalBehaviors)
+            throws BatchErrorException, IOException {
+        TaskDeleteOptions options = new TaskDeleteOptions();
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        bhMgr.applyRequestBehaviors(options);
+
+        this._parentBatchClient.protocolLayer().tasks().delete(jobId, taskId, options);
+    }
+
+    /**
+     * Gets the specified {@link CloudTask}.
+     *
+     * @param jobId
+     *            The ID of the job containing the task.
+     * @param taskId
+     *            The ID of the task.
+     * @return A {@link CloudTask} containing information about the specified Azure
+     *         Batch task.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public CloudTask getTask(String jobId, String taskId) throws BatchErrorException, IOException {
+        return getTask(jobId, taskId, null, null);
+    }
+
+    /**
+     * Gets the specified {@link CloudTask}.
+     *
+     * @param jobId
+     *            The ID of the job containing the task.
+     * @param taskId
+     *            The ID of the task.
+     * @param detailLevel
+     *            A {@link DetailLevel} used for controlling which properties are
+     *            retrieved from the service.
+     * @return A {@link CloudTask} containing information about the specified Azure
+     *         Batch task.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public CloudTask getTask(String jobId, String taskId, DetailLevel detailLevel)
+            throws BatchErrorException, IOException {
+        return getTask(jobId, taskId, detailLevel, null);
+    }
+
+    /**
+     * Gets the specified {@link CloudTask}.
+     *
+     * @param jobId
+     *            The ID of the job containing the task.
+     * @param taskId
+     *            The ID of the task.
+     * @param detailLevel
+     *            A {@link DetailLevel} used for controlling which properties are
+     *            retrieved from the service.
+     * @param additionalBehaviors
+     *            A collection of {@link BatchClientBehavior} instances that are
+     *            applied to the Batch service request.
+     * @return A {@link CloudTask} containing information about the specified Azure
+     *         Batch task.
+     * @throws BatchErrorException
+     *             Exception thrown when an error response is received from the
+     *             Batch service.
+     * @throws IOException
+     *             Exception thrown when there is an error in
+     *             serialization/deserialization of data sent to/received from the
+     *             Batch service.
+     */
+    public CloudTask getTask(final String jobId, final String taskId, DetailLevel detailLevel,
+            Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
+        final TaskGetOptions options = new TaskGetOptions();
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
+        bhMgr.appendDetailLevelToPerCallBehaviors(detailLevel);
+        bhMgr.applyRequestBehaviors(options);
+
+        return SingleFlight.coalesce(this._parentBatchClient, bhMgr,
+                SingleFlight.isConditional(options.ifMatch(), options.ifNoneMatch(), options.ifModifiedSince(), options.ifUnmodifiedSince(), options.ocpDate()),
+                SingleFlight.key("getTask", options.select(), options.expand(), options.timeout(), jobId, taskId),
+                new SingleFlight.Read<CloudTask>() {
+                    @Override
+                    public CloudTask read() throws BatchErrorException, IOException {
+                        return readTask(jobId, taskId, options);
+                    }
+                });
+    }
+
+    private CloudTask readTask(final String jobId, final String taskId, TaskGetOptions options) throws BatchErrorException, IOException {
+        EntityCache cache = this._parentBatchClient.entityCache();
+        if (cache == null || options.ifNoneMatch() != null || options.ifModifiedSince() != null) {
+            return this._parentBatchClient.protocolLayer().tasks().get(jobId, taskId, options);
+        }
+        final TaskGetOptions conditionalOptions = options;
+        return cache.get(EntityCache.key("jobs/" + jobId + "/tasks/" + taskId, options.select(), options.expand()), new EntityCache.ConditionalGet<CloudTask>() {
+            @Override
+            public EntityCache.Entry<CloudTask> get(String ifNoneMatch) {
+                ServiceResponseWithHeaders<CloudTask, TaskGetHeaders> response = _parentBatchClient.protocolLayer().tasks()
+                        .getWithServiceResponseAsync(jobId, taskId, conditionalOptions.withIfNoneMatch(ifNoneMatch)).toBlocking().single();
+                // The ETag of the entity itself stands in for a header lost by an intermediary
+                String eTag = response.headers().eTag() != null ? response.headers().eTag() : response.body().eTag();
+                return new EntityCache.Entry<>(response.body(), eTag);
+            }
+        });
     }
 
     /**
@@ -685,7 +1432,7 @@ public class TaskOperations implements IInheritedBehaviors {
     public void updateTask(String jobId, String taskId, TaskConstraints constraints,
             Iterable<BatchClientBehavior> additionalBehaviors) throws BatchErrorException, IOException {
         TaskUpdateOptions options = new TaskUpdateOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().tasks().update(jobId, taskId, constraints, options);
@@ -731,7 +1478,7 @@ public class TaskOperations implements IInheritedBehaviors {
     public void terminateTask(String jobId, String taskId, Iterable<BatchClientBehavior> additionalBehaviors)
             throws BatchErrorException, IOException {
         TaskTerminateOptions options = new TaskTerminateOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().tasks().terminate(jobId, taskId, options);
@@ -779,7 +1526,7 @@ public class TaskOperations implements IInheritedBehaviors {
     public void reactivateTask(String jobId, String taskId, Iterable<BatchClientBehavior> additionalBehaviors)
             throws BatchErrorException, IOException {
         TaskReactivateOptions options = new TaskReactivateOptions();
-        BehaviorManager bhMgr = new BehaviorManager(this.customBehaviors(), additionalBehaviors);
+        BehaviorManager bhMgr = new BehaviorManager(this._parentBatchClient, this.customBehaviors(), additionalBehaviors);
         bhMgr.applyRequestBehaviors(options);
 
         this._parentBatchClient.protocolLayer().tasks().reactivate(jobId, taskId, options);
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.batch.protocol.models.CloudTask;
+import com.microsoft.azure.batch.protocol.models.TaskState;
+import org.joda.time.DateTime;
+
+/**
+ * A change of the state of a task, published by a {@link TaskStateWatcher}.
+ */
+public class TaskStateChanged {
+    private final String jobId;
+    private final String taskId;
+    private final TaskState previousState;
+    private final TaskState state;
+    private final DateTime stateTransitionTime;
+    private final Integer exitCode;
+    private final String nodeId;
+
+    /**
+     * Initializes a new instance of the TaskStateChanged class.
+     *
+     * @param jobId The ID of the job.
+     * @param previousState The state of the task before the change, or null if the task was not seen before.
+     * @param task The task, with its new state.
+     */
+    TaskStateChanged(String jobId, TaskState previousState, CloudTask task) {
+        this.jobId = jobId;
+        this.taskId = task.id();
+        this.previousState = previousState;
+        this.state = task.state();
+        this.stateTransitionTime = task.stateTransitionTime();
+        this.exitCode = task.executionInfo() != null ? task.executionInfo().exitCode() : null;
+        this.nodeId = task.nodeInfo() != null ? task.nodeInfo().nodeId() : null;
+    }
+
+    /**
+     * Gets the ID of the job containing the task.
+     *
+     * @return The job ID.
+     */
+    public String jobId() {
+        return this.jobId;
+    }
+
+    /**
+     * Gets the ID of the task.
+     *
+     * @return The task ID.
+     */
+    public String taskId() {
+        return this.taskId;
+    }
+
+    /**
+     * Gets the state of the task before the change.
+     *
+     * @return The previous state, or null if the task was not seen before, such as the tasks of a job when it is first polled.
+     */
+    public TaskState previousState() {
+        return this.previousState;
+    }
+
+    /**
+     * Gets the state of the task after the change.
+     *
+     * @return The new state.
+     */
+    public TaskState state() {
+        return this.state;
+    }
+
+    /**
+     * Gets the time at which the task entered its new state.
+     *
+     * @return The state transition time.
+     */
+    public DateTime stateTransitionTime() {
+        return this.stateTransitionTime;
+    }
+
+    /**
+     * Gets the exit code of the task.
+     *
+     * @return The exit code, or null if the task has not completed.
+     */
+    public Integer exitCode() {
+        return this.exitCode;
+    }
+
+    /**
+     * Gets the compute node which runs or last ran the task.
+     *
+     * @return The ID of the compute node, or null if the task was not scheduled.
+     */
+    public String nodeId() {
+        return this.nodeId;
+    }
+}
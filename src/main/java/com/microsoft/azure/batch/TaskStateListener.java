@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+/**
+ * Receives the task state changes published by a {@link TaskStateWatcher}.
+ *
+ * The methods are called on the worker thread which polled the job. The changes of a job are
+ * received in order, while those of different jobs may be received concurrently, so the methods
+ * should be thread-safe and return quickly.
+ */
+public interface TaskStateListener {
+
+    /**
+     * Called for each task of a watched job whose state changed.
+     *
+     * @param change The state change.
+     */
+    void taskStateChanged(TaskStateChanged change);
+
+    /**
+     * Called when polling a watched job fails. A job which was deleted, and so fails with
+     * {@link BatchErrorCodeStrings#JobNotFound JobNotFound}, is no longer watched. Any other job remains
+     * watched, and is polled again after a longer interval.
+     *
+     * @param jobId The ID of the job.
+     * @param error The exception thrown by the poll.
+     */
+    void pollFailed(String jobId, Exception error);
+}
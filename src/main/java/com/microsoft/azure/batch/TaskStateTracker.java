@@ -0,0 +1,362 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.batch.protocol.models.BatchErrorException;
+import com.microsoft.azure.batch.protocol.models.CloudTask;
+import com.microsoft.azure.batch.protocol.models.TaskExecutionResult;
+import com.microsoft.azure.batch.protocol.models.TaskState;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An in-memory index of the state of the tasks of a set of jobs, answering questions such as
+ * the number of tasks which failed on a compute node without contacting the Batch service.
+ *
+ * The index is filled by the first call to {@link #refresh()}, and each later call lists only the
+ * tasks which changed state since, through a {@link TaskChangeCursor} per job, retrieving only the
+ * properties the index keeps. The state, exit code, execution result and compute node of each task
+ * are held in primitive arrays, with compute node IDs shared between tasks, and tasks are found by
+ * ID through an open-addressing table of array positions rather than a map of boxed positions, so
+ * the index takes little more memory per task than its ID. Deleted tasks remain in the index.
+ *
+ * Queries may be called while a refresh is in progress, and see the jobs it has refreshed so far.
+ */
+public class TaskStateTracker {
+    // The properties of the tasks kept by the index
+    static final DetailLevel TRACKED_FIELDS = new DetailLevel.Builder()
+            .withSelectFields(TaskField.ID, TaskField.STATE, TaskField.STATE_TRANSITION_TIME,
+                    TaskField.EXECUTION_INFO, TaskField.NODE_INFO)
+            .build();
+    private static final TaskState[] STATES = TaskState.values();
+    private static final TaskExecutionResult[] RESULTS = TaskExecutionResult.values();
+    private static final int NONE = -1;
+    private static final int NO_EXIT_CODE = Integer.MIN_VALUE;
+
+    /**
+     * The tasks of a job, one slot per task.
+     */
+    private static final class JobIndex {
+        private final TaskChangeCursor cursor;
+        private String[] taskIds = new String[16];
+        private byte[] states = new byte[16];
+        private byte[] results = new byte[16];
+        private int[] exitCodes = new int[16];
+        private int[] nodes = new int[16];
+        private int size;
+
+        // The slot of each task plus one, at the position given by the hash of its ID, or 0 if empty.
+        // Kept at most half full, so probe sequences stay short.
+        private int[] table = new int[32];
+
+        private JobIndex(String jobId) {
+            this.cursor = new TaskChangeCursor(jobId, TRACKED_FIELDS,
+                    TaskChangeCursor.DEFAULT_OVERLAP_IN_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Gets the slot of a task.
+         *
+         * @return The slot, or NONE if the task is not in the index.
+         */
+        private int find(String taskId) {
+            int mask = table.length - 1;
+            for (int i = hash(taskId) & mask; table[i] != 0; i = (i + 1) & mask) {
+                if (taskIds[table[i] - 1].equals(taskId)) {
+                    return table[i] - 1;
+                }
+            }
+            return NONE;
+        }
+
+        private int slot(String taskId) {
+            int slot = find(taskId);
+            if (slot != NONE) {
+                return slot;
+            }
+            if (size == taskIds.length) {
+                int capacity = size * 2;
+                taskIds = Arrays.copyOf(taskIds, capacity);
+                states = Arrays.copyOf(states, capacity);
+                results = Arrays.copyOf(results, capacity);
+                exitCodes = Arrays.copyOf(exitCodes, capacity);
+                nodes = Arrays.copyOf(nodes, capacity);
+            }
+            taskIds[size] = taskId;
+            if ((size + 1) * 2 > table.length) {
+                table = new int[table.length * 2];
+                for (int i = 0; i < size; i++) {
+                    insert(i);
+                }
+            }
+            insert(size);
+            return size++;
+        }
+
+        private void insert(int slot) {
+            int mask = table.length - 1;
+            int i = hash(taskIds[slot]) & mask;
+            while (table[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            table[i] = slot + 1;
+        }
+
+        private static int hash(String taskId) {
+            // Spreads the high bits of the hash code into the bits used by the mask
+            int h = taskId.hashCode();
+            return h ^ (h >>> 16);
+        }
+    }
+
+    private final TaskOperations taskOperations;
+    private final Iterable<BatchClientBehavior> additionalBehaviors;
+    private final Object refreshLock = new Object();
+
+    // Guarded by this
+    private final Map<String, JobIndex> jobs = new LinkedHashMap<>();
+    private final Map<String, Integer> nodeSlots = new HashMap<>();
+    private final List<String> nodeIds = new ArrayList<>();
+
+    /**
+     * Initializes a new instance of the TaskStateTracker class.
+     *
+     * @param taskOperations The operations used to list the tasks.
+     * @param jobIds The IDs of the jobs whose tasks are tracked.
+     * @param additionalBehaviors The behaviors applied to the list operations, or null.
+     */
+    TaskStateTracker(TaskOperations taskOperations, Collection<String> jobIds, Iterable<BatchClientBehavior> additionalBehaviors) {
+        if (jobIds == null || jobIds.isEmpty()) {
+            throw new IllegalArgumentException("jobIds");
+        }
+        this.taskOperations = taskOperations;
+        this.additionalBehaviors = additionalBehaviors;
+        for (String jobId : jobIds) {
+            jobs.put(jobId, new JobIndex(jobId));
+        }
+    }
+
+    /**
+     * Updates the index with the tasks which changed state since the last refresh.
+     *
+     * @throws BatchErrorException Exception thrown when an error response is received from the Batch service.
+     * @throws IOException Exception thrown when there is an error in serialization/deserialization of data sent to/received from the Batch service.
+     */
+    public void refresh() throws BatchErrorException, IOException {
+        synchronized (refreshLock) {
+            List<JobIndex> indexes;
+            synchronized (this) {
+                indexes = new ArrayList<>(jobs.values());
+            }
+            for (JobIndex index : indexes) {
+                // The cursor is only used under the refresh lock
+                List<CloudTask> changedTasks = taskOperations.listTaskChanges(index.cursor, additionalBehaviors);
+                synchronized (this) {
+                    for (CloudTask task : changedTasks) {
+                        update(index, task);
+                    }
+                }
+            }
+        }
+    }
+
+    private void update(JobIndex index, CloudTask task) {
+        int slot = index.slot(task.id());
+        index.states[slot] = (byte) (task.state() != null ? task.state().ordinal() : NONE);
+        Integer exitCode = task.executionInfo() != null ? task.executionInfo().exitCode() : null;
+        index.exitCodes[slot] = exitCode != null ? exitCode : NO_EXIT_CODE;
+        TaskExecutionResult result = task.executionInfo() != null ? task.executionInfo().result() : null;
+        index.results[slot] = (byte) (result != null ? result.ordinal() : NONE);
+        String nodeId = task.nodeInfo() != null ? task.nodeInfo().nodeId() : null;
+        index.nodes[slot] = nodeId != null ? nodeSlot(nodeId) : NONE;
+    }
+
+    private int nodeSlot(String nodeId) {
+        Integer slot = nodeSlots.get(nodeId);
+        if (slot == null) {
+            slot = nodeIds.size();
+            nodeIds.add(nodeId);
+            nodeSlots.put(nodeId, slot);
+        }
+        return slot;
+    }
+
+    /**
+     * Gets the IDs of the tracked jobs.
+     *
+     * @return The job IDs.
+     */
+    public synchronized Set<String> jobIds() {
+        // A copy, the key set of the index is only safe to read under its lock
+        return Collections.unmodifiableSet(new LinkedHashSet<>(jobs.keySet()));
+    }
+
+    /**
+     * Gets the number of tasks in the index.
+     *
+     * @return The number of tasks of the tracked jobs.
+     */
+    public synchronized int taskCount() {
+        int count = 0;
+        for (JobIndex index : jobs.values()) {
+            count += index.size;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of tasks of the tracked jobs in the specified state.
+     *
+     * @param state The task state.
+     * @return The number of tasks.
+     */
+    public synchronized int countTasks(TaskState state) {
+        int count = 0;
+        for (JobIndex index : jobs.values()) {
+            for (int i = 0; i < index.size; i++) {
+                if (index.states[i] == state.ordinal()) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of tasks of the tracked jobs which completed with the specified result on a compute node.
+     *
+     * @param nodeId The ID of the compute node, or null for any compute node.
+     * @param result The execution result.
+     * @return The number of tasks.
+     */
+    public synchronized int countTasks(String nodeId, TaskExecutionResult result) {
+        int node = NONE;
+        if (nodeId != null) {
+            Integer slot = nodeSlots.get(nodeId);
+            if (slot == null) {
+                return 0;
+            }
+            node = slot;
+        }
+        int count = 0;
+        for (JobIndex index : jobs.values()) {
+            for (int i = 0; i < index.size; i++) {
+                if (index.results[i] == result.ordinal() && (node == NONE || index.nodes[i] == node)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the IDs of the tasks of a job in the specified state.
+     *
+     * @param jobId The ID of the job.
+     * @param state The task state.
+     * @return The task IDs.
+     */
+    public synchronized List<String> taskIds(String jobId, TaskState state) {
+        JobIndex index = index(jobId);
+        List<String> taskIds = new ArrayList<>();
+        for (int i = 0; i < index.size; i++) {
+            if (index.states[i] == state.ordinal()) {
+                taskIds.add(index.taskIds[i]);
+            }
+        }
+        return taskIds;
+    }
+
+    /**
+     * Gets the IDs of the tasks of a job which completed with the specified result.
+     *
+     * @param jobId The ID of the job.
+     * @param result The execution result.
+     * @return The task IDs.
+     */
+    public synchronized List<String> taskIds(String jobId, TaskExecutionResult result) {
+        JobIndex index = index(jobId);
+        List<String> taskIds = new ArrayList<>();
+        for (int i = 0; i < index.size; i++) {
+            if (index.results[i] == result.ordinal()) {
+                taskIds.add(index.taskIds[i]);
+            }
+        }
+        return taskIds;
+    }
+
+    /**
+     * Gets the state of a task.
+     *
+     * @param jobId The ID of the job.
+     * @param taskId The ID of the task.
+     * @return The task state, or null if the task is not in the index.
+     */
+    public synchronized TaskState state(String jobId, String taskId) {
+        JobIndex index = index(jobId);
+        int slot = index.find(taskId);
+        return slot != NONE && index.states[slot] != NONE ? STATES[index.states[slot]] : null;
+    }
+
+    /**
+     * Gets the exit code of a task.
+     *
+     * @param jobId The ID of the job.
+     * @param taskId The ID of the task.
+     * @return The exit code, or null if the task has not completed or is not in the index.
+     */
+    public synchronized Integer exitCode(String jobId, String taskId) {
+        JobIndex index = index(jobId);
+        int slot = index.find(taskId);
+        return slot != NONE && index.exitCodes[slot] != NO_EXIT_CODE ? index.exitCodes[slot] : null;
+    }
+
+    /**
+     * Gets the execution result of a task.
+     *
+     * @param jobId The ID of the job.
+     * @param taskId The ID of the task.
+     * @return The execution result, or null if the task has not completed or is not in the index.
+     */
+    public synchronized TaskExecutionResult executionResult(String jobId, String taskId) {
+        JobIndex index = index(jobId);
+        int slot = index.find(taskId);
+        return slot != NONE && index.results[slot] != NONE ? RESULTS[index.results[slot]] : null;
+    }
+
+    /**
+     * Gets the compute node which runs or last ran a task.
+     *
+     * @param jobId The ID of the job.
+     * @param taskId The ID of the task.
+     * @return The ID of the compute node, or null if the task was not scheduled or is not in the index.
+     */
+    public synchronized String nodeId(String jobId, String taskId) {
+        JobIndex index = index(jobId);
+        int slot = index.find(taskId);
+        return slot != NONE && index.nodes[slot] != NONE ? nodeIds.get(index.nodes[slot]) : null;
+    }
+
+    private JobIndex index(String jobId) {
+        JobIndex index = jobs.get(jobId);
+        if (index == null) {
+            throw new IllegalArgumentException("jobId");
+        }
+        return index;
+    }
+}
@@ -0,0 +1,325 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.batch.interceptor.BatchClientParallelOptions;
+import com.microsoft.azure.batch.interceptor.PollIntervalOptions;
+import com.microsoft.azure.batch.protocol.models.BatchErrorException;
+import com.microsoft.azure.batch.protocol.models.CloudTask;
+import com.microsoft.azure.batch.protocol.models.TaskState;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the tasks of many jobs and publishes their state changes to {@link TaskStateListener listeners}.
+ *
+ * Each job is polled through a {@link TaskChangeCursor}, so a poll lists only the tasks which changed
+ * state since the previous one. The polls of every job share the timer thread and the executor of the
+ * {@link BatchClient}, or the executor set through {@link BatchClientParallelOptions}, with up to its
+ * degree of parallelism, by default 1, polls in flight. The number of threads therefore does not grow
+ * with the number of jobs.
+ *
+ * The interval between the polls of a job drops to the minimum set through {@link PollIntervalOptions}
+ * after a poll which saw changes, and doubles up to the maximum after one which did not, so idle jobs
+ * are polled less and less often. When more jobs are due than can be polled at once, a job which changed
+ * recently, and so has a short interval, is polled ahead of the idle jobs which became due at about the
+ * same time.
+ *
+ * The first poll of a job publishes every task of the job, with no previous state. A job which is
+ * deleted stops being watched once a poll fails with {@link BatchErrorCodeStrings#JobNotFound JobNotFound}.
+ */
+public class TaskStateWatcher implements Closeable {
+
+    /**
+     * A watched job. The cursor and the states are only used by the poll of the job, of which there is one
+     * at a time.
+     */
+    private static final class WatchedJob {
+        private final String jobId;
+        private final TaskChangeCursor cursor;
+        private final Map<String, TaskState> states = new HashMap<>();
+
+        // Guarded by the watcher
+        private long intervalInMillis;
+        private long dueInNanos;
+        private ScheduledFuture<?> timer;
+        private boolean removed;
+
+        private WatchedJob(String jobId, long intervalInMillis) {
+            this.jobId = jobId;
+            this.cursor = new TaskChangeCursor(jobId, TaskStateTracker.TRACKED_FIELDS,
+                    TaskChangeCursor.DEFAULT_OVERLAP_IN_MILLIS, TimeUnit.MILLISECONDS);
+            this.intervalInMillis = intervalInMillis;
+        }
+    }
+
+    /**
+     * Orders the due jobs by the time their next poll would be due, so a job with a short interval is polled
+     * before the idle jobs which became due at about the same time, but not before those waiting for longer.
+     */
+    private static final Comparator<WatchedJob> EARLIEST_DEADLINE_FIRST = new Comparator<WatchedJob>() {
+        @Override
+        public int compare(WatchedJob job1, WatchedJob job2) {
+            return Long.compare(deadline(job1) - deadline(job2), 0);
+        }
+
+        private long deadline(WatchedJob job) {
+            return job.dueInNanos + TimeUnit.MILLISECONDS.toNanos(job.intervalInMillis);
+        }
+    };
+
+    private final TaskOperations taskOperations;
+    private final Iterable<BatchClientBehavior> additionalBehaviors;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final int parallelism;
+    private final long minIntervalInMillis;
+    private final long maxIntervalInMillis;
+    private final List<TaskStateListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Guarded by this
+    private final Map<String, WatchedJob> jobs = new LinkedHashMap<>();
+    private final PriorityQueue<WatchedJob> dueJobs = new PriorityQueue<>(11, EARLIEST_DEADLINE_FIRST);
+    private int activePolls;
+    private boolean closed;
+
+    /**
+     * Initializes a new instance of the TaskStateWatcher class.
+     *
+     * @param taskOperations The operations used to list the tasks.
+     * @param client The client which issues the operations.
+     * @param bhMgr The behaviors of the operations.
+     * @param additionalBehaviors The behaviors applied to the list operations, or null.
+     */
+    TaskStateWatcher(TaskOperations taskOperations, BatchClient client, BehaviorManager bhMgr,
+            Iterable<BatchClientBehavior> additionalBehaviors) {
+        this.taskOperations = taskOperations;
+        this.additionalBehaviors = additionalBehaviors;
+        this.scheduler = client.scheduledExecutorService();
+
+        int parallelism = 1;
+        Executor executor = client.executorService();
+        for (BatchClientBehavior op : bhMgr.getMasterListOfBehaviors()) {
+            if (op instanceof BatchClientParallelOptions) {
+                BatchClientParallelOptions parallelOptions = (BatchClientParallelOptions) op;
+                parallelism = parallelOptions.maxDegreeOfParallelism();
+                if (parallelOptions.executorService() != null) {
+                    executor = parallelOptions.executorService();
+                }
+            }
+        }
+        this.parallelism = parallelism;
+        this.executor = executor;
+
+        PollIntervalOptions intervals = PollSchedule.intervals(bhMgr);
+        this.minIntervalInMillis = intervals.minInterval(TimeUnit.MILLISECONDS);
+        this.maxIntervalInMillis = intervals.maxInterval(TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Adds a listener of the state changes.
+     *
+     * @param listener The listener.
+     */
+    public void addListener(TaskStateListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener of the state changes.
+     *
+     * @param listener The listener.
+     */
+    public void removeListener(TaskStateListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts watching the tasks of a job. The job is polled as soon as possible.
+     *
+     * @param jobId The ID of the job.
+     * @return true if the job was not watched yet.
+     */
+    public synchronized boolean watchJob(String jobId) {
+        if (jobId == null) {
+            throw new IllegalArgumentException("jobId");
+        }
+        if (closed) {
+            throw new IllegalStateException("The watcher is closed.");
+        }
+        if (jobs.containsKey(jobId)) {
+            return false;
+        }
+        WatchedJob job = new WatchedJob(jobId, minIntervalInMillis);
+        jobs.put(jobId, job);
+        job.dueInNanos = System.nanoTime();
+        dueJobs.add(job);
+        dispatch();
+        return true;
+    }
+
+    /**
+     * Stops watching the tasks of a job. A poll of the job in flight completes.
+     *
+     * @param jobId The ID of the job.
+     * @return true if the job was watched.
+     */
+    public synchronized boolean unwatchJob(String jobId) {
+        WatchedJob job = jobs.remove(jobId);
+        if (job == null) {
+            return false;
+        }
+        job.removed = true;
+        dueJobs.remove(job);
+        if (job.timer != null) {
+            job.timer.cancel(false);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the IDs of the watched jobs.
+     *
+     * @return The job IDs.
+     */
+    public synchronized List<String> watchedJobIds() {
+        return new ArrayList<>(jobs.keySet());
+    }
+
+    /**
+     * Stops watching every job. Polls in flight complete, but no further polls are made.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (WatchedJob job : jobs.values()) {
+            job.removed = true;
+            if (job.timer != null) {
+                job.timer.cancel(false);
+            }
+        }
+        jobs.clear();
+        dueJobs.clear();
+    }
+
+    /**
+     * Hands the due jobs to the executor, up to the degree of parallelism.
+     */
+    private void dispatch() {
+        while (!closed && activePolls < parallelism && !dueJobs.isEmpty()) {
+            final WatchedJob job = dueJobs.poll();
+            activePolls++;
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        poll(job);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Try again after the interval of the job
+                activePolls--;
+                schedule(job);
+                return;
+            }
+        }
+    }
+
+    private void schedule(final WatchedJob job) {
+        job.timer = scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (TaskStateWatcher.this) {
+                    if (!job.removed) {
+                        job.dueInNanos = System.nanoTime();
+                        dueJobs.add(job);
+                        dispatch();
+                    }
+                }
+            }
+        }, job.intervalInMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void poll(WatchedJob job) {
+        boolean changed = false;
+        try {
+            List<CloudTask> changedTasks = taskOperations.listTaskChanges(job.cursor, additionalBehaviors);
+            for (CloudTask task : changedTasks) {
+                TaskState previousState = job.states.put(task.id(), task.state());
+                if (previousState != task.state()) {
+                    // Tasks seen for the first time are not churn, or every job would start at the shortest interval
+                    changed |= previousState != null;
+                    publish(new TaskStateChanged(job.jobId, previousState, task));
+                }
+            }
+        } catch (BatchErrorException e) {
+            if (e.body() != null && BatchErrorCodeStrings.JobNotFound.equals(e.body().code())) {
+                // A deleted job is not polled again
+                drop(job);
+            }
+            pollFailed(job, e);
+        } catch (IOException | RuntimeException e) {
+            pollFailed(job, e);
+        } finally {
+            synchronized (this) {
+                activePolls--;
+                job.intervalInMillis = changed ? minIntervalInMillis : Math.min(maxIntervalInMillis, job.intervalInMillis * 2);
+                if (!job.removed) {
+                    schedule(job);
+                }
+                dispatch();
+            }
+        }
+    }
+
+    /**
+     * Stops watching a job from its own poll, unless the job was watched again since that poll started.
+     */
+    private synchronized void drop(WatchedJob job) {
+        if (jobs.get(job.jobId) == job) {
+            jobs.remove(job.jobId);
+        }
+        job.removed = true;
+    }
+
+    private void pollFailed(WatchedJob job, Exception e) {
+        for (TaskStateListener listener : listeners) {
+            try {
+                listener.pollFailed(job.jobId, e);
+            } catch (RuntimeException listenerException) {
+                // A failing listener does not stop the watcher
+            }
+        }
+    }
+
+    private void publish(TaskStateChanged change) {
+        for (TaskStateListener listener : listeners) {
+            try {
+                listener.taskStateChanged(change);
+            } catch (RuntimeException e) {
+                // A failing listener does not stop the watcher
+            }
+        }
+    }
+}
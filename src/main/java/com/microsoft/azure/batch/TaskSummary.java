@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.microsoft.azure.batch.protocol.models.TaskExecutionResult;
+import com.microsoft.azure.batch.protocol.models.TaskState;
+import org.joda.time.DateTime;
+
+/**
+ * The state of a task, as retrieved by {@link TaskOperations#listTaskSummaries(String, DetailLevel, Iterable)}.
+ *
+ * Only the properties needed to follow the progress of a task are requested from the Batch service
+ * and deserialized, so a summary takes a fraction of the memory and parsing time of a
+ * {@link com.microsoft.azure.batch.protocol.models.CloudTask CloudTask}.
+ */
+public class TaskSummary {
+    /**
+     * The $select clause requesting the properties of a summary.
+     */
+    static final String SELECT_CLAUSE = new DetailLevel.Builder()
+            .withSelectFields(TaskField.ID, TaskField.STATE, TaskField.STATE_TRANSITION_TIME, TaskField.EXECUTION_INFO)
+            .build()
+            .selectClause();
+
+    /**
+     * The properties of the execution information which are kept.
+     */
+    private static class ExecutionInfo {
+        @JsonProperty(value = "exitCode")
+        private Integer exitCode;
+
+        @JsonProperty(value = "result")
+        private TaskExecutionResult result;
+    }
+
+    @JsonProperty(value = "id")
+    private String id;
+
+    @JsonProperty(value = "state")
+    private TaskState state;
+
+    @JsonProperty(value = "stateTransitionTime")
+    private DateTime stateTransitionTime;
+
+    @JsonProperty(value = "executionInfo")
+    private ExecutionInfo executionInfo;
+
+    /**
+     * Gets the ID of the task.
+     *
+     * @return The task ID.
+     */
+    public String id() {
+        return this.id;
+    }
+
+    /**
+     * Gets the current state of the task.
+     *
+     * @return The task state.
+     */
+    public TaskState state() {
+        return this.state;
+    }
+
+    /**
+     * Gets the time at which the task entered its current state.
+     *
+     * @return The state transition time.
+     */
+    public DateTime stateTransitionTime() {
+        return this.stateTransitionTime;
+    }
+
+    /**
+     * Gets the exit code of the program specified on the task command line, if the task has completed.
+     *
+     * @return The exit code, or null if the task has not completed or its process could not be started.
+     */
+    public Integer exitCode() {
+        return this.executionInfo != null ? this.executionInfo.exitCode : null;
+    }
+
+    /**
+     * Gets the result of the task execution, if the task has completed.
+     *
+     * @return The execution result, or null if the task has not completed.
+     */
+    public TaskExecutionResult executionResult() {
+        return this.executionInfo != null ? this.executionInfo.result : null;
+    }
+}
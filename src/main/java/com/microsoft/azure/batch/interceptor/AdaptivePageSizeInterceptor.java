@@ -0,0 +1,356 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch.interceptor;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interceptor which sets the maximum page size of list operations from the observed size and latency
+ * of their responses, in place of the fixed page size of a {@link PageSizeInterceptor}.
+ *
+ * The interceptor learns the size in bytes of an item and the time the Batch service takes per item,
+ * separately for each operation, such as listing the tasks of a job, and for each select and expand
+ * clause. The page size of a request is the largest which keeps the response within a byte budget and
+ * a latency target, between a minimum and a maximum page size. Narrow projections, such as a select
+ * clause of the ID and state, are listed in pages of the maximum size, and full entities with their
+ * statistics in smaller pages. The first request of an operation uses the maximum page size.
+ *
+ * The page size is applied to every page of a list operation, including the requests for the next
+ * pages, which are associated with the list operation by its client request ID through the
+ * {@link HttpInterceptor} of the {@link com.microsoft.azure.batch.BatchClient BatchClient}. An instance
+ * should be shared between the list operations it tunes, for example by adding it to the custom
+ * behaviors of the client.
+ */
+public class AdaptivePageSizeInterceptor extends RequestInterceptor {
+
+    private static final int DEFAULT_MIN_PAGE_SIZE = 50;
+    private static final int DEFAULT_MAX_PAGE_SIZE = 1000;
+    private static final long DEFAULT_TARGET_RESPONSE_BYTES = 1024 * 1024;
+    private static final long DEFAULT_TARGET_LATENCY_IN_MILLIS = TimeUnit.SECONDS.toMillis(2);
+
+    private static final String CLIENT_REQUEST_ID_HEADER = "client-request-id";
+    private static final String MAX_RESULTS_PARAMETER = "maxresults";
+
+    private final int minPageSize;
+    private final int maxPageSize;
+    private final long targetResponseBytes;
+    private final long targetLatencyInNanos;
+    private final ConcurrentMap<String, Estimate> estimates = new ConcurrentHashMap<>();
+
+    /**
+     * The size and latency per item of an operation. An observation larger than the estimate replaces
+     * it, so a page following a change to larger items is sized for them, and a smaller one lowers it
+     * gradually.
+     */
+    static final class Estimate {
+        private static final double DECAY = 0.3;
+
+        private double bytesPerItem;
+        private double nanosPerItem;
+
+        synchronized void observe(long bytes, long nanos, int items) {
+            bytesPerItem = update(bytesPerItem, (double) bytes / items);
+            nanosPerItem = update(nanosPerItem, (double) nanos / items);
+        }
+
+        private static double update(double estimate, double observation) {
+            return observation > estimate ? observation : estimate + (observation - estimate) * DECAY;
+        }
+
+        synchronized int pageSize(long targetBytes, long targetNanos, int minPageSize, int maxPageSize) {
+            double pageSize = maxPageSize;
+            if (bytesPerItem > 0) {
+                pageSize = Math.min(pageSize, targetBytes / bytesPerItem);
+            }
+            if (nanosPerItem > 0) {
+                pageSize = Math.min(pageSize, targetNanos / nanosPerItem);
+            }
+            return Math.max(minPageSize, (int) pageSize);
+        }
+    }
+
+    /**
+     * Initializes a new {@link AdaptivePageSizeInterceptor} with page sizes between 50 and 1000 items,
+     * a response budget of 1 MiB and a latency target of 2 seconds.
+     */
+    public AdaptivePageSizeInterceptor() {
+        this(DEFAULT_MIN_PAGE_SIZE, DEFAULT_MAX_PAGE_SIZE, DEFAULT_TARGET_RESPONSE_BYTES, DEFAULT_TARGET_LATENCY_IN_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Initializes a new {@link AdaptivePageSizeInterceptor} for tuning the maximum page size of list operations.
+     *
+     * @param minPageSize The smallest number of items to request in a page.
+     * @param maxPageSize The largest number of items to request in a page.
+     * @param targetResponseBytes The size of the response of a page, in bytes, which the page size aims not to exceed.
+     * @param targetLatency The time to the response of a page which the page size aims not to exceed.
+     * @param unit The unit of the latency target.
+     */
+    public AdaptivePageSizeInterceptor(int minPageSize, int maxPageSize, long targetResponseBytes, long targetLatency, TimeUnit unit) {
+        if (minPageSize <= 0) {
+            throw new IllegalArgumentException("minPageSize");
+        }
+        if (maxPageSize < minPageSize) {
+            throw new IllegalArgumentException("maxPageSize");
+        }
+        if (targetResponseBytes <= 0) {
+            throw new IllegalArgumentException("targetResponseBytes");
+        }
+        if (targetLatency <= 0) {
+            throw new IllegalArgumentException("targetLatency");
+        }
+        this.minPageSize = minPageSize;
+        this.maxPageSize = maxPageSize;
+        this.targetResponseBytes = targetResponseBytes;
+        this.targetLatencyInNanos = unit.toNanos(targetLatency);
+        this.withHandler(new BatchRequestInterceptHandler() {
+            @Override
+            public void modify(Object request) {
+                Class<?> c = request.getClass();
+                try {
+                    // The page size is set on the request to the Batch service
+                    c.getMethod("withMaxResults", Integer.class).invoke(request, AdaptivePageSizeInterceptor.this.maxPageSize);
+
+                    // The client request ID associates the pages of the list operation with this instance
+                    if (c.getMethod("clientRequestId").invoke(request) == null) {
+                        c.getMethod("withClientRequestId", UUID.class).invoke(request, UUID.randomUUID());
+                    }
+                } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException ex) {
+                    // Ignore exception
+                }
+            }
+        });
+    }
+
+    /**
+     * Gets the smallest number of items requested in a page by this {@link AdaptivePageSizeInterceptor} instance.
+     *
+     * @return The minimum page size.
+     */
+    public int minPageSize() {
+        return this.minPageSize;
+    }
+
+    /**
+     * Gets the largest number of items requested in a page by this {@link AdaptivePageSizeInterceptor} instance.
+     *
+     * @return The maximum page size.
+     */
+    public int maxPageSize() {
+        return this.maxPageSize;
+    }
+
+    int pageSize(String operation) {
+        Estimate estimate = estimates.get(operation);
+        if (estimate == null) {
+            return maxPageSize;
+        }
+        return estimate.pageSize(targetResponseBytes, targetLatencyInNanos, minPageSize, maxPageSize);
+    }
+
+    private void observe(String operation, long bytes, long nanos, int items) {
+        Estimate estimate = estimates.get(operation);
+        if (estimate == null) {
+            Estimate newEstimate = new Estimate();
+            estimate = estimates.putIfAbsent(operation, newEstimate);
+            if (estimate == null) {
+                estimate = newEstimate;
+            }
+        }
+        estimate.observe(bytes, nanos, items);
+    }
+
+    /**
+     * Identifies the operation of a request by the collections in its path, leaving out the IDs of
+     * their items, and by its select and expand clauses.
+     */
+    private static String operation(HttpUrl url) {
+        StringBuilder operation = new StringBuilder();
+        List<String> segments = url.pathSegments();
+        for (int i = 0; i < segments.size(); i += 2) {
+            operation.append('/').append(segments.get(i));
+        }
+        operation.append("?$select=").append(url.queryParameter("$select"));
+        operation.append("&$expand=").append(url.queryParameter("$expand"));
+        return operation.toString();
+    }
+
+    /**
+     * The HTTP interceptor which applies the page sizes of {@link AdaptivePageSizeInterceptor} instances to
+     * the requests of the list operations they tune, and measures their responses. Each
+     * {@link com.microsoft.azure.batch.BatchClient BatchClient} owns an instance, added ahead of the
+     * authentication of requests, which covers their query parameters, and with which the list operations of
+     * the client are registered. It is not one of the custom behaviors of the client.
+     *
+     * The list operations are kept by client request ID for 30 minutes after their last page, so the
+     * operations of one client neither see nor evict those of another.
+     */
+    public static final class HttpInterceptor implements Interceptor {
+        private final Cache<String, AdaptivePageSizeInterceptor> listOperations = CacheBuilder.newBuilder()
+                .expireAfterAccess(30, TimeUnit.MINUTES)
+                .maximumSize(10000)
+                .build();
+
+        /**
+         * Associates a list operation with the {@link AdaptivePageSizeInterceptor} which tunes its page size,
+         * by the client request ID of its options. Options of operations other than list operations are ignored.
+         *
+         * @param request The options of the operation, once the behaviors of the operation have been applied to it.
+         * @param tuner The {@link AdaptivePageSizeInterceptor} which tunes the page size of the operation.
+         */
+        public void register(Object request, AdaptivePageSizeInterceptor tuner) {
+            Class<?> c = request.getClass();
+            try {
+                c.getMethod("maxResults");
+                Object clientRequestId = c.getMethod("clientRequestId").invoke(request);
+                if (clientRequestId != null) {
+                    listOperations.put(clientRequestId.toString(), tuner);
+                }
+            } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException ex) {
+                // Ignore exception
+            }
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            String clientRequestId = request.header(CLIENT_REQUEST_ID_HEADER);
+            AdaptivePageSizeInterceptor tuner = clientRequestId != null && "GET".equals(request.method())
+                    ? listOperations.getIfPresent(clientRequestId)
+                    : null;
+            if (tuner == null) {
+                return chain.proceed(request);
+            }
+
+            final String operation = operation(request.url());
+            HttpUrl url = request.url().newBuilder()
+                    .setQueryParameter(MAX_RESULTS_PARAMETER, Integer.toString(tuner.pageSize(operation)))
+                    .build();
+            long start = System.nanoTime();
+            Response response = chain.proceed(request.newBuilder().url(url).build());
+            // The latency is the time to the response, the byte budget covers its transfer
+            long latencyInNanos = System.nanoTime() - start;
+            if (!response.isSuccessful() || response.body() == null) {
+                return response;
+            }
+            ResponseBody body = response.body();
+            PageSource source = new PageSource(body.source(), tuner, operation, latencyInNanos);
+            return response.newBuilder()
+                    .body(ResponseBody.create(body.contentType(), body.contentLength(), Okio.buffer(source)))
+                    .build();
+        }
+    }
+
+    /**
+     * Counts the bytes and the items of a page as it is read, and records them with the latency of the
+     * page once it is read to the end. A page which is not read to the end is not recorded.
+     *
+     * The items are counted as the objects of the array in the root object of the response, with a scan
+     * of the JSON structure which only follows strings and nesting.
+     */
+    static final class PageSource extends ForwardingSource {
+        private final AdaptivePageSizeInterceptor tuner;
+        private final String operation;
+        private final long latencyInNanos;
+        private final Buffer scanBuffer = new Buffer();
+        private final byte[] scanBytes = new byte[8192];
+        private long bytes;
+        private int items;
+        private int depth;
+        private boolean inItemArray;
+        private boolean inString;
+        private boolean escaped;
+        private boolean recorded;
+
+        PageSource(BufferedSource delegate, AdaptivePageSizeInterceptor tuner, String operation, long latencyInNanos) {
+            super(delegate);
+            this.tuner = tuner;
+            this.operation = operation;
+            this.latencyInNanos = latencyInNanos;
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            long read = super.read(sink, byteCount);
+            if (read == -1) {
+                if (!recorded && items > 0) {
+                    recorded = true;
+                    tuner.observe(operation, bytes, latencyInNanos, items);
+                }
+                return read;
+            }
+            bytes += read;
+            sink.copyTo(scanBuffer, sink.size() - read, read);
+            while (scanBuffer.size() > 0) {
+                int count = scanBuffer.read(scanBytes, 0, scanBytes.length);
+                scan(count);
+            }
+            return read;
+        }
+
+        private void scan(int count) {
+            for (int i = 0; i < count; i++) {
+                byte b = scanBytes[i];
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (b == '\\') {
+                        escaped = true;
+                    } else if (b == '"') {
+                        inString = false;
+                    }
+                    continue;
+                }
+                switch (b) {
+                    case '"':
+                        inString = true;
+                        break;
+                    case '{':
+                        if (depth == 2 && inItemArray) {
+                            items++;
+                        }
+                        depth++;
+                        break;
+                    case '[':
+                        if (depth == 1) {
+                            inItemArray = true;
+                        }
+                        depth++;
+                        break;
+                    case '}':
+                    case ']':
+                        depth--;
+                        if (depth == 1) {
+                            inItemArray = false;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+    }
+}
@@ -8,6 +8,8 @@ package com.microsoft.azure.batch.interceptor;
 
 import com.microsoft.azure.batch.BatchClientBehavior;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * Stores options that configure the operation of methods on Batch client parallel operations.
  */
@@ -15,6 +17,10 @@ public class BatchClientParallelOptions extends BatchClientBehavior {
 
     private int maxDegreeOfParallelism;
 
+    private int minDegreeOfParallelism;
+
+    private ExecutorService executorService;
+
     /**
      * Gets the maximum number of concurrent tasks enabled by this {@link BatchClientParallelOptions} instance.
      *
@@ -41,6 +47,73 @@ public class BatchClientParallelOptions extends BatchClientBehavior {
         return this;
     }
 
+    /**
+     * Gets whether the number of concurrent tasks adapts to the response of the Batch service.
+     *
+     * @return true if the number of concurrent tasks is adaptive, false if it is fixed.
+     */
+    public boolean adaptiveDegreeOfParallelism() {
+        return this.minDegreeOfParallelism > 0;
+    }
+
+    /**
+     * Gets the minimum number of concurrent tasks when the number of concurrent tasks is adaptive.
+     *
+     * @return The minimum number of concurrent tasks, or 0 if the number of concurrent tasks is fixed.
+     */
+    public int minDegreeOfParallelism() {
+        return this.minDegreeOfParallelism;
+    }
+
+    /**
+     * Sets the number of concurrent tasks to adapt to the response of the Batch service, within the given bounds.
+     *
+     * The number of concurrent tasks starts at the minimum and grows while request latencies stay
+     * healthy. It is halved when the Batch service throttles requests or requests time out, and the
+     * throttled requests are sent again. The current number is reported by
+     * {@link com.microsoft.azure.batch.BulkAddResult#degreeOfParallelism() BulkAddResult.degreeOfParallelism()}.
+     * Only the operations adding multiple tasks adapt; other operations use the maximum.
+     *
+     * @param minDegreeOfParallelism the minimum number of concurrent tasks.
+     * @param maxDegreeOfParallelism the maximum number of concurrent tasks.
+     * @return The instance of {@link BatchClientParallelOptions}.
+     */
+    public BatchClientParallelOptions withAdaptiveDegreeOfParallelism(int minDegreeOfParallelism, int maxDegreeOfParallelism) {
+        if (minDegreeOfParallelism <= 0) {
+            throw new IllegalArgumentException("minDegreeOfParallelism");
+        }
+        if (maxDegreeOfParallelism < minDegreeOfParallelism) {
+            throw new IllegalArgumentException("maxDegreeOfParallelism");
+        }
+        this.minDegreeOfParallelism = minDegreeOfParallelism;
+        this.maxDegreeOfParallelism = maxDegreeOfParallelism;
+        return this;
+    }
+
+    /**
+     * Gets the {@link ExecutorService} on which concurrent requests are run.
+     *
+     * If no executor service is set, requests run on the executor owned by the
+     * {@link com.microsoft.azure.batch.BatchClient BatchClient} issuing them.
+     * @return The executor service, or null if the client-owned executor is used.
+     */
+    public ExecutorService executorService() {
+        return this.executorService;
+    }
+
+    /**
+     * Sets the {@link ExecutorService} on which concurrent requests are run.
+     *
+     * The executor service is not shut down by the Batch client; its lifetime is managed by the caller.
+     *
+     * @param executorService the executor service, or null to use the client-owned executor.
+     * @return The instance of {@link BatchClientParallelOptions}.
+     */
+    public BatchClientParallelOptions withExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
     /**
      * Initializes a new instance of the {@link BatchClientParallelOptions} class with default values.
      */
@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch.interceptor;
+
+import com.microsoft.azure.batch.BatchClientBehavior;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores options that configure how multiple tasks are added to a job.
+ */
+public class BulkAddOptions extends BatchClientBehavior {
+
+    private boolean continueOnError;
+
+    private int maxTaskRetries;
+
+    private long initialRetryDelayInMillis;
+
+    private long maxRetryDelayInMillis;
+
+    private File journalDirectory;
+
+    private long journalSyncIntervalInMillis;
+
+    /**
+     * Gets whether adding tasks continues after a task is rejected by the Batch service.
+     *
+     * The default value is false.
+     * @return true if the remaining tasks are still added after a task fails.
+     */
+    public boolean continueOnError() {
+        return this.continueOnError;
+    }
+
+    /**
+     * Sets whether adding tasks continues after a task is rejected by the Batch service.
+     *
+     * When set, a task which fails with a client error is recorded in the
+     * {@link com.microsoft.azure.batch.BulkAddResult BulkAddResult} and the remaining tasks are
+     * still added. Errors which affect a whole request, such as a missing job, still stop the operation.
+     *
+     * @param continueOnError true to keep adding tasks after a task fails.
+     * @return The instance of {@link BulkAddOptions}.
+     */
+    public BulkAddOptions withContinueOnError(boolean continueOnError) {
+        this.continueOnError = continueOnError;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of times a task is sent again after the Batch service reports a server error for it.
+     *
+     * The default value is 5.
+     * @return The maximum number of retries of each task.
+     */
+    public int maxTaskRetries() {
+        return this.maxTaskRetries;
+    }
+
+    /**
+     * Sets the maximum number of times a task is sent again after the Batch service reports a server error for it.
+     *
+     * A task which still fails with a server error after the last retry is recorded as a failed task.
+     *
+     * @param maxTaskRetries the maximum number of retries of each task.
+     * @return The instance of {@link BulkAddOptions}.
+     */
+    public BulkAddOptions withMaxTaskRetries(int maxTaskRetries) {
+        if (maxTaskRetries < 0) {
+            throw new IllegalArgumentException("maxTaskRetries");
+        }
+        this.maxTaskRetries = maxTaskRetries;
+        return this;
+    }
+
+    /**
+     * Gets the delay before the first retry of a task, in milliseconds.
+     *
+     * The default value is 1 second.
+     * @return The initial retry delay in milliseconds.
+     */
+    public long initialRetryDelayInMillis() {
+        return this.initialRetryDelayInMillis;
+    }
+
+    /**
+     * Gets the upper bound of the delay before a retry of a task, in milliseconds.
+     *
+     * The default value is 30 seconds.
+     * @return The maximum retry delay in milliseconds.
+     */
+    public long maxRetryDelayInMillis() {
+        return this.maxRetryDelayInMillis;
+    }
+
+    /**
+     * Sets the delays before a task is sent again after a server error.
+     *
+     * The delay doubles with each retry of a task, starting from the initial delay and capped at
+     * the maximum delay. The actual delay is chosen at random between zero and that value, so that
+     * retries from concurrent requests are spread out.
+     *
+     * @param initialRetryDelay the delay before the first retry.
+     * @param maxRetryDelay the upper bound of the delay before a retry.
+     * @param unit the unit of the delays.
+     * @return The instance of {@link BulkAddOptions}.
+     */
+    public BulkAddOptions withRetryDelay(long initialRetryDelay, long maxRetryDelay, TimeUnit unit) {
+        if (initialRetryDelay < 0) {
+            throw new IllegalArgumentException("initialRetryDelay");
+        }
+        if (maxRetryDelay < initialRetryDelay) {
+            throw new IllegalArgumentException("maxRetryDelay");
+        }
+        this.initialRetryDelayInMillis = unit.toMillis(initialRetryDelay);
+        this.maxRetryDelayInMillis = unit.toMillis(maxRetryDelay);
+        return this;
+    }
+
+    /**
+     * Gets the directory holding the journals of accepted tasks.
+     *
+     * @return The journal directory, or null if no journal is kept.
+     */
+    public File journalDirectory() {
+        return this.journalDirectory;
+    }
+
+    /**
+     * Sets the directory holding the journals of accepted tasks.
+     *
+     * When set, the IDs of the tasks accepted by the Batch service are appended to a file per job
+     * in this directory, and tasks already recorded there are skipped without contacting the service.
+     * A submission interrupted by a process failure can then be resumed by adding the same tasks again.
+     * The journal is kept after the submission completes; delete it to add the tasks again. Only one
+     * submission to a job may use the journal at a time; a concurrent submission to the same job fails.
+     *
+     * @param journalDirectory the journal directory, or null to keep no journal.
+     * @return The instance of {@link BulkAddOptions}.
+     */
+    public BulkAddOptions withJournalDirectory(File journalDirectory) {
+        this.journalDirectory = journalDirectory;
+        return this;
+    }
+
+    /**
+     * Gets the maximum time accepted task IDs are held before the journal is synced to storage, in milliseconds.
+     *
+     * The default value is 1 second.
+     * @return The journal sync interval in milliseconds.
+     */
+    public long journalSyncIntervalInMillis() {
+        return this.journalSyncIntervalInMillis;
+    }
+
+    /**
+     * Sets the maximum time accepted task IDs are held before the journal is synced to storage.
+     *
+     * Accepted task IDs are synced by a timer once the interval has elapsed since the previous sync,
+     * and when the submission completes. Tasks recorded after the last sync may be sent again after a
+     * process failure, in which case the Batch service reports them as already existing.
+     *
+     * @param journalSyncInterval the journal sync interval.
+     * @param unit the unit of the interval.
+     * @return The instance of {@link BulkAddOptions}.
+     */
+    public BulkAddOptions withJournalSyncInterval(long journalSyncInterval, TimeUnit unit) {
+        if (journalSyncInterval < 0) {
+            throw new IllegalArgumentException("journalSyncInterval");
+        }
+        this.journalSyncIntervalInMillis = unit.toMillis(journalSyncInterval);
+        return this;
+    }
+
+    /**
+     * Initializes a new instance of the {@link BulkAddOptions} class with default values.
+     */
+    public BulkAddOptions() {
+        this.maxTaskRetries = 5;
+        this.initialRetryDelayInMillis = TimeUnit.SECONDS.toMillis(1);
+        this.maxRetryDelayInMillis = TimeUnit.SECONDS.toMillis(30);
+        this.journalSyncIntervalInMillis = TimeUnit.SECONDS.toMillis(1);
+    }
+
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch.interceptor;
+
+import com.microsoft.azure.batch.BatchClientBehavior;
+
+/**
+ * Stores options that configure how the iterators returned by list operations prefetch pages.
+ */
+public class ListPrefetchOptions extends BatchClientBehavior {
+
+    private final int prefetchDepth;
+
+    /**
+     * Initializes a new instance of the {@link ListPrefetchOptions} class.
+     *
+     * While the items of a page are iterated, up to prefetchDepth following pages are retrieved
+     * in the background, on the executor set through {@link BatchClientParallelOptions} or else on
+     * the executor owned by the {@link com.microsoft.azure.batch.BatchClient BatchClient}. The
+     * memory used by an iterator grows with the prefetch depth.
+     *
+     * @param prefetchDepth the number of pages retrieved ahead of the page being iterated.
+     */
+    public ListPrefetchOptions(int prefetchDepth) {
+        if (prefetchDepth <= 0) {
+            throw new IllegalArgumentException("prefetchDepth");
+        }
+        this.prefetchDepth = prefetchDepth;
+    }
+
+    /**
+     * Gets the number of pages retrieved ahead of the page being iterated.
+     *
+     * @return The prefetch depth.
+     */
+    public int prefetchDepth() {
+        return this.prefetchDepth;
+    }
+}
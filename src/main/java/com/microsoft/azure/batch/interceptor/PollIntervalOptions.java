@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch.interceptor;
+
+import com.microsoft.azure.batch.BatchClientBehavior;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores options that configure how often the methods waiting for a state of the Batch service, such as
+ * {@link com.microsoft.azure.batch.TaskOperations#waitForTasksToComplete(String, long, TimeUnit) waitForTasksToComplete},
+ * poll the service.
+ */
+public class PollIntervalOptions extends BatchClientBehavior {
+
+    private final long minIntervalInMillis;
+
+    private final long maxIntervalInMillis;
+
+    /**
+     * Initializes a new instance of the {@link PollIntervalOptions} class.
+     *
+     * The interval starts at the minimum. It is shortened while the polled state progresses, and doubled
+     * up to the maximum while it does not, so a long wait costs few requests and the end of the wait is
+     * noticed soon after it happens. Intervals are kept in milliseconds, and one shorter than a millisecond
+     * is rounded up to a millisecond, so the service is never polled without a pause.
+     *
+     * @param minInterval The shortest interval between two polls.
+     * @param maxInterval The longest interval between two polls.
+     * @param unit The unit of the intervals.
+     */
+    public PollIntervalOptions(long minInterval, long maxInterval, TimeUnit unit) {
+        if (minInterval <= 0) {
+            throw new IllegalArgumentException("minInterval");
+        }
+        if (maxInterval < minInterval) {
+            throw new IllegalArgumentException("maxInterval");
+        }
+        this.minIntervalInMillis = Math.max(1, unit.toMillis(minInterval));
+        this.maxIntervalInMillis = Math.max(this.minIntervalInMillis, unit.toMillis(maxInterval));
+    }
+
+    /**
+     * Gets the shortest interval between two polls.
+     *
+     * @param unit The unit of the interval.
+     * @return The minimum interval.
+     */
+    public long minInterval(TimeUnit unit) {
+        return unit.convert(this.minIntervalInMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the longest interval between two polls.
+     *
+     * @param unit The unit of the interval.
+     * @return The maximum interval.
+     */
+    public long maxInterval(TimeUnit unit) {
+        return unit.convert(this.maxIntervalInMillis, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch.interceptor;
+
+import com.microsoft.azure.batch.BatchClientBehavior;
+
+/**
+ * Enables the coalescing of concurrent identical reads, such as
+ * {@link com.microsoft.azure.batch.PoolOperations#getPool(String) getPool} and
+ * {@link com.microsoft.azure.batch.JobOperations#getTaskCounts(String) getTaskCounts}.
+ *
+ * When a read is issued while an identical read through the same {@link com.microsoft.azure.batch.BatchClient}
+ * is in flight, it sends no request of its own and returns the result of the read in flight, or throws its
+ * exception. Reads are identical when they are the same operation on the same IDs with the same $select and
+ * $expand clauses and the same {@link ServerTimeoutInterceptor server timeout}. Reads with an If-Match,
+ * If-None-Match, If-Modified-Since, If-Unmodified-Since or ocp-date header are always sent on their own. A read
+ * which joins one in flight sends no client request ID of its own. The result is shared by every coalesced
+ * caller, so it should not be modified.
+ */
+public class RequestCoalescingOptions extends BatchClientBehavior {
+
+    /**
+     * Initializes a new instance of the {@link RequestCoalescingOptions} class.
+     */
+    public RequestCoalescingOptions() {
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AdaptiveConcurrencyLimitTests {
+    private static final long LATENCY_NANOS = 100000000L;
+
+    @Test
+    public void slowStartDoublesTheLimitPerRound() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 20);
+        Assert.assertEquals(2, limit.current());
+
+        completeRound(limit);
+        Assert.assertEquals(4, limit.current());
+        completeRound(limit);
+        Assert.assertEquals(8, limit.current());
+        completeRound(limit);
+        Assert.assertEquals(16, limit.current());
+
+        // Capped at the upper bound
+        completeRound(limit);
+        Assert.assertEquals(20, limit.current());
+        completeRound(limit);
+        Assert.assertEquals(20, limit.current());
+    }
+
+    @Test
+    public void throttlingHalvesTheLimitOncePerRound() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 64);
+        completeRound(limit);
+        completeRound(limit);
+        completeRound(limit);
+        completeRound(limit);
+        Assert.assertEquals(16, limit.current());
+
+        long sentBeforeThrottle = System.nanoTime();
+        limit.onThrottle(sentBeforeThrottle);
+        Assert.assertEquals(8, limit.current());
+
+        // Requests already in flight report the same congestion
+        limit.onThrottle(sentBeforeThrottle);
+        limit.onThrottle(sentBeforeThrottle);
+        Assert.assertEquals(8, limit.current());
+
+        // A request sent after the decrease halves the limit again
+        Thread.sleep(1);
+        limit.onThrottle(System.nanoTime());
+        Assert.assertEquals(4, limit.current());
+    }
+
+    @Test
+    public void limitGrowsByOnePerRoundAfterThrottling() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 64);
+        completeRound(limit);
+        completeRound(limit);
+        completeRound(limit);
+        limit.onThrottle(System.nanoTime());
+        Assert.assertEquals(4, limit.current());
+
+        // Up to one request per round, since each request adds 1/limit as the limit grows
+        for (int round = 0; round < 10; round++) {
+            int before = limit.current();
+            completeRound(limit);
+            Assert.assertTrue(limit.current() - before <= 1);
+        }
+        Assert.assertEquals(13, limit.current());
+    }
+
+    @Test
+    public void limitDoesNotGoBelowTheLowerBound() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(3, 10);
+        for (int i = 0; i < 5; i++) {
+            limit.onThrottle(System.nanoTime() + 1000000000L);
+        }
+        Assert.assertEquals(3, limit.current());
+    }
+
+    @Test
+    public void slowResponsesHoldTheLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 64);
+        completeRound(limit);
+        Assert.assertEquals(8, limit.current());
+
+        // More than twice the average latency
+        limit.onSuccess(LATENCY_NANOS * 3, 8);
+        Assert.assertEquals(8, limit.current());
+
+        // Slow start is over, healthy responses now add about one request per round
+        completeRound(limit);
+        completeRound(limit);
+        Assert.assertEquals(9, limit.current());
+    }
+
+    @Test
+    public void underusedLimitDoesNotGrow() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 64);
+        for (int i = 0; i < 100; i++) {
+            limit.onSuccess(LATENCY_NANOS, 3);
+        }
+        Assert.assertEquals(8, limit.current());
+    }
+
+    /**
+     * Completes as many healthy requests as the current limit allows, each with the limit in flight.
+     */
+    private static void completeRound(AdaptiveConcurrencyLimit limit) {
+        int requests = limit.current();
+        for (int i = 0; i < requests; i++) {
+            limit.onSuccess(LATENCY_NANOS, requests);
+        }
+    }
+}
@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.security.InvalidKeyException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import com.microsoft.azure.storage.CloudStorageAccount;
 import com.microsoft.azure.storage.StorageCredentials;
@@ -31,12 +32,18 @@ import org.junit.Assert;
  */
 abstract class BatchTestBase {
     static BatchClient batchClient;
+    static AuthMode authMode;
 
     public enum AuthMode {
         AAD, SharedKey
     }
 
     static void createClient(AuthMode mode) {
+        authMode = mode;
+        batchClient = openClient(mode);
+    }
+
+    static BatchClient openClient(AuthMode mode) {
         BatchCredentials credentials;
 
         if (mode == AuthMode.AAD) {
@@ -47,7 +54,7 @@ abstract class BatchTestBase {
             credentials = new BatchSharedKeyCredentials(System.getenv("AZURE_BATCH_ENDPOINT"),
                     System.getenv("AZURE_BATCH_ACCOUNT"), System.getenv("AZURE_BATCH_ACCESS_KEY"));
         }
-        batchClient = BatchClient.open(credentials);
+        return BatchClient.open(credentials);
     }
 
     static CloudPool createIfNotExistPaaSPool(String poolId) throws Exception {
@@ -75,22 +82,9 @@ abstract class BatchTestBase {
             batchClient.poolOperations().createPool(addParameter);
         }
 
-        long startTime = System.currentTimeMillis();
-        long elapsedTime = 0L;
-        boolean steady = false;
-        CloudPool pool;
-
         // Wait for the VM to be allocated
-        while (elapsedTime < POOL_STEADY_TIMEOUT_IN_SECONDS) {
-            pool = batchClient.poolOperations().getPool(poolId);
-            if (pool.allocationState() == AllocationState.STEADY) {
-                steady = true;
-                break;
-            }
-            System.out.println("wait 30 seconds for pool steady...");
-            Thread.sleep(30 * 1000);
-            elapsedTime = (new Date()).getTime() - startTime;
-        }
+        boolean steady = batchClient.poolOperations().waitForPool(poolId, PoolReadiness.allocationSteady(),
+                POOL_STEADY_TIMEOUT_IN_SECONDS, TimeUnit.MILLISECONDS);
 
         Assert.assertTrue("The pool did not reach a steady state in the allotted time", steady);
 
@@ -123,22 +117,9 @@ abstract class BatchTestBase {
             batchClient.poolOperations().createPool(addParameter);
         }
 
-        long startTime = System.currentTimeMillis();
-        long elapsedTime = 0L;
-        boolean steady = false;
-        CloudPool pool;
-
         // Wait for the VM to be allocated
-        while (elapsedTime < POOL_STEADY_TIMEOUT_IN_SECONDS) {
-            pool = batchClient.poolOperations().getPool(poolId);
-            if (pool.allocationState() == AllocationState.STEADY) {
-                steady = true;
-                break;
-            }
-            System.out.println("wait 30 seconds for pool steady...");
-            Thread.sleep(30 * 1000);
-            elapsedTime = (new Date()).getTime() - startTime;
-        }
+        boolean steady = batchClient.poolOperations().waitForPool(poolId, PoolReadiness.allocationSteady(),
+                POOL_STEADY_TIMEOUT_IN_SECONDS, TimeUnit.MILLISECONDS);
 
         Assert.assertTrue("The pool did not reach a steady state in the allotted time", steady);
 
@@ -222,33 +203,7 @@ abstract class BatchTestBase {
      */
     static boolean waitForTasksToComplete(BatchClient client, String jobId, int expiryTimeInSeconds)
             throws BatchErrorException, IOException, InterruptedException {
-        long startTime = System.currentTimeMillis();
-        long elapsedTime = 0L;
-
-        while (elapsedTime < expiryTimeInSeconds * 1000) {
-            List<CloudTask> taskCollection = client.taskOperations().listTasks(jobId,
-                    new DetailLevel.Builder().withSelectClause("id, state").build());
-
-            boolean allComplete = true;
-            for (CloudTask task : taskCollection) {
-                if (task.state() != TaskState.COMPLETED) {
-                    allComplete = false;
-                    break;
-                }
-            }
-
-            if (allComplete) {
-                // All tasks completed
-                return true;
-            }
-
-            // Check again after 10 seconds
-            Thread.sleep(10 * 1000);
-            elapsedTime = (new Date()).getTime() - startTime;
-        }
-
-        // Timeout, return false
-        return false;
+        return client.taskOperations().waitForTasksToComplete(jobId, expiryTimeInSeconds, TimeUnit.SECONDS);
     }
 
     static String generateContainerSasToken(CloudBlobContainer container) throws StorageException, InvalidKeyException {
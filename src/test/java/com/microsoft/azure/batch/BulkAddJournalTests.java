@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+public class BulkAddJournalTests {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ScheduledThreadPoolExecutor scheduler;
+
+    @Before
+    public void setup() {
+        scheduler = new ScheduledThreadPoolExecutor(1);
+    }
+
+    @After
+    public void cleanup() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void recordedTasksAreFoundRegardlessOfCase() throws Exception {
+        File directory = folder.getRoot();
+        BulkAddJournal journal = BulkAddJournal.open(directory, "Job1", 0, scheduler);
+        journal.append(Arrays.asList("Task-1", "t\u00e2che-2", "\u4efb\u52a1-3"));
+        journal.close();
+
+        journal = BulkAddJournal.open(directory, "JOB1", 0, scheduler);
+        try {
+            Assert.assertTrue(journal.contains("task-1"));
+            Assert.assertTrue(journal.contains("T\u00c2CHE-2"));
+            Assert.assertTrue(journal.contains("\u4efb\u52a1-3"));
+            Assert.assertFalse(journal.contains("task-4"));
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void incompleteLineIsDiscarded() throws Exception {
+        File directory = folder.getRoot();
+        BulkAddJournal journal = BulkAddJournal.open(directory, "job", 0, scheduler);
+        journal.append(Collections.singletonList("task1"));
+        journal.close();
+
+        // A crash in the middle of an append
+        FileOutputStream out = new FileOutputStream(journal.file(), true);
+        out.write("task2".getBytes("UTF-8"));
+        out.close();
+
+        journal = BulkAddJournal.open(directory, "job", 0, scheduler);
+        try {
+            Assert.assertTrue(journal.contains("task1"));
+            Assert.assertFalse(journal.contains("task2"));
+            Assert.assertEquals("task1\n".length(), journal.file().length());
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void journalInUseCannotBeOpened() throws Exception {
+        File directory = folder.getRoot();
+        BulkAddJournal journal = BulkAddJournal.open(directory, "job", 0, scheduler);
+        try {
+            BulkAddJournal.open(directory, "JOB", 0, scheduler);
+            Assert.fail("A journal in use should not be opened again");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().contains("in use"));
+        } finally {
+            journal.close();
+        }
+
+        // Released once closed
+        BulkAddJournal.open(directory, "job", 0, scheduler).close();
+    }
+
+    @Test
+    public void appendsAreSyncedByATimer() throws Exception {
+        BulkAddJournal journal = BulkAddJournal.open(folder.getRoot(), "job", 60000, scheduler);
+        try {
+            journal.append(Collections.singletonList("task1"));
+            journal.append(Collections.singletonList("task2"));
+            // One sync is pending for both appends
+            Assert.assertEquals(1, scheduler.getQueue().size());
+        } finally {
+            journal.close();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.batch.interceptor.BulkAddOptions;
+import com.microsoft.azure.batch.protocol.models.TaskAddParameter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class BulkTaskSubmitterTests {
+
+    @Test
+    public void retryDelayDoublesUpToTheMaximum() {
+        Assert.assertEquals(1000, BulkTaskSubmitter.retryDelayCeilingInMillis(1, 1000, 30000));
+        Assert.assertEquals(2000, BulkTaskSubmitter.retryDelayCeilingInMillis(2, 1000, 30000));
+        Assert.assertEquals(4000, BulkTaskSubmitter.retryDelayCeilingInMillis(3, 1000, 30000));
+        Assert.assertEquals(16000, BulkTaskSubmitter.retryDelayCeilingInMillis(5, 1000, 30000));
+        Assert.assertEquals(30000, BulkTaskSubmitter.retryDelayCeilingInMillis(6, 1000, 30000));
+        Assert.assertEquals(30000, BulkTaskSubmitter.retryDelayCeilingInMillis(1000, 1000, 30000));
+    }
+
+    @Test
+    public void retryDelayDoesNotOverflow() {
+        Assert.assertEquals(Long.MAX_VALUE, BulkTaskSubmitter.retryDelayCeilingInMillis(100, 3, Long.MAX_VALUE));
+        Assert.assertEquals(0, BulkTaskSubmitter.retryDelayCeilingInMillis(100, 0, 30000));
+        Assert.assertEquals(500, BulkTaskSubmitter.retryDelayCeilingInMillis(10, 500, 500));
+    }
+
+    @Test
+    public void retryOptionsAreValidated() {
+        BulkAddOptions options = new BulkAddOptions().withMaxTaskRetries(0).withRetryDelay(1, 2, TimeUnit.SECONDS);
+        Assert.assertEquals(0, options.maxTaskRetries());
+        Assert.assertEquals(1000, options.initialRetryDelayInMillis());
+        Assert.assertEquals(2000, options.maxRetryDelayInMillis());
+
+        try {
+            options.withMaxTaskRetries(-1);
+            Assert.fail("A negative number of retries should be rejected");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("maxTaskRetries", e.getMessage());
+        }
+        try {
+            options.withRetryDelay(2, 1, TimeUnit.SECONDS);
+            Assert.fail("A maximum delay below the initial delay should be rejected");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("maxRetryDelay", e.getMessage());
+        }
+    }
+
+    @Test
+    public void serverErrorsFindTheirTasksById() {
+        // A full chunk in which every task failed with a server error
+        List<BulkTaskSubmitter.PendingTask> taskList = new ArrayList<>(100);
+        for (int i = 0; i < 100; i++) {
+            TaskAddParameter parameter = new TaskAddParameter().withId("task" + i).withCommandLine("cmd /c echo " + i);
+            taskList.add(new BulkTaskSubmitter.PendingTask(parameter, parameter, 40));
+        }
+
+        Map<String, BulkTaskSubmitter.PendingTask> tasksById = BulkTaskSubmitter.indexById(taskList);
+        Assert.assertEquals(taskList.size(), tasksById.size());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertSame(taskList.get(i), tasksById.get("task" + i));
+        }
+        Assert.assertNull(tasksById.get("task100"));
+    }
+}
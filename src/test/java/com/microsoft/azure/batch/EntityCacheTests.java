@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.batch.protocol.models.BatchErrorException;
+import com.microsoft.azure.batch.protocol.models.CloudPool;
+import com.microsoft.azure.serializer.AzureJacksonAdapter;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import org.junit.Assert;
+import org.junit.Test;
+import retrofit2.Response;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class EntityCacheTests {
+
+    @Test
+    public void eachCallerGetsItsOwnCopy() throws Exception {
+        EntityCache cache = new EntityCache(10, 1, TimeUnit.MINUTES, new AzureJacksonAdapter());
+        FakePoolGet get = new FakePoolGet("\"0x1\"");
+        String key = EntityCache.key("pools/pool1", null, null);
+
+        CloudPool first = cache.get(key, get);
+        first.withDisplayName("modified").withTargetDedicatedNodes(42);
+
+        CloudPool second = cache.get(key, get);
+        Assert.assertEquals(1, get.notModified.get());
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals("pool1", second.id());
+        Assert.assertEquals("pool one", second.displayName());
+        Assert.assertEquals(3, (int) second.targetDedicatedNodes());
+        Assert.assertEquals("\"0x1\"", second.eTag());
+
+        second.withDisplayName("modified again");
+        Assert.assertEquals("pool one", cache.get(key, get).displayName());
+        Assert.assertEquals(2, get.notModified.get());
+    }
+
+    @Test
+    public void changedEntityReplacesTheCachedCopy() throws Exception {
+        EntityCache cache = new EntityCache(10, 1, TimeUnit.MINUTES, new AzureJacksonAdapter());
+        FakePoolGet get = new FakePoolGet("\"0x1\"");
+        String key = EntityCache.key("pools/pool1", null, null);
+        cache.get(key, get);
+
+        get.eTag = "\"0x2\"";
+        get.targetDedicatedNodes = 5;
+        Assert.assertEquals(5, (int) cache.get(key, get).targetDedicatedNodes());
+        Assert.assertEquals(5, (int) cache.get(key, get).targetDedicatedNodes());
+        Assert.assertEquals(1, get.notModified.get());
+    }
+
+    /**
+     * Answers 304 Not Modified when the If-None-Match header matches the current ETag of the pool.
+     */
+    private static final class FakePoolGet implements EntityCache.ConditionalGet<CloudPool> {
+        private final AtomicInteger notModified = new AtomicInteger();
+        private volatile String eTag;
+        private volatile int targetDedicatedNodes = 3;
+
+        private FakePoolGet(String eTag) {
+            this.eTag = eTag;
+        }
+
+        @Override
+        public EntityCache.Entry<CloudPool> get(String ifNoneMatch) {
+            if (eTag.equals(ifNoneMatch)) {
+                notModified.incrementAndGet();
+                okhttp3.Response rawResponse = new okhttp3.Response.Builder()
+                        .request(new Request.Builder().url("https://account.region.batch.azure.com/pools/pool1").build())
+                        .protocol(Protocol.HTTP_1_1).code(304).message("Not Modified").build();
+                Response<ResponseBody> response = Response.error(ResponseBody.create(null, ""), rawResponse);
+                throw new BatchErrorException("Not Modified", response);
+            }
+            CloudPool pool = new CloudPool().withId("pool1").withDisplayName("pool one")
+                    .withTargetDedicatedNodes(targetDedicatedNodes).withETag(eTag);
+            return new EntityCache.Entry<>(pool, eTag);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.Page;
+import com.microsoft.azure.PagedList;
+import com.microsoft.azure.batch.auth.BatchSharedKeyCredentials;
+import com.microsoft.azure.batch.interceptor.BatchClientParallelOptions;
+import com.microsoft.azure.batch.protocol.models.BatchError;
+import com.microsoft.azure.batch.protocol.models.BatchErrorException;
+import com.microsoft.azure.batch.protocol.models.PageImpl;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class PartitionedIteratorTests {
+    private static final int PAGES = 3;
+    private static final int ITEMS_PER_PAGE = 4;
+
+    private static BatchClient client;
+
+    @BeforeClass
+    public static void setup() {
+        // Nothing is sent to the account, the client only provides the executor of the workers
+        client = BatchClient.open(new BatchSharedKeyCredentials("https://account.region.batch.azure.com", "account", "a2V5"));
+    }
+
+    @Test
+    public void everyPartitionIsListed() {
+        Set<String> items = iterate(new FakeLister(), Arrays.asList("pool1", "pool2", "pool3", "pool4"));
+        Assert.assertEquals(4 * PAGES * ITEMS_PER_PAGE, items.size());
+    }
+
+    @Test
+    public void removedPartitionIsSkipped() {
+        FakeLister lister = new FakeLister();
+        lister.failures.put("pool2", 0);
+        Set<String> items = iterate(lister, Arrays.asList("pool1", "pool2", "pool3"));
+        Assert.assertEquals(2 * PAGES * ITEMS_PER_PAGE, items.size());
+        Assert.assertFalse(items.contains("pool2/0/0"));
+    }
+
+    @Test
+    public void partitionRemovedWhileListedKeepsItsReturnedPages() {
+        FakeLister lister = new FakeLister();
+        lister.failures.put("pool2", 2);
+        Set<String> items = iterate(lister, Arrays.asList("pool1", "pool2", "pool3"));
+        // A paged list retrieves the page after its current one, so the third page fails the move to the second
+        Assert.assertEquals(2 * PAGES * ITEMS_PER_PAGE + ITEMS_PER_PAGE, items.size());
+        Assert.assertTrue(items.contains("pool2/0/0"));
+        Assert.assertFalse(items.contains("pool2/1/0"));
+    }
+
+    @Test
+    public void otherErrorsStopTheListing() {
+        FakeLister lister = new FakeLister();
+        lister.failures.put("pool2", 1);
+        lister.errorCode = BatchErrorCodeStrings.OperationTimedOut;
+        try {
+            iterate(lister, Arrays.asList("pool1", "pool2", "pool3"));
+            Assert.fail("An error other than a removed partition should stop the listing");
+        } catch (BatchErrorException e) {
+            Assert.assertEquals(BatchErrorCodeStrings.OperationTimedOut, e.body().code());
+        }
+    }
+
+    private static Set<String> iterate(FakeLister lister, List<String> partitions) {
+        List<BatchClientBehavior> behaviors = new ArrayList<>();
+        behaviors.add(new BatchClientParallelOptions(2));
+        PartitionedIterator<String> iterator = PartitionedIterator.create(lister, partitions, 10, client,
+                new BehaviorManager(null, behaviors));
+        Set<String> items = new HashSet<>();
+        try {
+            while (iterator.hasNext()) {
+                Assert.assertTrue(items.add(iterator.next()));
+            }
+        } finally {
+            iterator.close();
+        }
+        return items;
+    }
+
+    /**
+     * Lists pages of items named after their partition, page and position, failing a partition at a page.
+     */
+    private static final class FakeLister implements PartitionedIterator.KeyedPartitionLister<String, String> {
+        private final Map<String, Integer> failures = new HashMap<>();
+        private volatile String errorCode = BatchErrorCodeStrings.PoolNotFound;
+
+        @Override
+        public PagedList<String> list(final String partition) {
+            return new PagedList<String>(page(partition, 0)) {
+                @Override
+                public Page<String> nextPage(String nextPageLink) {
+                    return page(partition, Integer.parseInt(nextPageLink));
+                }
+            };
+        }
+
+        private Page<String> page(String partition, int index) {
+            Integer failure = failures.get(partition);
+            if (failure != null && failure == index) {
+                throw new BatchErrorException("Error listing " + partition, null, new BatchError().withCode(errorCode));
+            }
+            List<String> items = new ArrayList<>();
+            for (int i = 0; i < ITEMS_PER_PAGE; i++) {
+                items.add(partition + "/" + index + "/" + i);
+            }
+            return new PageImpl<String>().setItems(items).setNextPageLink(index + 1 < PAGES ? Integer.toString(index + 1) : null);
+        }
+
+        @Override
+        public String convert(String partition, String item) {
+            return item;
+        }
+
+        @Override
+        public boolean isRemoved(String partition, BatchErrorException e) {
+            return BatchErrorCodeStrings.PoolNotFound.equals(e.body().code());
+        }
+    }
+}
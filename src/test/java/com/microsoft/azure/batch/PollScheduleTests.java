@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.batch.interceptor.PollIntervalOptions;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class PollScheduleTests {
+
+    @Test
+    public void intervalsBelowAMillisecondAreRoundedUp() {
+        PollIntervalOptions options = new PollIntervalOptions(500, 900, TimeUnit.MICROSECONDS);
+        Assert.assertEquals(1, options.minInterval(TimeUnit.MILLISECONDS));
+        Assert.assertEquals(1, options.maxInterval(TimeUnit.MILLISECONDS));
+
+        options = new PollIntervalOptions(500, 5000, TimeUnit.MICROSECONDS);
+        Assert.assertEquals(1, options.minInterval(TimeUnit.MILLISECONDS));
+        Assert.assertEquals(5, options.maxInterval(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void invalidIntervalsAreRejected() {
+        try {
+            new PollIntervalOptions(0, 1, TimeUnit.SECONDS);
+            Assert.fail("A minimum interval of zero should be rejected");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("minInterval", e.getMessage());
+        }
+        try {
+            new PollIntervalOptions(2, 1, TimeUnit.SECONDS);
+            Assert.fail("A maximum interval below the minimum should be rejected");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("maxInterval", e.getMessage());
+        }
+    }
+
+    @Test
+    public void waitEndsOnceTheTimeoutElapses() throws Exception {
+        PollSchedule schedule = schedule(new PollIntervalOptions(10, 40, TimeUnit.MILLISECONDS), 200);
+        long start = System.nanoTime();
+        int polls = 1;
+        while (schedule.awaitNextPoll(false)) {
+            polls++;
+        }
+        long elapsedInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assert.assertTrue(elapsedInMillis >= 190);
+        // 10, 20, 40, 40... milliseconds apart, the last pause cut short by the timeout
+        Assert.assertTrue("polls: " + polls, polls >= 4 && polls <= 9);
+        Assert.assertFalse(schedule.awaitNextPoll(true));
+    }
+
+    @Test
+    public void progressShortensTheInterval() throws Exception {
+        PollSchedule schedule = schedule(new PollIntervalOptions(10, 80, TimeUnit.MILLISECONDS), 10000);
+        List<Long> pauses = new ArrayList<>();
+        boolean[] progress = { false, false, false, false, true, true };
+        for (boolean progressed : progress) {
+            long start = System.nanoTime();
+            Assert.assertTrue(schedule.awaitNextPoll(progressed));
+            pauses.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        // 10, 20, 40, 80, then 40 and 20 milliseconds
+        Assert.assertTrue(pauses.toString(), pauses.get(3) >= 80);
+        Assert.assertTrue(pauses.toString(), pauses.get(4) >= 40 && pauses.get(4) < 80);
+        Assert.assertTrue(pauses.toString(), pauses.get(5) >= 20 && pauses.get(5) < 40);
+    }
+
+    private static PollSchedule schedule(PollIntervalOptions options, long timeoutInMillis) {
+        List<BatchClientBehavior> behaviors = new ArrayList<>();
+        behaviors.add(options);
+        return PollSchedule.create(timeoutInMillis, TimeUnit.MILLISECONDS, new BehaviorManager(null, behaviors));
+    }
+}
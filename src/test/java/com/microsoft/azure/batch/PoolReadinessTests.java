@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.batch.protocol.models.AllocationState;
+import com.microsoft.azure.batch.protocol.models.CloudPool;
+import com.microsoft.azure.batch.protocol.models.NodeCounts;
+import com.microsoft.azure.batch.protocol.models.PoolNodeCounts;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PoolReadinessTests {
+
+    @Test
+    public void allocationSteadyDoesNotNeedNodeCounts() {
+        PoolReadiness readiness = PoolReadiness.allocationSteady();
+        Assert.assertFalse(readiness.needsNodeCounts());
+        Assert.assertTrue(readiness.isReady(new CloudPool().withAllocationState(AllocationState.STEADY), null));
+        Assert.assertFalse(readiness.isReady(new CloudPool().withAllocationState(AllocationState.RESIZING), null));
+    }
+
+    @Test
+    public void nodesReadyCountsIdleAndRunningNodes() {
+        PoolReadiness readiness = PoolReadiness.nodesReady(0.5);
+        Assert.assertTrue(readiness.needsNodeCounts());
+        CloudPool pool = new CloudPool().withAllocationState(AllocationState.RESIZING)
+                .withTargetDedicatedNodes(3).withTargetLowPriorityNodes(2);
+
+        // Half of 5 nodes is rounded up to 3
+        Assert.assertFalse(readiness.isReady(pool, nodeCounts(1, 1, 0)));
+        Assert.assertTrue(readiness.isReady(pool, nodeCounts(1, 1, 1)));
+        Assert.assertTrue(readiness.isReady(pool, nodeCounts(0, 0, 3)));
+
+        // Starting nodes are not ready
+        PoolNodeCounts starting = new PoolNodeCounts().withPoolId("pool")
+                .withDedicated(new NodeCounts().withStarting(3).withIdle(2));
+        Assert.assertFalse(readiness.isReady(pool, starting));
+    }
+
+    @Test
+    public void nodesReadyOfAnEmptyPool() {
+        CloudPool pool = new CloudPool().withAllocationState(AllocationState.STEADY).withTargetDedicatedNodes(0);
+        PoolNodeCounts none = new PoolNodeCounts().withPoolId("pool").withDedicated(new NodeCounts()).withLowPriority(new NodeCounts());
+        Assert.assertTrue(PoolReadiness.nodesReady(1).isReady(pool, none));
+        Assert.assertFalse(PoolReadiness.nodesReady(1).isReady(pool.withTargetDedicatedNodes(1), none));
+    }
+
+    @Test
+    public void fractionIsValidated() {
+        try {
+            PoolReadiness.nodesReady(1.5);
+            Assert.fail("A fraction above 1 should be rejected");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("fraction", e.getMessage());
+        }
+    }
+
+    @Test
+    public void customConditionsGetNodeCounts() {
+        PoolReadiness readiness = new PoolReadiness() {
+            @Override
+            public boolean isReady(CloudPool pool, PoolNodeCounts nodeCounts) {
+                return nodeCounts.dedicated().idle() > 0;
+            }
+        };
+        Assert.assertTrue(readiness.needsNodeCounts());
+    }
+
+    private static PoolNodeCounts nodeCounts(int dedicatedIdle, int dedicatedRunning, int lowPriorityIdle) {
+        return new PoolNodeCounts().withPoolId("pool")
+                .withDedicated(new NodeCounts().withIdle(dedicatedIdle).withRunning(dedicatedRunning))
+                .withLowPriority(new NodeCounts().withIdle(lowPriorityIdle));
+    }
+}
@@ -7,9 +7,11 @@
 package com.microsoft.azure.batch;
 
 import com.microsoft.azure.batch.auth.BatchApplicationTokenCredentials;
+import com.microsoft.azure.batch.interceptor.BatchClientParallelOptions;
 import org.junit.*;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import com.microsoft.azure.batch.protocol.models.*;
 
 public class PoolTests extends BatchTestBase {
@@ -91,27 +93,29 @@ public class PoolTests extends BatchTestBase {
 
             long startTime = System.currentTimeMillis();
             long elapsedTime = 0L;
-            boolean steady = false;
-            CloudPool pool = null;
 
             // Wait for the VM to be allocated
-            while (elapsedTime < POOL_STEADY_TIMEOUT_IN_SECONDS) {
-                pool = batchClient.poolOperations().getPool(poolId);
-                Assert.assertNotNull(pool);
-
-                if (pool.allocationState() == AllocationState.STEADY) {
-                    steady = true;
-                    break;
-                }
-                System.out.println("wait 120 seconds for pool steady...");
-                Thread.sleep(120 * 1000);
-                elapsedTime = (new Date()).getTime() - startTime;
-            }
+            boolean steady = batchClient.poolOperations().waitForPool(poolId, PoolReadiness.allocationSteady(),
+                    POOL_STEADY_TIMEOUT_IN_SECONDS, TimeUnit.MILLISECONDS);
 
             Assert.assertTrue("The pool did not reach a steady state in the allotted time", steady);
+            CloudPool pool = batchClient.poolOperations().getPool(poolId);
+            Assert.assertNotNull(pool);
             Assert.assertEquals(POOL_VM_COUNT, (long) pool.currentDedicatedNodes());
             Assert.assertEquals(POOL_LOW_PRI_VM_COUNT, (long) pool.currentLowPriorityNodes());
 
+            // Wait for the nodes to be ready
+            Assert.assertTrue("The nodes were not ready in the allotted time", batchClient.poolOperations().waitForPool(poolId,
+                    PoolReadiness.nodesReady(1), POOL_STEADY_TIMEOUT_IN_SECONDS, TimeUnit.MILLISECONDS));
+            PoolNodeCounts readyNodeCounts = null;
+            for (PoolNodeCounts counts : batchClient.accountOperations().listPoolNodeCounts()) {
+                if (counts.poolId().equals(poolId)) {
+                    readyNodeCounts = counts;
+                }
+            }
+            Assert.assertNotNull(readyNodeCounts);
+            Assert.assertEquals(POOL_VM_COUNT + POOL_LOW_PRI_VM_COUNT, PoolReadiness.readyNodes(readyNodeCounts));
+
             List<ComputeNode> computeNodes = batchClient.computeNodeOperations().listComputeNodes(poolId);
             List<InboundEndpoint> inboundEndpoints = computeNodes.get(0).endpointConfiguration().inboundEndpoints();
             Assert.assertEquals(2, inboundEndpoints.size());
@@ -122,6 +126,27 @@ public class PoolTests extends BatchTestBase {
             Assert.assertTrue(inboundEndpoint.name().startsWith("testinbound."));
             Assert.assertTrue(inboundEndpoints.get(1).name().startsWith("SSHRule"));
 
+            // LIST the nodes of two pools of the account concurrently, tagged with their pool
+            Map<String, Integer> accountNodeCounts = new HashMap<>();
+            List<BatchClientBehavior> parallelBehaviors = new ArrayList<>();
+            parallelBehaviors.add(new BatchClientParallelOptions(2));
+            PartitionedIterator<PoolComputeNode> accountNodes = batchClient.computeNodeOperations().iterateComputeNodesInAccount(
+                    String.format("id eq '%s' or id eq '%s'", poolId, livePool.id()), null, parallelBehaviors);
+            try {
+                while (accountNodes.hasNext()) {
+                    PoolComputeNode node = accountNodes.next();
+                    Assert.assertNotNull(node.computeNode().id());
+                    Integer count = accountNodeCounts.get(node.poolId());
+                    accountNodeCounts.put(node.poolId(), count == null ? 1 : count + 1);
+                }
+            } finally {
+                accountNodes.close();
+            }
+            Assert.assertEquals(2, accountNodeCounts.size());
+            Assert.assertEquals(computeNodes.size(), (int) accountNodeCounts.get(poolId));
+            Assert.assertEquals(batchClient.computeNodeOperations().listComputeNodes(livePool.id()).size(),
+                    (int) accountNodeCounts.get(livePool.id()));
+
             // CHECK POOL NODE COUNTS
             PoolNodeCounts poolNodeCount = null;
             List<PoolNodeCounts> poolNodeCounts = batchClient.accountOperations().listPoolNodeCounts();
@@ -137,6 +162,15 @@ public class PoolTests extends BatchTestBase {
             Assert.assertEquals(2, poolNodeCount.lowPriority().total());
             Assert.assertEquals(0, poolNodeCount.dedicated().total());
 
+            // GET through the entity cache, which returns a copy of the cached pool while it is unchanged
+            BatchClient cachingClient = openClient(authMode).withEntityCache(100, 5, TimeUnit.MINUTES);
+            CloudPool cachedPool = cachingClient.poolOperations().getPool(poolId);
+            cachedPool.withTargetDedicatedNodes(42);
+            CloudPool cachedPoolCopy = cachingClient.poolOperations().getPool(poolId);
+            Assert.assertNotSame(cachedPool, cachedPoolCopy);
+            Assert.assertEquals(cachedPool.eTag(), cachedPoolCopy.eTag());
+            Assert.assertEquals(POOL_VM_COUNT, (long) cachedPoolCopy.targetDedicatedNodes());
+
             // RESIZE
             batchClient.poolOperations().resizePool(poolId, 1, 1);
 
@@ -144,6 +178,10 @@ public class PoolTests extends BatchTestBase {
             Assert.assertEquals(1, (long) pool.targetDedicatedNodes());
             Assert.assertEquals(1, (long) pool.targetLowPriorityNodes());
 
+            cachedPool = cachingClient.poolOperations().getPool(poolId);
+            Assert.assertEquals(pool.eTag(), cachedPool.eTag());
+            Assert.assertEquals(1, (long) cachedPool.targetDedicatedNodes());
+
             // DELETE
             boolean deleted = false;
             batchClient.poolOperations().deletePool(poolId);
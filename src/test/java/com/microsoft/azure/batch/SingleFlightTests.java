@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch;
+
+import com.microsoft.azure.batch.auth.BatchSharedKeyCredentials;
+import com.microsoft.azure.batch.interceptor.RequestCoalescingOptions;
+import com.microsoft.azure.batch.protocol.models.BatchErrorException;
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingleFlightTests {
+    private static final int CALLERS = 8;
+
+    private static BatchClient client;
+
+    @BeforeClass
+    public static void setup() {
+        // Nothing is sent to the account, the client only holds the reads in flight
+        client = BatchClient.open(new BatchSharedKeyCredentials("https://account.region.batch.azure.com", "account", "a2V5"));
+    }
+
+    @Test
+    public void concurrentIdenticalReadsShareOneRead() throws Exception {
+        BlockingRead read = new BlockingRead(1);
+        List<Caller> callers = start(read, false, SingleFlight.key("getPool", null, null, null, "pool1"));
+        awaitBlocked(callers);
+        read.release.countDown();
+
+        for (Caller caller : callers) {
+            caller.join();
+            Assert.assertNull(caller.error);
+            Assert.assertEquals(Integer.valueOf(1), caller.result);
+        }
+        Assert.assertEquals(1, read.reads.get());
+    }
+
+    @Test
+    public void conditionalReadsAreSentOnTheirOwn() throws Exception {
+        // Every read blocks until all of them are in flight, which only happens when none is coalesced
+        BlockingRead read = new BlockingRead(CALLERS);
+        boolean conditional = SingleFlight.isConditional(null, "\"0x1\"", null, null, null);
+        Assert.assertTrue(conditional);
+        List<Caller> callers = start(read, conditional, SingleFlight.key("getPool", null, null, null, "pool1"));
+        Assert.assertTrue(read.inFlight.await(10, TimeUnit.SECONDS));
+        read.release.countDown();
+
+        for (Caller caller : callers) {
+            caller.join();
+            Assert.assertNull(caller.error);
+        }
+        Assert.assertEquals(CALLERS, read.reads.get());
+    }
+
+    @Test
+    public void readsWithRequestConditionsAreConditional() {
+        Assert.assertFalse(SingleFlight.isConditional(null, null, null, null, null));
+        Assert.assertTrue(SingleFlight.isConditional("\"0x1\"", null, null, null, null));
+        Assert.assertTrue(SingleFlight.isConditional(null, null, DateTime.now(), null, null));
+        Assert.assertTrue(SingleFlight.isConditional(null, null, null, DateTime.now(), null));
+        Assert.assertTrue(SingleFlight.isConditional(null, null, null, null, DateTime.now()));
+    }
+
+    @Test
+    public void keyDistinguishesTheServerTimeout() {
+        String key = SingleFlight.key("getTask", "id,state", null, null, "job1", "task1");
+        Assert.assertEquals(key, SingleFlight.key("getTask", "id,state", null, null, "job1", "task1"));
+        Assert.assertNotEquals(key, SingleFlight.key("getTask", "id,state", null, 30, "job1", "task1"));
+        Assert.assertNotEquals(key, SingleFlight.key("getTask", "id", null, null, "job1", "task1"));
+        Assert.assertNotEquals(key, SingleFlight.key("getTask", "id,state", null, null, "job1", "task2"));
+    }
+
+    private static List<Caller> start(BlockingRead read, boolean conditional, String key) {
+        List<BatchClientBehavior> behaviors = new ArrayList<>();
+        behaviors.add(new RequestCoalescingOptions());
+        List<Caller> callers = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            Caller caller = new Caller(new BehaviorManager(null, behaviors), read, conditional, key);
+            caller.start();
+            callers.add(caller);
+        }
+        return callers;
+    }
+
+    /**
+     * Waits until every caller is blocked, either in the read or waiting for the read in flight.
+     */
+    private static void awaitBlocked(List<Caller> callers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        for (Caller caller : callers) {
+            while (caller.getState() != Thread.State.WAITING && caller.getState() != Thread.State.TIMED_WAITING) {
+                Assert.assertTrue("The callers did not block", System.nanoTime() < deadline);
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    /**
+     * Counts its reads, each of which blocks until it is released.
+     */
+    private static final class BlockingRead implements SingleFlight.Read<Integer> {
+        private final AtomicInteger reads = new AtomicInteger();
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch inFlight;
+
+        private BlockingRead(int expectedReads) {
+            this.inFlight = new CountDownLatch(expectedReads);
+        }
+
+        @Override
+        public Integer read() throws BatchErrorException, IOException {
+            int read = reads.incrementAndGet();
+            inFlight.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return read;
+        }
+    }
+
+    private static final class Caller extends Thread {
+        private final BehaviorManager bhMgr;
+        private final BlockingRead read;
+        private final boolean conditional;
+        private final String key;
+        private volatile Integer result;
+        private volatile Throwable error;
+
+        private Caller(BehaviorManager bhMgr, BlockingRead read, boolean conditional, String key) {
+            this.bhMgr = bhMgr;
+            this.read = read;
+            this.conditional = conditional;
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result = SingleFlight.coalesce(client, bhMgr, conditional, key, read);
+            } catch (Throwable e) {
+                error = e;
+            }
+        }
+    }
+}
@@ -6,8 +6,17 @@
 
 package com.microsoft.azure.batch;
 
+import com.microsoft.azure.PagedList;
 import com.microsoft.azure.batch.auth.BatchSharedKeyCredentials;
+import com.microsoft.azure.batch.interceptor.AdaptivePageSizeInterceptor;
 import com.microsoft.azure.batch.interceptor.BatchClientParallelOptions;
+import com.microsoft.azure.batch.interceptor.BatchRequestInterceptHandler;
+import com.microsoft.azure.batch.interceptor.BulkAddOptions;
+import com.microsoft.azure.batch.interceptor.ListPrefetchOptions;
+import com.microsoft.azure.batch.interceptor.PageSizeInterceptor;
+import com.microsoft.azure.batch.interceptor.PollIntervalOptions;
+import com.microsoft.azure.batch.interceptor.RequestCoalescingOptions;
+import com.microsoft.azure.batch.interceptor.RequestInterceptor;
 import com.microsoft.azure.batch.protocol.models.*;
 import com.microsoft.azure.storage.blob.CloudBlobContainer;
 import org.joda.time.DateTime;
@@ -19,7 +28,14 @@ import org.junit.Test;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class TaskTests  extends BatchTestBase {
     private static CloudPool livePool;
@@ -317,6 +333,768 @@ public class TaskTests  extends BatchTestBase {
     }
 
 
+    @Test
+    public void testAddMultiTasksWithExecutorService() throws Exception {
+        String jobId = getStringWithUserNamePrefix("-testAddMultiTasksWithExecutorService-" + (new Date()).toString().replace(' ', '-').replace(':', '-').replace('.', '-'));
+
+        PoolInformation poolInfo = new PoolInformation();
+        poolInfo.withPoolId(livePool.id());
+        batchClient.jobOperations().createJob(jobId, poolInfo);
+
+        int TASK_COUNT=1000;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // CREATE
+            List<TaskAddParameter> tasksToAdd = new ArrayList<>();
+            for (int i=0; i<TASK_COUNT; i++)
+            {
+                TaskAddParameter addParameter = new TaskAddParameter();
+                addParameter.withId(String.format("mytask%d", i)).withCommandLine(String.format("cmd /c echo hello %d",i));
+                tasksToAdd.add(addParameter);
+            }
+            BatchClientParallelOptions option = new BatchClientParallelOptions(10).withExecutorService(executor);
+            Collection<BatchClientBehavior> behaviors = new HashSet<>();
+            behaviors.add(option);
+            batchClient.taskOperations().createTasks(jobId, tasksToAdd, behaviors);
+
+            // LIST
+            List<CloudTask> tasks = batchClient.taskOperations().listTasks(jobId);
+            Assert.assertNotNull(tasks);
+            Assert.assertTrue(tasks.size() == TASK_COUNT);
+        } finally {
+            executor.shutdown();
+            try {
+                batchClient.jobOperations().deleteJob(jobId);
+            } catch (Exception e) {
+                // Ignore here
+            }
+        }
+    }
+
+
+    @Test
+    public void testAddMultiTasksFromIterator() throws Exception {
+        String jobId = getStringWithUserNamePrefix("-testAddMultiTasksFromIterator-" + (new Date()).toString().replace(' ', '-').replace(':', '-').replace('.', '-'));
+
+        PoolInformation poolInfo = new PoolInformation();
+        poolInfo.withPoolId(livePool.id());
+        batchClient.jobOperations().createJob(jobId, poolInfo);
+
+        final int TASK_COUNT=1000;
+
+        try {
+            // CREATE, generating the tasks as they are read
+            Iterator<TaskAddParameter> tasksToAdd = new Iterator<TaskAddParameter>() {
+                private int i = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return i < TASK_COUNT;
+                }
+
+                @Override
+                public TaskAddParameter next() {
+                    TaskAddParameter addParameter = new TaskAddParameter();
+                    addParameter.withId(String.format("mytask%d", i)).withCommandLine(String.format("cmd /c echo hello %d",i));
+                    i++;
+                    return addParameter;
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+            BatchClientParallelOptions option = new BatchClientParallelOptions(10);
+            Collection<BatchClientBehavior> behaviors = new HashSet<>();
+            behaviors.add(option);
+            batchClient.taskOperations().createTasks(jobId, tasksToAdd, behaviors);
+
+            // LIST
+            List<CloudTask> tasks = batchClient.taskOperations().listTasks(jobId);
+            Assert.assertNotNull(tasks);
+            Assert.assertTrue(tasks.size() == TASK_COUNT);
+        } finally {
+            try {
+                batchClient.jobOperations().deleteJob(jobId);
+            } catch (Exception e) {
+                // Ignore here
+            }
+        }
+    }
+
+
+    @Test
+    public void testAddMultiTasksAsync() throws Exception {
+        String jobId = getStringWithUserNamePrefix("-testAddMultiTasksAsync-" + (new Date()).toString().replace(' ', '-').replace(':', '-').replace('.', '-'));
+
+        PoolInformation poolInfo = new PoolInformation();
+        poolInfo.withPoolId(livePool.id());
+        batchClient.jobOperations().createJob(jobId, poolInfo);
+
+        int TASK_COUNT=1000;
+
+        try {
+            // CREATE
+            List<TaskAddParameter> tasksToAdd = new ArrayList<>();
+            for (int i=0; i<TASK_COUNT; i++)
+            {
+                TaskAddParameter addParameter = new TaskAddParameter();
+                addParameter.withId(String.format("mytask%d", i)).withCommandLine(String.format("cmd /c echo hello %d",i));
+                tasksToAdd.add(addParameter);
+            }
+            BatchClientParallelOptions option = new BatchClientParallelOptions(10);
+            Collection<BatchClientBehavior> behaviors = new HashSet<>();
+            behaviors.add(option);
+            final AtomicInteger progressCount = new AtomicInteger();
+            BulkAddResult result = batchClient.taskOperations().createTasksAsync(jobId, tasksToAdd, behaviors,
+                    new BulkAddProgressListener() {
+                        @Override
+                        public void chunkCompleted(BulkAddResult progress) {
+                            progressCount.incrementAndGet();
+                        }
+                    }, null).get(5, TimeUnit.MINUTES);
+
+            Assert.assertEquals(TASK_COUNT, result.tasksAccepted());
+            Assert.assertTrue(progressCount.get() > 0 && progressCount.get() <= result.chunksSent());
+
+            // LIST
+            List<CloudTask> tasks = batchClient.taskOperations().listTasks(jobId);
+            Assert.assertNotNull(tasks);
+            Assert.assertTrue(tasks.size() == TASK_COUNT);
+        } finally {
+            try {
+                batchClient.jobOperations().deleteJob(jobId);
+            } catch (Exception e) {
+                // Ignore here
+            }
+        }
+    }
+
+
+    @Test
+    public void testAddMultiTasksWithAdaptiveParallelism() throws Exception {
+        String jobId = getStringWithUserNamePrefix("-testAddMultiTasksWithAdaptiveParallelism-" + (new Date()).toString().replace(' ', '-').replace(':', '-').replace('.', '-'));
+
+        PoolInformation poolInfo = new PoolInformation();
+        poolInfo.withPoolId(livePool.id());
+        batchClient.jobOperations().createJob(jobId, poolInfo);
+
+        int TASK_COUNT=1000;
+
+        try {
+            // CREATE
+            List<TaskAddParameter> tasksToAdd = new ArrayList<>();
+            for (int i=0; i<TASK_COUNT; i++)
+            {
+                TaskAddParameter addParameter = new TaskAddParameter();
+                addParameter.withId(String.format("mytask%d", i)).withCommandLine(String.format("cmd /c echo hello %d",i));
+                tasksToAdd.add(addParameter);
+            }
+            BatchClientParallelOptions option = new BatchClientParallelOptions().withAdaptiveDegreeOfParallelism(1, 20);
+            Collection<BatchClientBehavior> behaviors = new HashSet<>();
+            behaviors.add(option);
+            BulkAddResult result = batchClient.taskOperations().createTasks(jobId, tasksToAdd.iterator(), behaviors);
+
+            Assert.assertEquals(TASK_COUNT, result.tasksAccepted());
+            Assert.assertTrue(result.degreeOfParallelism() >= 1 && result.degreeOfParallelism() <= 20);
+
+            // LIST
+            List<CloudTask> tasks = batchClient.taskOperations().listTasks(jobId);
+            Assert.assertNotNull(tasks);
+            Assert.assertTrue(tasks.size() == TASK_COUNT);
+        } finally {
+            try {
+                batchClient.jobOperations().deleteJob(jobId);
+            } catch (Exception e) {
+                // Ignore here
+            }
+        }
+    }
+
+
+    @Test
+    public void testAddMultiTasksWithJournal() throws Exception {
+        String jobId = getStringWithUserNamePrefix("-testAddMultiTasksWithJournal-" + (new Date()).toString().replace(' ', '-').replace(':', '-').replace('.', '-'));
+
+        PoolInformation poolInfo = new PoolInformation();
+        poolInfo.withPoolId(livePool.id());
+        batchClient.jobOperations().createJob(jobId, poolInfo);
+
+        int TASK_COUNT=1000;
+        File journalDirectory = File.createTempFile("journal", "");
+        journalDirectory.delete();
+
+        try {
+            // CREATE
+            List<TaskAddParameter> tasksToAdd = new ArrayList<>();
+            for (int i=0; i<TASK_COUNT; i++)
+            {
+                TaskAddParameter addParameter = new TaskAddParameter();
+                addParameter.withId(String.format("mytask%d", i)).withCommandLine(String.format("cmd /c echo hello %d",i));
+                tasksToAdd.add(addParameter);
+            }
+            Collection<BatchClientBehavior> behaviors = new HashSet<>();
+            behaviors.add(new BatchClientParallelOptions(10));
+            behaviors.add(new BulkAddOptions().withJournalDirectory(journalDirectory));
+
+            // Submit the first half, then resume with every task
+            BulkAddResult result = batchClient.taskOperations().createTasks(jobId, tasksToAdd.subList(0, TASK_COUNT / 2).iterator(), behaviors);
+            Assert.assertEquals(TASK_COUNT / 2, result.tasksAccepted());
+            result = batchClient.taskOperations().createTasks(jobId, tasksToAdd.iterator(), behaviors);
+            Assert.assertEquals(TASK_COUNT / 2, result.tasksSkipped());
+            Assert.assertEquals(TASK_COUNT / 2, result.tasksAccepted());
+
+            // LIST
+            List<CloudTask> tasks = batchClient.taskOperations().listTasks(jobId);
+            Assert.assertNotNull(tasks);
+            Assert.assertTrue(tasks.size() == TASK_COUNT);
+        } finally {
+            try {
+                batchClient.jobOperations().deleteJob(jobId);
+            } catch (Exception e) {
+                // Ignore here
+            }
+            File[] journals = journalDirectory.listFiles();
+            if (journals != null) {
+                for (File journal : journals) {
+                    journal.delete();
+                }
+            }
+            journalDirectory.delete();
+        }
+    }
+
+
+    @Test
+    public void testAddMultiTasksToMultipleJobs() throws Exception {
+        String jobIdPrefix = getStringWithUserNamePrefix("-testAddMultiTasksToMultipleJobs-" + (new Date()).toString().replace(' ', '-').replace(':', '-').replace('.', '-'));
+
+        PoolInformation poolInfo = new PoolInformation();
+        poolInfo.withPoolId(livePool.id());
+
+        int JOB_COUNT=3;
+        int TASK_COUNT=500;
+        List<String> jobIds = new ArrayList<>();
+
+        try {
+            // CREATE
+            Map<String, Iterator<TaskAddParameter>> tasksByJob = new LinkedHashMap<>();
+            for (int j=0; j<JOB_COUNT; j++)
+            {
+                String jobId = jobIdPrefix + "-" + j;
+                batchClient.jobOperations().createJob(jobId, poolInfo);
+                jobIds.add(jobId);
+
+                List<TaskAddParameter> tasksToAdd = new ArrayList<>();
+                for (int i=0; i<TASK_COUNT; i++)
+                {
+                    TaskAddParameter addParameter = new TaskAddParameter();
+                    addParameter.withId(String.format("mytask%d", i)).withCommandLine(String.format("cmd /c echo hello %d",i));
+                    tasksToAdd.add(addParameter);
+                }
+                tasksByJob.put(jobId, tasksToAdd.iterator());
+            }
+            BatchClientParallelOptions option = new BatchClientParallelOptions(10);
+            Collection<BatchClientBehavior> behaviors = new HashSet<>();
+            behaviors.add(option);
+            Map<String, BulkAddResult> results = batchClient.taskOperations().createTasks(tasksByJob, behaviors);
+
+            Assert.assertEquals(JOB_COUNT, results.size());
+            for (String jobId : jobIds) {
+                Assert.assertEquals(TASK_COUNT, results.get(jobId).tasksAccepted());
+
+                // LIST
+                List<CloudTask> tasks = batchClient.taskOperations().listTasks(jobId);
+                Assert.assertNotNull(tasks);
+                Assert.assertTrue(tasks.size() == TASK_COUNT);
+            }
+        } finally {
+            for (String jobId : jobIds) {
+                try {
+                    batchClient.jobOperations().deleteJob(jobId);
+                } catch (Exception e) {
+                    // Ignore here
+                }
+            }
+        }
+    }
+
+
+    @Test
+    public void testAddMultiTasksToMultipleJobsWithMissingJob() throws Exception {
+        String jobId = getStringWithUserNamePrefix("-testAddMultiTasksToMultipleJobsWithMissingJob-" + (new Date()).toString().replace(' ', '-').replace(':', '-').replace('.', '-'));
+        String missingJobId = jobId + "-missing";
+
+        PoolInformation poolInfo = new PoolInformation();
+        poolInfo.withPoolId(livePool.id());
+        batchClient.jobOperations().createJob(jobId, poolInfo);
+
+        int TASK_COUNT=50;
+
+        try {
+            Map<String, Iterator<TaskAddParameter>> tasksByJob = new LinkedHashMap<>();
+            for (String id : new String[] { missingJobId, jobId }) {
+                List<TaskAddParameter> tasksToAdd = new ArrayList<>();
+                for (int i=0; i<TASK_COUNT; i++)
+                {
+                    TaskAddParameter addParameter = new TaskAddParameter();
+                    addParameter.withId(String.format("mytask%d", i)).withCommandLine(String.format("cmd /c echo hello %d",i));
+                    tasksToAdd.add(addParameter);
+                }
+                tasksByJob.put(id, tasksToAdd.iterator());
+            }
+
+            try {
+                batchClient.taskOperations().createTasks(tasksByJob, null);
+                Assert.fail("Adding tasks to a missing job should fail");
+            } catch (BulkAddErrorException err) {
+                // The job which exists is still processed to completion
+                Assert.assertEquals(1, err.results().size());
+                Assert.assertEquals(TASK_COUNT, err.results().get(jobId).tasksAccepted());
+
+                Assert.assertEquals(1, err.failures().size());
+                RuntimeException failure = err.failures().get(missingJobId);
+                Assert.assertTrue(failure instanceof BatchErrorException);
+                Assert.assertEquals(BatchErrorCodeStrings.JobNotFound, ((BatchErrorException) failure).body().code());
+                Assert.assertSame(failure, err.getCause());
+            }
+        } finally {
+            try {
+                batchClient.jobOperations().deleteJob(jobId);
+            } catch (Exception e) {
+                // Ignore here
+            }
+        }
+    }
+
+
+    @Test
+    public void testIterateTasks() throws Exception {
+        String jobId = getStringWithUserNamePrefix("-testIterateTasks-" + (new Date()).toString().replace(' ', '-').replace(':', '-').replace('.', '-'));
+
+        PoolInformation poolInfo = new PoolInformation();
+        poolInfo.withPoolId(livePool.id());
+        batchClient.jobOperations().createJob(jobId, poolInfo);
+
+        int TASK_COUNT=1000;
+
+        try {
+            // CREATE
+            List<TaskAddParameter> tasksToAdd = new ArrayList<>();
+            for (int i=0; i<TASK_COUNT; i++)
+            {
+                TaskAddParameter addParameter = new TaskAddParameter();
+                addParameter.withId(String.format("mytask%d", i)).withCommandLine(String.format("cmd /c echo hello %d",i));
+                tasksToAdd.add(addParameter);
+            }
+            batchClient.taskOperations().createTasks(jobId, tasksToAdd);
+
+            // ITERATE, several pages
+            Collection<BatchClientBehavior> behaviors = new HashSet<>();
+            behaviors.add(new PageSizeInterceptor(100));
+            Iterator<CloudTask> tasks = batchClient.taskOperations().iterateTasks(jobId, null, behaviors);
+            Set<String> taskIds = new HashSet<>();
+            while (tasks.hasNext()) {
+                taskIds.add(tasks.next().id());
+            }
+            Assert.assertEquals(TASK_COUNT, taskIds.size());
+
+            // ITERATE, prefetching pages in the background
+            behaviors.add(new ListPrefetchOptions(2));
+            tasks = batchClient.taskOperations().iterateTasks(jobId, null, behaviors);
+            taskIds.clear();
+            while (tasks.hasNext()) {
+                taskIds.add(tasks.next().id());
+            }
+            Assert.assertEquals(TASK_COUNT, taskIds.size());
+
+            // ITERATE, one partition per leading digit of the task number
+            PartitionedIterator<CloudTask> partitionedTasks = batchClient.taskOperations().iterateTasksInPartitions(
+                    jobId, ListPartitions.byNumericIdSuffix("mytask"), null, behaviors);
+            taskIds.clear();
+            try {
+                while (partitionedTasks.hasNext()) {
+                    Assert.assertTrue(taskIds.add(partitionedTasks.next().id()));
+                }
+            } finally {
+                partitionedTasks.close();
+            }
+            Assert.assertEquals(TASK_COUNT, taskIds.size());
+
+            // LIST summaries
+            taskIds.clear();
+            for (TaskSummary summary : batchClient.taskOperations().listTaskSummaries(jobId, null, behaviors)) {
+                Assert.assertNotNull(summary.state());
+                taskIds.add(summary.id());
+            }
+            Assert.assertEquals(TASK_COUNT, taskIds.size());
+
+            // LIST selected properties
+            DetailLevel detailLevel = new DetailLevel.Builder().withSelectFields(TaskField.ID, TaskField.STATE).build();
+            Assert.assertEquals("id,state", detailLevel.selectClause());
+            CloudTask task = batchClient.taskOperations().listTasks(jobId, detailLevel).get(0);
+            Assert.assertNotNull(task.state());
+            Assert.assertNull(task.commandLine());
+
+            // LIST with a page size tuned to a small response budget
+            List<BatchClientBehavior> tunedBehaviors = new ArrayList<>();
+            tunedBehaviors.add(new AdaptivePageSizeInterceptor(10, 1000, 16 * 1024, 30, TimeUnit.SECONDS));
+            int[] firstPageSizes = new int[2];
+            for (int round = 0; round < 2; round++) {
+                PagedList<CloudTask> tunedTasks = batchClient.taskOperations().listTasks(jobId, null, tunedBehaviors);
+                firstPageSizes[round] = tunedTasks.currentPage().items().size();
+                List<String> roundTaskIds = new ArrayList<>();
+                Iterator<CloudTask> tunedTaskIterator = new PagedIterator<>(tunedTasks);
+                while (tunedTaskIterator.hasNext()) {
+                    roundTaskIds.add(tunedTaskIterator.next().id());
+                }
+                Assert.assertEquals(TASK_COUNT, roundTaskIds.size());
+                Assert.assertEquals(TASK_COUNT, new HashSet<>(roundTaskIds).size());
+            }
+            // The first list learns the size of a task from a page of the maximum size, the second fits the budget
+            Assert.assertEquals(TASK_COUNT, firstPageSizes[0]);
+            Assert.assertTrue(firstPageSizes[1] >= 10);
+            Assert.assertTrue(firstPageSizes[1] < TASK_COUNT / 10);
+        } finally {
+            try {
+                batchClient.jobOperations().deleteJob(jobId);
+            } catch (Exception e) {
+                // Ignore here
+            }
+        }
+    }
+
+    @Test
+    public void testWaitForTasksToCompleteTimesOut() throws Exception {
+        String jobId = getStringWithUserNamePrefix("-testWaitForTasksToCompleteTimesOut-" + (new Date()).toString().replace(' ', '-').replace(':', '-').replace('.', '-'));
+
+        PoolInformation poolInfo = new PoolInformation();
+        poolInfo.withPoolId(livePool.id());
+        batchClient.jobOperations().createJob(jobId, poolInfo);
+
+        try {
+            // A task which runs for five minutes
+            batchClient.taskOperations().createTask(jobId, new TaskAddParameter().withId("mytask").withCommandLine("cmd /c ping -n 300 127.0.0.1"));
+
+            List<BatchClientBehavior> pollBehaviors = new ArrayList<>();
+            pollBehaviors.add(new PollIntervalOptions(500, 2000, TimeUnit.MILLISECONDS));
+            long start = System.nanoTime();
+            Assert.assertFalse(batchClient.taskOperations().waitForTasksToComplete(jobId, 10, TimeUnit.SECONDS, pollBehaviors));
+            long elapsedInSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+            Assert.assertTrue(elapsedInSeconds >= 9);
+            Assert.assertTrue(elapsedInSeconds < 60);
+
+            // A timeout of zero polls once
+            Assert.assertFalse(batchClient.taskOperations().waitForTasksToComplete(jobId, 0, TimeUnit.SECONDS, pollBehaviors));
+        } finally {
+            try {
+                batchClient.jobOperations().deleteJob(jobId);
+            } catch (Exception e) {
+                // Ignore here
+            }
+        }
+    }
+
+    @Test
+    public void testListSubtasks() throws Exception {
+        String jobId = getStringWithUserNamePrefix("-testListSubtasks-" + (new Date()).toString().replace(' ', '-').replace(':', '-').replace('.', '-'));
+
+        // Multi-instance tasks need a pool with inter-node communication
+        String poolId = getStringWithUserNamePrefix("-testMultiInstancePool");
+        if (!batchClient.poolOperations().existsPool(poolId)) {
+            CloudServiceConfiguration configuration = new CloudServiceConfiguration().withOsFamily("4").withOsVersion("*");
+            PoolAddParameter addParameter = new PoolAddParameter().withId(poolId)
+                    .withTargetDedicatedNodes(2).withVmSize("Small")
+                    .withCloudServiceConfiguration(configuration).withEnableInterNodeCommunication(true);
+            batchClient.poolOperations().createPool(addParameter);
+        }
+        Assert.assertTrue(batchClient.poolOperations().waitForPool(poolId, PoolReadiness.nodesReady(1.0),
+                10, TimeUnit.MINUTES));
+
+        PoolInformation poolInfo = new PoolInformation();
+        poolInfo.withPoolId(poolId);
+        batchClient.jobOperations().createJob(jobId, poolInfo);
+
+        try {
+            // CREATE two multi-instance tasks of two instances each, and an ordinary task
+            List<TaskAddParameter> tasksToAdd = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                MultiInstanceSettings multiInstanceSettings = new MultiInstanceSettings()
+                        .withNumberOfInstances(2).withCoordinationCommandLine("cmd /c echo coordinating");
+                tasksToAdd.add(new TaskAddParameter().withId("mytask" + i).withCommandLine("cmd /c echo hello")
+                        .withMultiInstanceSettings(multiInstanceSettings));
+            }
+            tasksToAdd.add(new TaskAddParameter().withId("mytask2").withCommandLine("cmd /c echo hello"));
+            batchClient.taskOperations().createTasks(jobId, tasksToAdd);
+            Assert.assertTrue(batchClient.taskOperations().waitForTasksToComplete(jobId, 10, TimeUnit.MINUTES));
+
+            // LIST the subtasks of the tasks concurrently
+            List<String> subtaskTaskIds = Arrays.asList("mytask0", "mytask1", "mytask2");
+            List<BatchClientBehavior> parallelBehaviors = new ArrayList<>();
+            parallelBehaviors.add(new BatchClientParallelOptions(2));
+            Map<String, List<SubtaskInformation>> subtasks = batchClient.taskOperations().listSubtasks(jobId, subtaskTaskIds, null, parallelBehaviors);
+            Assert.assertEquals(subtaskTaskIds, new ArrayList<>(subtasks.keySet()));
+
+            // The subtasks of a multi-instance task are its instances other than the primary task
+            for (int i = 0; i < 2; i++) {
+                List<SubtaskInformation> taskSubtasks = subtasks.get("mytask" + i);
+                Assert.assertEquals(1, taskSubtasks.size());
+                Assert.assertEquals(1, (int) taskSubtasks.get(0).id());
+                Assert.assertEquals(SubtaskState.COMPLETED, taskSubtasks.get(0).state());
+            }
+            Assert.assertTrue(subtasks.get("mytask2").isEmpty());
+
+            // The same subtasks as listing them one task at a time
+            Assert.assertEquals(subtasks.get("mytask0").size(), batchClient.taskOperations().listSubtasks(jobId, "mytask0").size());
+        } finally {
+            try {
+                batchClient.jobOperations().deleteJob(jobId);
+            } catch (Exception e) {
+                // Ignore here
+            }
+        }
+    }
+
+
+    @Test
+    public void testStreamTasks() throws Exception {
+        String jobId = getStringWithUserNamePrefix("-testStreamTasks-" + (new Date()).toString().replace(' ', '-').replace(':', '-').replace('.', '-'));
+
+        PoolInformation poolInfo = new PoolInformation();
+        poolInfo.withPoolId(livePool.id());
+        batchClient.jobOperations().createJob(jobId, poolInfo);
+
+        int TASK_COUNT=1000;
+
+        try {
+            // CREATE
+            List<TaskAddParameter> tasksToAdd = new ArrayList<>();
+            for (int i=0; i<TASK_COUNT; i++)
+            {
+                TaskAddParameter addParameter = new TaskAddParameter();
+                addParameter.withId(String.format("mytask%d", i)).withCommandLine(String.format("cmd /c echo hello %d",i));
+                tasksToAdd.add(addParameter);
+            }
+            batchClient.taskOperations().createTasks(jobId, tasksToAdd);
+
+            // STREAM, deserializing each task as it is read, over several pages
+            Collection<BatchClientBehavior> behaviors = new HashSet<>();
+            behaviors.add(new PageSizeInterceptor(100));
+            StreamingIterator<CloudTask> streamedTasks = batchClient.taskOperations().streamTasks(jobId, null, behaviors);
+            Set<String> taskIds = new HashSet<>();
+            try {
+                while (streamedTasks.hasNext()) {
+                    CloudTask task = streamedTasks.next();
+                    Assert.assertNotNull(task.commandLine());
+                    Assert.assertTrue(taskIds.add(task.id()));
+                }
+            } finally {
+                streamedTasks.close();
+            }
+            Assert.assertEquals(TASK_COUNT, taskIds.size());
+
+            // STREAM summaries
+            StreamingIterator<TaskSummary> streamedSummaries = batchClient.taskOperations().streamTaskSummaries(jobId, null, behaviors);
+            taskIds.clear();
+            try {
+                while (streamedSummaries.hasNext()) {
+                    TaskSummary summary = streamedSummaries.next();
+                    Assert.assertNotNull(summary.state());
+                    taskIds.add(summary.id());
+                }
+            } finally {
+                streamedSummaries.close();
+            }
+            Assert.assertEquals(TASK_COUNT, taskIds.size());
+
+            // A stream closed early returns no more tasks
+            streamedTasks = batchClient.taskOperations().streamTasks(jobId, null, behaviors);
+            Assert.assertNotNull(streamedTasks.next());
+            streamedTasks.close();
+            Assert.assertFalse(streamedTasks.hasNext());
+        } finally {
+            try {
+                batchClient.jobOperations().deleteJob(jobId);
+            } catch (Exception e) {
+                // Ignore here
+            }
+        }
+    }
+
+
+    @Test
+    public void testListTaskChanges() throws Exception {
+        String jobId = getStringWithUserNamePrefix("-testListTaskChanges-" + (new Date()).toString().replace(' ', '-').replace(':', '-').replace('.', '-'));
+
+        PoolInformation poolInfo = new PoolInformation();
+        poolInfo.withPoolId(livePool.id());
+        batchClient.jobOperations().createJob(jobId, poolInfo);
+
+        int TASK_COUNT=100;
+
+        try {
+            // CREATE
+            List<TaskAddParameter> tasksToAdd = new ArrayList<>();
+            for (int i=0; i<TASK_COUNT; i++)
+            {
+                TaskAddParameter addParameter = new TaskAddParameter();
+                addParameter.withId(String.format("mytask%d", i)).withCommandLine(String.format("cmd /c echo hello %d",i));
+                tasksToAdd.add(addParameter);
+            }
+            batchClient.taskOperations().createTasks(jobId, tasksToAdd);
+
+            // LIST every task on the first call
+            TaskChangeCursor cursor = new TaskChangeCursor(jobId);
+            Map<String, DateTime> transitions = new HashMap<>();
+            for (CloudTask task : batchClient.taskOperations().listTaskChanges(cursor)) {
+                transitions.put(task.id(), task.stateTransitionTime());
+            }
+            Assert.assertEquals(TASK_COUNT, transitions.size());
+            Assert.assertNotNull(cursor.highWaterMark());
+
+            // LIST only the tasks which changed state since, a task first seen now has no earlier transition
+            for (CloudTask task : batchClient.taskOperations().listTaskChanges(cursor)) {
+                DateTime previousTransition = transitions.get(task.id());
+                if (previousTransition != null) {
+                    Assert.assertTrue(task.stateTransitionTime().isAfter(previousTransition));
+                }
+            }
+
+            // WATCH publishes every task on the first poll, and drops a job which does not exist
+            final Set<String> watchedTaskIds = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+            final Set<String> failedJobIds = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+            String missingJobId = jobId + "-missing";
+            try (TaskStateWatcher watcher = batchClient.taskOperations().createTaskStateWatcher()) {
+                watcher.addListener(new TaskStateListener() {
+                    @Override
+                    public void taskStateChanged(TaskStateChanged change) {
+                        watchedTaskIds.add(change.taskId());
+                    }
+
+                    @Override
+                    public void pollFailed(String jobId, Exception error) {
+                        failedJobIds.add(jobId);
+                    }
+                });
+                Assert.assertTrue(watcher.watchJob(jobId));
+                Assert.assertTrue(watcher.watchJob(missingJobId));
+                long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(60);
+                while ((watchedTaskIds.size() < TASK_COUNT || failedJobIds.isEmpty()) && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(500);
+                }
+                Assert.assertEquals(Collections.singleton(missingJobId), failedJobIds);
+                Assert.assertEquals(Collections.singletonList(jobId), watcher.watchedJobIds());
+            }
+            Assert.assertEquals(TASK_COUNT, watchedTaskIds.size());
+        } finally {
+            try {
+                batchClient.jobOperations().deleteJob(jobId);
+            } catch (Exception e) {
+                // Ignore here
+            }
+        }
+    }
+
+
+    @Test
+    public void testTrackTaskStates() throws Exception {
+        String jobId = getStringWithUserNamePrefix("-testTrackTaskStates-" + (new Date()).toString().replace(' ', '-').replace(':', '-').replace('.', '-'));
+
+        PoolInformation poolInfo = new PoolInformation();
+        poolInfo.withPoolId(livePool.id());
+        batchClient.jobOperations().createJob(jobId, poolInfo);
+
+        int TASK_COUNT=100;
+
+        try {
+            // CREATE
+            List<TaskAddParameter> tasksToAdd = new ArrayList<>();
+            for (int i=0; i<TASK_COUNT; i++)
+            {
+                TaskAddParameter addParameter = new TaskAddParameter();
+                addParameter.withId(String.format("mytask%d", i)).withCommandLine(String.format("cmd /c echo hello %d",i));
+                tasksToAdd.add(addParameter);
+            }
+            batchClient.taskOperations().createTasks(jobId, tasksToAdd);
+
+            // TRACK every task on the first refresh
+            TaskStateTracker tracker = batchClient.taskOperations().createTaskStateTracker(Collections.singletonList(jobId));
+            Assert.assertEquals(Collections.singleton(jobId), tracker.jobIds());
+            tracker.refresh();
+            Assert.assertEquals(TASK_COUNT, tracker.taskCount());
+            int tasksInAnyState = 0;
+            for (TaskState state : TaskState.values()) {
+                tasksInAnyState += tracker.countTasks(state);
+            }
+            Assert.assertEquals(TASK_COUNT, tasksInAnyState);
+            for (int i=0; i<TASK_COUNT; i++) {
+                Assert.assertNotNull(tracker.state(jobId, String.format("mytask%d", i)));
+            }
+            Assert.assertNull(tracker.state(jobId, "notatask"));
+
+            // A later refresh only updates the tasks already tracked
+            tracker.refresh();
+            Assert.assertEquals(TASK_COUNT, tracker.taskCount());
+        } finally {
+            try {
+                batchClient.jobOperations().deleteJob(jobId);
+            } catch (Exception e) {
+                // Ignore here
+            }
+        }
+    }
+
+
+    @Test
+    public void testAddMultiTasksContinueOnError() throws Exception {
+        String jobId = getStringWithUserNamePrefix("-testAddMultiTasksContinueOnError-" + (new Date()).toString().replace(' ', '-').replace(':', '-').replace('.', '-'));
+
+        PoolInformation poolInfo = new PoolInformation();
+        poolInfo.withPoolId(livePool.id());
+        batchClient.jobOperations().createJob(jobId, poolInfo);
+
+        int TASK_COUNT=1000;
+        int BAD_TASK_COUNT=10;
+
+        try {
+            // CREATE
+            List<TaskAddParameter> tasksToAdd = new ArrayList<>();
+            for (int i=0; i<TASK_COUNT; i++)
+            {
+                TaskAddParameter addParameter = new TaskAddParameter();
+                // Every 100th task has an invalid ID and is rejected by the service
+                String id = (i % 100 == 0) ? String.format("my task %d!", i) : String.format("mytask%d", i);
+                addParameter.withId(id).withCommandLine(String.format("cmd /c echo hello %d",i));
+                tasksToAdd.add(addParameter);
+            }
+            Collection<BatchClientBehavior> behaviors = new HashSet<>();
+            behaviors.add(new BatchClientParallelOptions(10));
+            behaviors.add(new BulkAddOptions().withContinueOnError(true));
+            BulkAddResult result = batchClient.taskOperations().createTasks(jobId, tasksToAdd.iterator(), behaviors);
+
+            Assert.assertEquals(TASK_COUNT - BAD_TASK_COUNT, result.tasksAccepted());
+            Assert.assertEquals(BAD_TASK_COUNT, result.tasksFailed());
+            for (TaskAddResult failure : result.failures()) {
+                Assert.assertEquals(TaskAddStatus.CLIENT_ERROR, failure.status());
+                Assert.assertNotNull(failure.error());
+            }
+
+            // LIST
+            List<CloudTask> tasks = batchClient.taskOperations().listTasks(jobId);
+            Assert.assertNotNull(tasks);
+            Assert.assertTrue(tasks.size() == TASK_COUNT - BAD_TASK_COUNT);
+        } finally {
+            try {
+                batchClient.jobOperations().deleteJob(jobId);
+            } catch (Exception e) {
+                // Ignore here
+            }
+        }
+    }
+
+
     @Test
     public void testAddMultiTasksWithError() throws Exception {
 
@@ -385,6 +1163,43 @@ public class TaskTests  extends BatchTestBase {
             counts = batchClient.jobOperations().getTaskCounts(jobId);
             all = counts.active() + counts.completed() + counts.running();
             Assert.assertEquals(TASK_COUNT, all);
+
+            // Concurrent identical reads share one request, so the callers joining it get its result instance
+            // while every request sent deserializes a result of its own
+            final String countedJobId = jobId;
+            final AtomicInteger callers = new AtomicInteger();
+            final List<BatchClientBehavior> coalesce = Arrays.asList(new RequestCoalescingOptions(),
+                    new RequestInterceptor(new BatchRequestInterceptHandler() {
+                        @Override
+                        public void modify(Object request) {
+                            callers.incrementAndGet();
+                        }
+                    }));
+            final CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(10);
+            try {
+                List<Future<TaskCounts>> concurrentCounts = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                    concurrentCounts.add(executor.submit(new Callable<TaskCounts>() {
+                        @Override
+                        public TaskCounts call() throws Exception {
+                            start.await();
+                            return batchClient.jobOperations().getTaskCounts(countedJobId, coalesce);
+                        }
+                    }));
+                }
+                start.countDown();
+                Set<TaskCounts> sent = Collections.newSetFromMap(new IdentityHashMap<TaskCounts, Boolean>());
+                for (Future<TaskCounts> concurrentCount : concurrentCounts) {
+                    counts = concurrentCount.get();
+                    Assert.assertEquals(TASK_COUNT, counts.active() + counts.completed() + counts.running());
+                    sent.add(counts);
+                }
+                Assert.assertEquals(10, callers.get());
+                Assert.assertTrue("requests sent: " + sent.size(), sent.size() < 10);
+            } finally {
+                executor.shutdown();
+            }
         } finally {
             try {
                 batchClient.jobOperations().deleteJob(jobId);
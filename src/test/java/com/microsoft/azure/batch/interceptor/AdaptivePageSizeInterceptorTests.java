@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.batch.interceptor;
+
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class AdaptivePageSizeInterceptorTests {
+    private static final String OPERATION = "/jobs/tasks?$select=null&$expand=null";
+
+    @Test
+    public void pageSizeFitsTheByteBudget() {
+        AdaptivePageSizeInterceptor.Estimate estimate = new AdaptivePageSizeInterceptor.Estimate();
+        estimate.observe(100 * 1000, 0, 100);
+        Assert.assertEquals(16, estimate.pageSize(16 * 1000, TimeUnit.SECONDS.toNanos(30), 10, 1000));
+    }
+
+    @Test
+    public void pageSizeFitsTheLatencyTarget() {
+        AdaptivePageSizeInterceptor.Estimate estimate = new AdaptivePageSizeInterceptor.Estimate();
+        estimate.observe(100, TimeUnit.MILLISECONDS.toNanos(1000), 100);
+        Assert.assertEquals(200, estimate.pageSize(1024 * 1024, TimeUnit.MILLISECONDS.toNanos(2000), 10, 1000));
+    }
+
+    @Test
+    public void pageSizeStaysWithinItsBounds() {
+        AdaptivePageSizeInterceptor.Estimate estimate = new AdaptivePageSizeInterceptor.Estimate();
+        Assert.assertEquals(1000, estimate.pageSize(16 * 1024, TimeUnit.SECONDS.toNanos(30), 10, 1000));
+
+        estimate.observe(1000 * 1000, 0, 10);
+        Assert.assertEquals(10, estimate.pageSize(16 * 1024, TimeUnit.SECONDS.toNanos(30), 10, 1000));
+
+        estimate = new AdaptivePageSizeInterceptor.Estimate();
+        estimate.observe(10, 0, 10);
+        Assert.assertEquals(1000, estimate.pageSize(16 * 1024, TimeUnit.SECONDS.toNanos(30), 10, 1000));
+    }
+
+    @Test
+    public void largerItemsReplaceTheEstimateAndSmallerOnesLowerItGradually() {
+        AdaptivePageSizeInterceptor.Estimate estimate = new AdaptivePageSizeInterceptor.Estimate();
+        estimate.observe(100 * 100, 0, 100);
+        estimate.observe(100 * 1000, 0, 100);
+        Assert.assertEquals(100, estimate.pageSize(100 * 1000, TimeUnit.SECONDS.toNanos(30), 10, 1000));
+
+        // 1000 + (100 - 1000) * 0.3 = 730 bytes per item
+        estimate.observe(100 * 100, 0, 100);
+        Assert.assertEquals(136, estimate.pageSize(100 * 1000, TimeUnit.SECONDS.toNanos(30), 10, 1000));
+    }
+
+    @Test
+    public void pageItemsAreCountedAcrossReads() throws Exception {
+        StringBuilder json = new StringBuilder("{\"odata.metadata\":\"https://account/$metadata#tasks\",\"value\":[");
+        for (int i = 0; i < 40; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            // Nested objects and arrays, and braces and escaped quotes in strings, are not items
+            json.append("{\"id\":\"task").append(i).append("\",\"commandLine\":\"echo \\\"{[}]\\\" \\\\\",")
+                .append("\"environmentSettings\":[{\"name\":\"a\",\"value\":\"}\"}],")
+                .append("\"executionInfo\":{\"retryCount\":0}}");
+        }
+        json.append("],\"odata.nextLink\":\"https://account/jobs/job/tasks?$skiptoken={x}\"}");
+        byte[] page = json.toString().getBytes("UTF-8");
+
+        AdaptivePageSizeInterceptor tuner = new AdaptivePageSizeInterceptor(1, 1000, 10 * 1000, 30, TimeUnit.SECONDS);
+        Assert.assertEquals(1000, tuner.pageSize(OPERATION));
+        readInSmallChunks(new AdaptivePageSizeInterceptor.PageSource(new Buffer().write(page), tuner, OPERATION, 0));
+
+        // The whole response is counted against the 40 items it holds
+        int expectedPageSize = (int) (10 * 1000 / ((double) page.length / 40));
+        Assert.assertEquals(expectedPageSize, tuner.pageSize(OPERATION));
+    }
+
+    @Test
+    public void pageWhichIsNotReadToTheEndIsNotRecorded() throws Exception {
+        byte[] page = "{\"value\":[{\"id\":\"task1\"},{\"id\":\"task2\"}]}".getBytes("UTF-8");
+        AdaptivePageSizeInterceptor tuner = new AdaptivePageSizeInterceptor(1, 1000, 10, 30, TimeUnit.SECONDS);
+        BufferedSource source = Okio.buffer(new AdaptivePageSizeInterceptor.PageSource(new Buffer().write(page), tuner, OPERATION, 0));
+        source.require(page.length);
+        source.close();
+        Assert.assertEquals(1000, tuner.pageSize(OPERATION));
+    }
+
+    @Test
+    public void emptyPageIsNotRecorded() throws Exception {
+        byte[] page = "{\"value\":[]}".getBytes("UTF-8");
+        AdaptivePageSizeInterceptor tuner = new AdaptivePageSizeInterceptor(1, 1000, 10, 30, TimeUnit.SECONDS);
+        readInSmallChunks(new AdaptivePageSizeInterceptor.PageSource(new Buffer().write(page), tuner, OPERATION, 0));
+        Assert.assertEquals(1000, tuner.pageSize(OPERATION));
+    }
+
+    private static void readInSmallChunks(AdaptivePageSizeInterceptor.PageSource source) throws Exception {
+        Buffer sink = new Buffer();
+        while (source.read(sink, 7) != -1) {
+            sink.clear();
+        }
+    }
+}